@@ -0,0 +1,131 @@
+package chess.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoardBenchmarks -- Benchmarks of the board level hot paths of ChessBoard8x8: check detection, move legality,
+ * legal move generation, game over detection and printing the board. Each runs on every position in Positions, on
+ * both board implementations. None of them change the position. See MailboxBenchmarks for the same benchmarks on
+ * a MailboxChessBoard8x8.
+ * @author sahil1105
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardBenchmarks {
+
+    @Param({"opening", "middlegame", "endgame", "customOpening", "customMiddlegame", "customEndgame"})
+    public String position;
+
+    @Param({"false", "true"})
+    public boolean bitboards;
+
+    /**
+     * The board (a ChessBoard8x8)
+     */
+    private Object board;
+
+    /**
+     * Player 1's possible moves in the position, packed as ints (see the Move class), and how many there are
+     */
+    private int[] moves;
+    private int numMoves;
+
+    /**
+     * Buffer for the legal moves written by writeLegalMoves
+     */
+    private int[] legalMoves;
+
+    /**
+     * Sets up the board with the position.
+     * @throws Throwable if the board can't be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        this.board = Positions.newBoard(this.position, this.bitboards);
+        this.moves = new int[256];
+        this.legalMoves = new int[256];
+        this.numMoves = (int) Model.WRITE_POSSIBLE_MOVES.invokeExact(this.board, true, this.moves);
+    }
+
+    /**
+     * @return whether either player is in check
+     * @throws Throwable never
+     */
+    @Benchmark
+    public boolean isInCheck() throws Throwable {
+        return (boolean) Model.IS_IN_CHECK.invokeExact(this.board, true)
+               | (boolean) Model.IS_IN_CHECK.invokeExact(this.board, false);
+    }
+
+    /**
+     * Checks every one of player 1's possible moves for legality, one at a time.
+     * @return number of legal moves
+     * @throws Throwable never
+     */
+    @Benchmark
+    public int moveLeavesKingInCheck() throws Throwable {
+        int legal = 0;
+        for (int i = 0; i < this.numMoves; i++) {
+            int move = this.moves[i];
+            if (!(boolean) Model.MOVE_LEAVES_KING_IN_CHECK.invokeExact(this.board, move & 63, (move >>> 6) & 63,
+                                                                        true)) {
+                legal++;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * @return number of legal moves player 1 has
+     * @throws Throwable never
+     */
+    @Benchmark
+    public int writeLegalMoves() throws Throwable {
+        return (int) Model.WRITE_LEGAL_MOVES.invokeExact(this.board, true, this.legalMoves);
+    }
+
+    /**
+     * @return the game state for player 1
+     * @throws Throwable never
+     */
+    @Benchmark
+    public int isGameOver() throws Throwable {
+        return (int) Model.IS_GAME_OVER.invokeExact(this.board, true);
+    }
+
+    /**
+     * @return whether player 1 has any legal moves left
+     * @throws Throwable never
+     */
+    @Benchmark
+    public boolean legalMovesLeft() throws Throwable {
+        return (boolean) Model.LEGAL_MOVES_LEFT.invokeExact(this.board, true);
+    }
+
+    /**
+     * @return the board printed as a string
+     * @throws Throwable never
+     */
+    @Benchmark
+    public Object boardToString() throws Throwable {
+        return (Object) Model.TO_STRING.invokeExact(this.board);
+    }
+
+}
@@ -0,0 +1,127 @@
+package chess.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Model -- Bridge from the benchmarks to the game's classes.
+ * The game's classes are in the default package, which classes in a named package (as JMH requires benchmarks to
+ * be) can't refer to. So they are looked up by name once, and their methods are called through static final
+ * MethodHandles, which the JIT compiles down to direct calls. Boards and pieces are passed around as Objects.
+ * Also gives access to the protected methods being benchmarked.
+ * @author sahil1105
+ */
+final class Model {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Model() {
+    }
+
+    static final MethodHandle NEW_BOARD, NEW_BITBOARD_BOARD, INIT_FROM_FEN, BOARD_ARRAY, IS_IN_CHECK,
+                              MOVE_LEAVES_KING_IN_CHECK, IS_GAME_OVER, LEGAL_MOVES_LEFT, TO_STRING,
+                              WRITE_POSSIBLE_MOVES, WRITE_LEGAL_MOVES, GET_POSSIBLE_MOVES;
+
+    /**
+     * The same methods of MailboxChessBoard8x8, which isn't a ChessBoard8x8
+     */
+    static final MethodHandle NEW_MAILBOX_BOARD, MAILBOX_INIT_FROM_FEN, MAILBOX_IS_IN_CHECK,
+                              MAILBOX_MOVE_LEAVES_KING_IN_CHECK, MAILBOX_IS_GAME_OVER, MAILBOX_LEGAL_MOVES_LEFT,
+                              MAILBOX_TO_STRING, MAILBOX_WRITE_POSSIBLE_MOVES, MAILBOX_WRITE_LEGAL_MOVES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> board = Class.forName("ChessBoard8x8");
+            Class<?> piece = Class.forName("ChessPiece");
+
+            NEW_BOARD = lookup.findConstructor(board, MethodType.methodType(void.class))
+                              .asType(MethodType.methodType(Object.class));
+            NEW_BITBOARD_BOARD = lookup.findConstructor(Class.forName("BitboardChessBoard8x8"),
+                                                        MethodType.methodType(void.class))
+                                       .asType(MethodType.methodType(Object.class));
+            INIT_FROM_FEN = handle(lookup, board, "initFromFen", String.class);
+            Field boardArray = Class.forName("Board").getDeclaredField("board");
+            boardArray.setAccessible(true);
+            BOARD_ARRAY = lookup.unreflectGetter(boardArray).asType(MethodType.methodType(Object[].class, Object.class));
+            IS_IN_CHECK = handle(lookup, board, "isInCheck", boolean.class);
+            MOVE_LEAVES_KING_IN_CHECK = handle(lookup, board, "moveLeavesKingInCheck", int.class, int.class,
+                                               boolean.class);
+            IS_GAME_OVER = handle(lookup, board, "isGameOver", boolean.class);
+            LEGAL_MOVES_LEFT = handle(lookup, board, "legalMovesLeft", boolean.class);
+            TO_STRING = handle(lookup, board, "toString");
+            WRITE_POSSIBLE_MOVES = handle(lookup, board, "writePossibleMoves", boolean.class, int[].class);
+            WRITE_LEGAL_MOVES = handle(lookup, board, "writeLegalMoves", boolean.class, int[].class);
+            GET_POSSIBLE_MOVES = handle(lookup, piece, "getPossibleMoves", Class.forName("Board"));
+
+            Class<?> mailbox = Class.forName("MailboxChessBoard8x8");
+            NEW_MAILBOX_BOARD = lookup.findConstructor(mailbox, MethodType.methodType(void.class))
+                                      .asType(MethodType.methodType(Object.class));
+            MAILBOX_INIT_FROM_FEN = handle(lookup, mailbox, "initFromFen", String.class);
+            MAILBOX_IS_IN_CHECK = handle(lookup, mailbox, "isInCheck", boolean.class);
+            MAILBOX_MOVE_LEAVES_KING_IN_CHECK = handle(lookup, mailbox, "moveLeavesKingInCheck", int.class,
+                                                       int.class, boolean.class);
+            MAILBOX_IS_GAME_OVER = handle(lookup, mailbox, "isGameOver", boolean.class);
+            MAILBOX_LEGAL_MOVES_LEFT = handle(lookup, mailbox, "legalMovesLeft", boolean.class);
+            MAILBOX_TO_STRING = handle(lookup, mailbox, "toString");
+            MAILBOX_WRITE_POSSIBLE_MOVES = handle(lookup, mailbox, "writePossibleMoves", boolean.class,
+                                                  int[].class);
+            MAILBOX_WRITE_LEGAL_MOVES = handle(lookup, mailbox, "writeLegalMoves", boolean.class, int[].class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Utility function to get a handle to a (possibly protected) method, with the receiver and any parameter of
+     * one of the game's types taking an Object instead.
+     * @param lookup The lookup to use
+     * @param owner The class declaring the method (or a subclass of it)
+     * @param name The method's name
+     * @param parameters The method's parameter types
+     * @return The handle
+     * @throws ReflectiveOperationException if there is no such method
+     */
+    private static MethodHandle handle(MethodHandles.Lookup lookup, Class<?> owner, String name,
+                                       Class<?>... parameters) throws ReflectiveOperationException {
+        Method method = findMethod(owner, name, parameters);
+        method.setAccessible(true);
+        MethodHandle handle = lookup.unreflect(method);
+        Class<?>[] erased = new Class<?>[parameters.length + 1];
+        erased[0] = Object.class;
+        for (int i = 0; i < parameters.length; i++) {
+            boolean gameType = parameters[i].getClassLoader() == owner.getClassLoader() && !parameters[i].isArray()
+                               && !parameters[i].isPrimitive();
+            erased[i + 1] = gameType ? Object.class : parameters[i];
+        }
+        Class<?> returnType = method.getReturnType().isPrimitive() ? method.getReturnType() : Object.class;
+        return handle.asType(MethodType.methodType(returnType, erased));
+    }
+
+    /**
+     * Utility function to find a method declared by a class or any of its superclasses.
+     * @param owner The class to start looking from
+     * @param name The method's name
+     * @param parameters The method's parameter types
+     * @return The method
+     * @throws NoSuchMethodException if there is no such method
+     */
+    private static Method findMethod(Class<?> owner, String name, Class<?>... parameters)
+            throws NoSuchMethodException {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredMethod(name, parameters);
+            }
+            catch (NoSuchMethodException e) {
+                //keep looking in the superclass
+            }
+        }
+        throw new NoSuchMethodException(owner.getName() + "." + name);
+    }
+
+}
@@ -0,0 +1,81 @@
+package chess.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PieceBenchmarks -- Benchmarks of getPossibleMoves for each of the piece classes. Lists the moves of every piece
+ * of the class in the position (both players'). Runs on the custom positions, which contain every piece type.
+ * @author sahil1105
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PieceBenchmarks {
+
+    @Param({"King", "Queen", "Rook", "Knight", "Bishop", "Pawn", "Nightrider", "Alfil"})
+    public String pieceClass;
+
+    @Param({"customOpening", "customMiddlegame", "customEndgame"})
+    public String position;
+
+    /**
+     * The board (a ChessBoard8x8)
+     */
+    private Object board;
+
+    /**
+     * The pieces of the class on the board
+     */
+    private Object[] pieces;
+
+    /**
+     * Sets up the board with the position, and finds the pieces of the class on it.
+     * @throws Throwable if the board can't be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        this.board = Positions.newBoard(this.position, false);
+        List<Object> found = new ArrayList<>();
+        for (Object piece : (Object[]) Model.BOARD_ARRAY.invokeExact(this.board)) {
+            if (piece != null && piece.getClass().getName().equals(this.pieceClass)) {
+                found.add(piece);
+            }
+        }
+        if (found.isEmpty()) {
+            throw new IllegalStateException("No " + this.pieceClass + " in position " + this.position);
+        }
+        this.pieces = found.toArray();
+    }
+
+    /**
+     * Lists the possible moves of each of the pieces.
+     * @param blackhole Consumes the lists, so they aren't optimised away
+     * @throws Throwable never
+     */
+    @Benchmark
+    public void getPossibleMoves(Blackhole blackhole) throws Throwable {
+        for (Object piece : this.pieces) {
+            blackhole.consume((Object) Model.GET_POSSIBLE_MOVES.invokeExact(piece, this.board));
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package chess.benchmarks;
+
+/**
+ * Positions -- The fixed set of positions the benchmarks run on, as FEN piece placements (see
+ * ChessBoard8x8.initFromFen; 'H' is a nightrider and 'A' an alfil). Player 1 (capital letters) is to move in all
+ * of them. The custom positions contain every piece type.
+ * @author sahil1105
+ */
+final class Positions {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Positions() {
+    }
+
+    static final String OPENING = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8";
+    static final String CUSTOM_OPENING = "rhbqkbna/pppppppp/8/8/8/8/PPPPPPPP/ANBQKBHR";
+    static final String CUSTOM_MIDDLEGAME = "r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R";
+    static final String CUSTOM_ENDGAME = "4k3/2p2h2/3a4/8/3Q4/1A2N3/4PB1r/4K2R";
+
+    /**
+     * Utility function to look up a position by the name used in the benchmarks' parameters.
+     * @param name One of "opening", "middlegame", "endgame", "customOpening", "customMiddlegame", "customEndgame"
+     * @return The position's FEN piece placement
+     */
+    static String byName(String name) {
+        switch (name) {
+            case "opening":
+                return OPENING;
+            case "middlegame":
+                return MIDDLEGAME;
+            case "endgame":
+                return ENDGAME;
+            case "customOpening":
+                return CUSTOM_OPENING;
+            case "customMiddlegame":
+                return CUSTOM_MIDDLEGAME;
+            case "customEndgame":
+                return CUSTOM_ENDGAME;
+            default:
+                throw new IllegalArgumentException("Unknown position: " + name);
+        }
+    }
+
+    /**
+     * Utility function to create a board set up with a position.
+     * @param name The position's name (see byName)
+     * @param bitboards Whether to create a BitboardChessBoard8x8 instead of a ChessBoard8x8
+     * @return The board
+     * @throws Throwable if the board can't be created
+     */
+    static Object newBoard(String name, boolean bitboards) throws Throwable {
+        Object board = bitboards ? (Object) Model.NEW_BITBOARD_BOARD.invokeExact()
+                                 : (Object) Model.NEW_BOARD.invokeExact();
+        Model.INIT_FROM_FEN.invokeExact(board, byName(name));
+        return board;
+    }
+
+}
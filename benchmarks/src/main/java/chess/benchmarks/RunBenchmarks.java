@@ -0,0 +1,28 @@
+package chess.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * RunBenchmarks -- Runs the benchmarks with the GC profiler, which reports the bytes allocated per operation
+ * (gc.alloc.rate.norm) next to the time taken.
+ * Usage: java -cp benchmarks/target/benchmarks.jar chess.benchmarks.RunBenchmarks [regex]
+ * @author sahil1105
+ */
+public class RunBenchmarks {
+
+    /**
+     * Runs the benchmarks.
+     * @param args Optional regular expression selecting the benchmarks to run (all of them by default)
+     * @throws RunnerException if the benchmarks fail to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "chess\\.benchmarks\\..*")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +27,13 @@ public class Alfil extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the destinations of a alfil on this square instead of stepping in each direction
+            possibleMovesFromTable((ChessBoard8x8) gameBoard, possibleMoves, Bitboards.ALFIL_TARGETS[getSquare()]);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //an alfil can take two steps diagonally in any direction
@@ -48,6 +53,15 @@ public class Alfil extends ChessPiece {
         return possibleMoves;
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.ALFIL
+     */
+    @Override
+    public int getPieceType() {
+        return ALFIL;
+    }
+
     /**
      * Overriding toString function for the Alfil class.
      * @return String representation of the Alfil class. Capital if belongs to player 1, uncapitalized
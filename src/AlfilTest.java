@@ -33,10 +33,10 @@ public class AlfilTest extends TestCase {
     public void testGetPossibleMoves() {
 
         //replace some pawns with some alfils
-        gameBoard.board[11] = new Alfil(new int[] {3,1}, true);
-        gameBoard.board[13] = new Alfil(new int[] {5,1}, true);
-        gameBoard.board[49] = new Alfil(new int[] {1,6}, false);
-        gameBoard.board[54] = new Alfil(new int[] {6,6}, false);
+        gameBoard.setPiece(11, new Alfil(new int[] {3,1}, true));
+        gameBoard.setPiece(13, new Alfil(new int[] {5,1}, true));
+        gameBoard.setPiece(49, new Alfil(new int[] {1,6}, false));
+        gameBoard.setPiece(54, new Alfil(new int[] {6,6}, false));
         String temp = gameBoard.toString();
         List<int[]> possibleMoves = gameBoard.board[11].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 2); //ensure there are 2 possible moves
@@ -52,10 +52,10 @@ public class AlfilTest extends TestCase {
 
         //empty board
         gameBoard = new ChessBoard8x8();
-        gameBoard.board[35] = new Alfil(new int[] {3,4}, true);
+        gameBoard.setPiece(35, new Alfil(new int[] {3,4}, true));
         possibleMoves = gameBoard.board[35].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 4); //ensure there are 4 possible move
-        gameBoard.board[29] = new Alfil(new int[] {5,3}, false);
+        gameBoard.setPiece(29, new Alfil(new int[] {5,3}, false));
         possibleMoves = gameBoard.board[29].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 4); //ensure there are 4 possible move
         //check the correctness of the 4 listed possible moves
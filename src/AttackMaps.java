@@ -0,0 +1,232 @@
+/**
+ * AttackMaps -- Keeps count, for every square of a ChessBoard8x8, of how many of each player's pieces attack it, so
+ * whether a square is attacked (eg. whether a king is in check) can be read straight off instead of being worked
+ * out from the pieces around it.
+ * The counts are updated incrementally as pieces move, are captured and are put back. Only the attacks of the
+ * pieces on the squares that changed, and of the sliding pieces (rooks, bishops, queens and nightriders) whose rays
+ * reach those squares, are recomputed: nothing on the rays or leaps of any other piece has changed, so they still
+ * attack the same squares. The board calls beforeChange() and afterChange() around every change to its ChessPiece
+ * array (see ChessBoard8x8.moveHelper and undoTheMove).
+ * A piece counts as attacking the squares it could capture on, whatever is on them, so pieces defending their own
+ * side's pieces count as attacking them too.
+ * @author sahil1105
+ */
+public class AttackMaps {
+
+    /**
+     * Constructor for the AttackMaps class. Builds the maps from the board's current position.
+     * @param gameBoard The board to keep the maps of
+     */
+    public AttackMaps(ChessBoard8x8 gameBoard) {
+
+        this.gameBoard = gameBoard;
+        this.attackCounts = new int[2][64];
+        this.pieceAttacks = new long[64];
+        this.affected = new int[64];
+        rebuild();
+
+    }
+
+    /**
+     * Rebuilds the maps from scratch from the board's current position. Must be called after pieces are placed into
+     * the 'board' array without going through beforeChange() and afterChange().
+     */
+    public void rebuild() {
+
+        for (int[] counts : this.attackCounts) {
+            for (int square = 0; square < 64; square++) {
+                counts[square] = 0;
+            }
+        }
+        this.occupied = 0L;
+        for (int square = 0; square < 64; square++) {
+            if (this.gameBoard.board[square] != null) {
+                this.occupied |= Bitboards.bit(square);
+            }
+        }
+        for (int square = 0; square < 64; square++) {
+            this.pieceAttacks[square] = 0L;
+            addAttacks(square);
+        }
+
+    }
+
+    /**
+     * Takes out the attacks that can change when what is on two squares changes: those of the pieces on the
+     * squares, and of the sliding pieces whose rays reach either of them. Must be called before the change, and
+     * followed by afterChange() with the same squares once it has been made.
+     * @param square1 Index in the ChessPiece array of one of the squares about to change (eg. a move's start)
+     * @param square2 Index in the ChessPiece array of the other (eg. a move's destination)
+     */
+    public void beforeChange(int square1, int square2) {
+
+        //any slider whose attacks change has one of the squares as the first change along its ray, which it attacks
+        //both before and after the change, so the sliders attacking them now are all the ones that can change
+        long changed = Bitboards.bit(square1) | Bitboards.bit(square2);
+        long sliders = (sliderAttackersOf(square1) | sliderAttackersOf(square2)) & ~changed;
+        this.numAffected = 0;
+        for (; sliders != 0; sliders &= sliders - 1) {
+            int square = Long.numberOfTrailingZeros(sliders);
+            this.affected[this.numAffected++] = square;
+            removeAttacks(square);
+        }
+        removeAttacks(square1);
+        removeAttacks(square2);
+
+    }
+
+    /**
+     * Puts back the attacks taken out by beforeChange(), worked out for the board's new position.
+     * @param square1 Index in the ChessPiece array of one of the squares that changed
+     * @param square2 Index in the ChessPiece array of the other
+     */
+    public void afterChange(int square1, int square2) {
+
+        updateOccupied(square1);
+        updateOccupied(square2);
+        for (int i = 0; i < this.numAffected; i++) {
+            addAttacks(this.affected[i]);
+        }
+        addAttacks(square1);
+        addAttacks(square2);
+
+    }
+
+    /**
+     * Getter for the number of a player's pieces attacking a square.
+     * @param square Index in the ChessPiece array of the square
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return Number of the player's pieces that could capture on the square
+     */
+    public int getAttackCount(int square, boolean byPlayer1) {
+        return this.attackCounts[byPlayer1? 0 : 1][square];
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces.
+     * @param square Index in the ChessPiece array of the square
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces could capture on the square, false otherwise
+     */
+    public boolean isAttacked(int square, boolean byPlayer1) {
+        return this.attackCounts[byPlayer1? 0 : 1][square] > 0;
+    }
+
+    /**
+     * Getter for the squares attacked by the piece on a square.
+     * @param square Index in the ChessPiece array of the square
+     * @return bitboard of the squares the piece attacks (0 if the square is empty)
+     */
+    public long getPieceAttacks(int square) {
+        return this.pieceAttacks[square];
+    }
+
+    /**
+     * Utility function to find the sliding pieces (of either player) attacking a square.
+     * @param square Index in the ChessPiece array of the square
+     * @return bitboard of the squares of the sliding pieces whose rays reach the square
+     */
+    private long sliderAttackersOf(int square) {
+
+        long target = Bitboards.bit(square);
+        long candidates = (Bitboards.queenAttacks(square, this.occupied)
+                           | Bitboards.nightriderAttacks(square, this.occupied)) & this.occupied;
+        long sliders = 0L;
+        for (; candidates != 0; candidates &= candidates - 1) {
+            int idx = Long.numberOfTrailingZeros(candidates);
+            if (isSlider(this.gameBoard.board[idx].getPieceType()) && (this.pieceAttacks[idx] & target) != 0) {
+                sliders |= Bitboards.bit(idx);
+            }
+        }
+        return sliders;
+
+    }
+
+    /**
+     * Utility function to check whether a piece type's attacks depend on the pieces in its way.
+     * @param pieceType One of the ChessPiece type constants
+     * @return true for rooks, bishops, queens and nightriders, false for the leapers, kings and pawns
+     */
+    private static boolean isSlider(int pieceType) {
+        return pieceType == ChessPiece.ROOK || pieceType == ChessPiece.BISHOP || pieceType == ChessPiece.QUEEN
+               || pieceType == ChessPiece.NIGHTRIDER;
+    }
+
+    /**
+     * Utility function to work out the attacks of the piece on a square and add them to the maps.
+     * @param square Index in the ChessPiece array of the square (may be empty)
+     */
+    private void addAttacks(int square) {
+
+        ChessPiece piece = this.gameBoard.board[square];
+        if (piece == null) {
+            return;
+        }
+        long attacks = Bitboards.attacks(piece.getPieceType(), square, piece.isPlayer1(), this.occupied);
+        this.pieceAttacks[square] = attacks;
+        int[] counts = this.attackCounts[piece.isPlayer1()? 0 : 1];
+        for (; attacks != 0; attacks &= attacks - 1) {
+            counts[Long.numberOfTrailingZeros(attacks)]++;
+        }
+
+    }
+
+    /**
+     * Utility function to take the attacks of the piece on a square out of the maps.
+     * @param square Index in the ChessPiece array of the square (may be empty)
+     */
+    private void removeAttacks(int square) {
+
+        ChessPiece piece = this.gameBoard.board[square];
+        if (piece == null) {
+            return;
+        }
+        long attacks = this.pieceAttacks[square];
+        this.pieceAttacks[square] = 0L;
+        int[] counts = this.attackCounts[piece.isPlayer1()? 0 : 1];
+        for (; attacks != 0; attacks &= attacks - 1) {
+            counts[Long.numberOfTrailingZeros(attacks)]--;
+        }
+
+    }
+
+    /**
+     * Utility function to bring the occupancy bitboard up to date for a square.
+     * @param square Index in the ChessPiece array of the square
+     */
+    private void updateOccupied(int square) {
+        if (this.gameBoard.board[square] != null) {
+            this.occupied |= Bitboards.bit(square);
+        }
+        else {
+            this.occupied &= ~Bitboards.bit(square);
+        }
+    }
+
+    /**
+     * The board the maps are kept for
+     */
+    private ChessBoard8x8 gameBoard;
+
+    /**
+     * Number of each player's pieces attacking each square, indexed by [0 for player 1, 1 for player 2][square]
+     */
+    private int[][] attackCounts;
+
+    /**
+     * Squares attacked by the piece on each square, as added to attackCounts (0 for empty squares)
+     */
+    private long[] pieceAttacks;
+
+    /**
+     * Bitboard of the occupied squares
+     */
+    private long occupied;
+
+    /**
+     * Squares of the sliding pieces whose attacks were taken out by the last beforeChange(), and how many there are
+     */
+    private int[] affected;
+    private int numAffected;
+
+}
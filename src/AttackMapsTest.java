@@ -0,0 +1,43 @@
+import junit.framework.TestCase;
+
+/**
+ * AttackMapsTest -- Tests for the AttackMaps class and the attack maps kept by the ChessBoard8x8 class.
+ * How the maps keeps up with moves is tested by ChessBoard8x8Test.testIncrementalStateMatchesFromScratch.
+ * @author sahil1105
+ */
+public class AttackMapsTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes an empty game board.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+    }
+
+    /**
+     * Tests the attack counts of a small position.
+     */
+    public void testCounts() {
+
+        gameBoard.initFromFen("4k3/8/8/3p4/8/8/3R4/3RK3");
+        AttackMaps attackMaps = gameBoard.getAttackMaps();
+        assertEquals(attackMaps.getAttackCount(19, true), 1); //d3: only the front rook, the other is behind it
+        assertEquals(attackMaps.getAttackCount(11, true), 2); //d2: the rook behind and the king defend it
+        assertEquals(attackMaps.getAttackCount(35, true), 1); //d5: the black pawn stops the ray there
+        assertEquals(attackMaps.getAttackCount(43, true), 0);
+        assertEquals(attackMaps.getAttackCount(26, false), 1); //c4, by the pawn
+        assertTrue(attackMaps.isAttacked(51, false)); //d7, by the king
+
+        //moving the front rook away opens the file for the one behind it
+        gameBoard.move(11, 10, true);
+        assertEquals(attackMaps.getAttackCount(19, true), 1);
+        assertEquals(attackMaps.getAttackCount(35, true), 1);
+        assertEquals(attackMaps.getAttackCount(58, true), 1); //c8, along the rook's new file
+
+    }
+
+}
@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +26,16 @@ public class Bishop extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the bishop's attacks in the magic bitboard tables instead of walking each ray
+            ChessBoard8x8 board = (ChessBoard8x8) gameBoard;
+            long occupied = board.occupancyWithin(Bitboards.bishopMask(getSquare()));
+            possibleMovesFromRays(board, possibleMoves, Bitboards.bishopAttacks(getSquare(), occupied),
+                                  Bitboards.BISHOP_RAYS, Bitboards.BISHOP_DIRECTIONS);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the bishop can move in, which are diagonally left or right on the board
@@ -50,6 +58,15 @@ public class Bishop extends ChessPiece {
         
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.BISHOP
+     */
+    @Override
+    public int getPieceType() {
+        return BISHOP;
+    }
+
     /**
      * Overriding toString function for the Bishop class.
      * @return String representation of the Bishop class. Capital if belongs to player 1, uncapitalized otherwise.
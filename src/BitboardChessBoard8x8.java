@@ -0,0 +1,350 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BitboardChessBoard8x8 -- Implementation of a Chess Board that, in addition to the ChessPiece array of
+ * ChessBoard8x8, keeps one bitboard (a 64-bit long, one bit per square) per piece type and player.
+ * Move generation, move validation and check detection are done on the bitboards, so they don't need to ask
+ * every ChessPiece object for its list of possible moves. The ChessPiece array is still kept up to date so the
+ * board can be used anywhere a ChessBoard8x8 is expected (eg. by the Controller and the GUI).
+ * The bitboards are (re)built from the ChessPiece array the first time they are needed after the board is
+ * initialized, or a piece is placed with setPiece().
+ * @author sahil1105
+ */
+public class BitboardChessBoard8x8 extends ChessBoard8x8 {
+
+    /**
+     * One bitboard per piece type and player. Indexed by (pieceType + offset(player1)).
+     */
+    protected long[] pieceBitboards;
+
+    /**
+     * Bitboards of all the squares occupied by player 1's and player 2's pieces respectively.
+     */
+    protected long player1Pieces, player2Pieces;
+
+    /**
+     * Whether the bitboards currently reflect the ChessPiece array.
+     */
+    private boolean bitboardsSynced;
+
+    /**
+     * Constructor for the BitboardChessBoard8x8 class. Initializes an empty board.
+     * Doesn't place the pieces on the board yet. That is done by initBoard().
+     */
+    public BitboardChessBoard8x8() {
+        super();
+        this.pieceBitboards = new long[2 * ChessPiece.NUM_PIECE_TYPES];
+        this.bitboardsSynced = false;
+    }
+
+    /**
+     * Utility function to get the index into the pieceBitboards array for a player's piece type.
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 boolean specifying the player
+     * @return index into the pieceBitboards array
+     */
+    protected static int bitboardIdx(int pieceType, boolean player1) {
+        return player1 ? pieceType : ChessPiece.NUM_PIECE_TYPES + pieceType;
+    }
+
+    /**
+     * Getter for the bitboard of a player's pieces of the given type.
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 boolean specifying the player
+     * @return bitboard with the squares of those pieces set
+     */
+    public long getPieceBitboard(int pieceType, boolean player1) {
+        ensureSynced();
+        return this.pieceBitboards[bitboardIdx(pieceType, player1)];
+    }
+
+    /**
+     * Getter for the bitboard of all squares occupied by a player.
+     * @param player1 boolean specifying the player
+     * @return bitboard with the squares occupied by the player's pieces set
+     */
+    public long getOccupancy(boolean player1) {
+        ensureSynced();
+        return player1 ? this.player1Pieces : this.player2Pieces;
+    }
+
+    /**
+     * Rebuilds all the bitboards from the ChessPiece array.
+     */
+    public void syncBitboards() {
+        Arrays.fill(this.pieceBitboards, 0L);
+        this.player1Pieces = 0L;
+        this.player2Pieces = 0L;
+        for (int idx = 0; idx < this.board.length; idx++) {
+            if (this.board[idx] != null) {
+                toggleOnBitboards(this.board[idx], idx);
+            }
+        }
+        this.bitboardsSynced = true;
+    }
+
+    /**
+     * Utility function that syncs the bitboards if they haven't been since the board was last initialized.
+     */
+    protected void ensureSynced() {
+        if (!this.bitboardsSynced) {
+            syncBitboards();
+        }
+    }
+
+    /**
+     * Computes which of the given squares are occupied, straight from the occupancy bitboards.
+     * @param mask bitboard of the squares to check
+     * @return bitboard of the squares in the mask that are occupied
+     */
+    @Override
+    protected long occupancyWithin(long mask) {
+        ensureSynced();
+        return (this.player1Pieces | this.player2Pieces) & mask;
+    }
+
+    /**
+     * Utility function that adds (or removes, if already present) a piece to the bitboards.
+     * @param piece The piece to add/remove
+     * @param idx The square the piece is on
+     */
+    private void toggleOnBitboards(ChessPiece piece, int idx) {
+        long square = Bitboards.bit(idx);
+        this.pieceBitboards[bitboardIdx(piece.getPieceType(), piece.isPlayer1())] ^= square;
+        if (piece.isPlayer1()) {
+            this.player1Pieces ^= square;
+        }
+        else {
+            this.player2Pieces ^= square;
+        }
+    }
+
+    /**
+     * Initialize board with the regular Chess pieces in their normal starting positions.
+     * The bitboards are synced with it when they are next needed.
+     */
+    @Override
+    public void initBoard() {
+        super.initBoard();
+        this.bitboardsSynced = false;
+    }
+
+    /**
+     * Puts a piece on a square, or empties it, outside of a move.
+     * The bitboards are synced with it when they are next needed.
+     * @param idx Index in the ChessPiece array of the square
+     * @param piece The piece to put there, or null to empty the square
+     */
+    @Override
+    public void setPiece(int idx, ChessPiece piece) {
+        super.setPiece(idx, piece);
+        this.bitboardsSynced = false;
+    }
+
+    /**
+     * Initializes the board with the pieces described by a FEN string.
+     * The bitboards are synced with it when they are next needed.
+     * @param fen The FEN string
+     */
+    @Override
+    public void initFromFen(String fen) {
+        super.initFromFen(fen);
+        this.bitboardsSynced = false;
+    }
+
+    /**
+     * Sets the board up with the pieces of a snapshot.
+     * The bitboards are synced with it when they are next needed.
+     * @param squares A snapshot, as returned by snapshot()
+     */
+    @Override
+    public void restore(byte[] squares) {
+        super.restore(squares);
+        this.bitboardsSynced = false;
+    }
+
+    /**
+     * Sets the board up with the same pieces as another board. The bitboards are copied too if the other board has
+     * them, otherwise they are synced when they are next needed.
+     * @param other The board to copy. Is not modified.
+     */
+    @Override
+    public void copyFrom(ChessBoard8x8 other) {
+        super.copyFrom(other);
+        if (other instanceof BitboardChessBoard8x8 && ((BitboardChessBoard8x8) other).bitboardsSynced) {
+            BitboardChessBoard8x8 bitboardOther = (BitboardChessBoard8x8) other;
+            System.arraycopy(bitboardOther.pieceBitboards, 0, this.pieceBitboards, 0, this.pieceBitboards.length);
+            this.player1Pieces = bitboardOther.player1Pieces;
+            this.player2Pieces = bitboardOther.player2Pieces;
+            this.bitboardsSynced = true;
+        }
+        else {
+            this.bitboardsSynced = false;
+        }
+    }
+
+    /**
+     * Creates an empty board of the same class as this one, for copy().
+     * @return A new empty BitboardChessBoard8x8
+     */
+    @Override
+    protected ChessBoard8x8 newEmptyBoard() {
+        return new BitboardChessBoard8x8();
+    }
+
+    /**
+     * Helper function to actually make the specified move. Updates the bitboards along with the ChessPiece array.
+     * Doesn't check for the legality of the move.
+     * @param sourceIdx Index on the ChessPiece array from where to move the piece
+     * @param destinationIdx Index on the ChessPiece array to move the piece to
+     */
+    @Override
+    protected void moveHelper(int sourceIdx, int destinationIdx) {
+        if (this.bitboardsSynced) {
+            if (this.board[destinationIdx] != null) { //capture
+                toggleOnBitboards(this.board[destinationIdx], destinationIdx);
+            }
+            toggleOnBitboards(this.board[sourceIdx], sourceIdx);
+            toggleOnBitboards(this.board[sourceIdx], destinationIdx);
+        }
+        super.moveHelper(sourceIdx, destinationIdx);
+    }
+
+    /**
+     * Utility function to undo a move. Updates the bitboards along with the ChessPiece array.
+     * @param startIdx Index in the ChessPiece array of the position the move was originally made from
+     * @param destIdx Index in the ChessPiece array of the position the move was originally made to
+     * @param originallyAtDest The ChessPiece object that was originally at the destination (to undo captures)
+     */
+    @Override
+    protected void undoTheMove(int startIdx, int destIdx, ChessPiece originallyAtDest) {
+        if (this.bitboardsSynced) {
+            toggleOnBitboards(this.board[destIdx], destIdx);
+            toggleOnBitboards(this.board[destIdx], startIdx);
+            if (originallyAtDest != null) { //restore the captured piece
+                toggleOnBitboards(originallyAtDest, destIdx);
+            }
+        }
+        super.undoTheMove(startIdx, destIdx, originallyAtDest);
+    }
+
+    /**
+     * Computes the squares the piece on the given square can move to, without checking whether the move
+     * would leave its king in check.
+     * @param square Index of a square with a piece on it
+     * @return bitboard of the squares the piece can move to
+     */
+    protected long pseudoLegalTargets(int square) {
+        ChessPiece piece = this.board[square];
+        boolean player1 = piece.isPlayer1();
+        long own = player1 ? this.player1Pieces : this.player2Pieces;
+        long opponent = player1 ? this.player2Pieces : this.player1Pieces;
+        long occupied = own | opponent;
+        if (piece.getPieceType() == ChessPiece.PAWN) {
+            //pawns move straight ahead but only capture diagonally
+            return Bitboards.pawnPushes(square, player1, occupied)
+                    | (Bitboards.pawnAttacks(square, player1) & opponent);
+        }
+        return Bitboards.attacks(piece.getPieceType(), square, player1, occupied) & ~own;
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces. Works backwards from the square: looks for
+     * the player's pieces on the squares from which each piece type could attack it.
+     * @param square Index of the square to check
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces attacks the square, false otherwise
+     */
+    @Override
+    public boolean isSquareAttacked(int square, boolean byPlayer1) {
+        ensureSynced();
+        long occupied = this.player1Pieces | this.player2Pieces;
+        long[] attackers = this.pieceBitboards;
+        int offset = bitboardIdx(0, byPlayer1);
+        long queens = attackers[offset + ChessPiece.QUEEN];
+        return (Bitboards.knightAttacks(square) & attackers[offset + ChessPiece.KNIGHT]) != 0
+                || (Bitboards.kingAttacks(square) & attackers[offset + ChessPiece.KING]) != 0
+                || (Bitboards.alfilAttacks(square) & attackers[offset + ChessPiece.ALFIL]) != 0
+                //a pawn attacks this square if it is on a square a pawn of the other player would attack from here
+                || (Bitboards.pawnAttacks(square, !byPlayer1) & attackers[offset + ChessPiece.PAWN]) != 0
+                || (Bitboards.rookAttacks(square, occupied) & (attackers[offset + ChessPiece.ROOK] | queens)) != 0
+                || (Bitboards.bishopAttacks(square, occupied) & (attackers[offset + ChessPiece.BISHOP] | queens)) != 0
+                || (Bitboards.nightriderAttacks(square, occupied) & attackers[offset + ChessPiece.NIGHTRIDER]) != 0;
+    }
+
+    /**
+     * Function to perform a move on the Game board. Makes the move only if it is legal (the piece belongs to
+     * the player whose turn it is, the piece can make this move and this move doesn't leave the player's king
+     * in check).
+     * @param source_x Starting X coordinate (column)
+     * @param source_y Starting Y coordinate (row)
+     * @param destination_x X coordinate to move to (Column)
+     * @param destination_y Y coordinate to move to (Row)
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return true if the move is legal (the move is performed)
+     *         false otherwise (the mode is not performed)
+     */
+    @Override
+    public boolean move(int source_x, int source_y, int destination_x, int destination_y, boolean player1) {
+
+        int sourceIdx = twoDPositionToBoardIdx(source_x, source_y);
+        int destinationIdx = twoDPositionToBoardIdx(destination_x, destination_y);
+        if (sourceIdx == -1 || destinationIdx == -1) {
+            return false;
+        }
+
+        ensureSynced();
+        long own = player1 ? this.player1Pieces : this.player2Pieces;
+        if ((own & Bitboards.bit(sourceIdx)) != 0
+                && (pseudoLegalTargets(sourceIdx) & Bitboards.bit(destinationIdx)) != 0
+                && !moveLeavesKingInCheck(sourceIdx, destinationIdx, player1)) {
+            moveHelper(sourceIdx, destinationIdx);
+            return true;
+        }
+        return false;
+
+    }
+
+    /**
+     * Function that lists all the possible moves for a chess piece. Ensures that returned moves do
+     * not lead to a check for the player.
+     * @param pieceIndex Index on the board where the piece is located
+     * @param player1 Boolean indicating whether the piece belongs to player 1
+     * @return List of legal moves for the given piece
+     */
+    @Override
+    public List possibleMovesForAPiece(int pieceIndex, boolean player1) {
+
+        List<int[]> possibleMoves = new ArrayList<>();
+        //base condition checks
+        if (pieceIndex < 0 || pieceIndex >= board.length || board[pieceIndex] == null
+                || board[pieceIndex].isPlayer1() != player1) {
+            return possibleMoves;
+        }
+        ensureSynced();
+        //go over the set bits of the pseudo legal targets, keeping the ones that don't leave the king in check
+        for (long targets = pseudoLegalTargets(pieceIndex); targets != 0; targets &= targets - 1) {
+            int destIdx = Long.numberOfTrailingZeros(targets);
+            if (!moveLeavesKingInCheck(pieceIndex, destIdx, player1)) {
+                possibleMoves.add(boardIdxToPosition(destIdx));
+            }
+        }
+        return possibleMoves;
+    }
+
+    /**
+     * Utility function to find the index of the specified player's King in the ChessPiece array, straight from
+     * the king bitboard.
+     * @param player1 boolean specifying whether to find player 1 (true) or player 2's (false) King
+     * @return index of the player's king in the ChessPiece array
+     *         -1 if there is no king (probably captured)
+     */
+    @Override
+    protected int findKingIdx(boolean player1) {
+        long kings = getPieceBitboard(ChessPiece.KING, player1);
+        return (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+}
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BitboardChessBoard8x8Test -- Tests for the BitboardChessBoard8x8 class.
+ * Runs all of the ChessBoard8x8 tests against a BitboardChessBoard8x8 (see ChessBoard8x8Test.newBoard()), and
+ * additionally compares it with a ChessBoard8x8 over random games and on the moves listed for every piece.
+ * @author sahil1105
+ */
+public class BitboardChessBoard8x8Test extends ChessBoard8x8Test {
+
+    /**
+     * Creates an empty BitboardChessBoard8x8, for the ChessBoard8x8 tests to run on.
+     * @return A new, empty board
+     */
+    @Override
+    protected ChessBoard8x8 newBoard() {
+        return new BitboardChessBoard8x8();
+    }
+
+    /**
+     * Utility function that converts a list of positions to a sorted array of board indices, so lists
+     * generated in different orders can be compared.
+     * @param board Board the positions are on
+     * @param positions List of int[] positions
+     * @return sorted board indices of the positions
+     */
+    private static int[] toSortedIndices(ChessBoard8x8 board, List<int[]> positions) {
+        int[] indices = new int[positions.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = board.twoDPositionToBoardIdx(positions.get(i));
+        }
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Tests that the bitboard board behaves exactly like a ChessBoard8x8 over several random games (see
+     * ChessBoard8x8Test.assertPlaysLikeChessBoard8x8()).
+     */
+    public void testMatchesChessBoard8x8() {
+        assertPlaysLikeChessBoard8x8(new BitboardChessBoard8x8());
+    }
+
+    /**
+     * Tests that possibleMovesForAPiece, which the bitboard board answers from its own bitboards, lists the same
+     * moves as a ChessBoard8x8 for every square and both players, in positions with and without checks.
+     */
+    public void testPossibleMovesForAPiece() {
+
+        String[] fens = {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", "rhbqkbna/pppppppp/8/8/8/8/PPPPPPPP/ANBQKBHR",
+                         "r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R", "4k3/8/8/8/4r3/8/2B5/4K3",
+                         "7k/8/8/6h1/8/5N2/8/4K3"};
+        ChessBoard8x8 reference = new ChessBoard8x8();
+        for (String fen : fens) {
+            reference.initFromFen(fen);
+            gameBoard.initFromFen(fen);
+            for (boolean turn : new boolean[] {true, false}) {
+                for (int idx = 0; idx < 64; idx++) {
+                    List<int[]> expected = reference.possibleMovesForAPiece(idx, turn);
+                    List<int[]> actual = gameBoard.possibleMovesForAPiece(idx, turn);
+                    assertEquals(Arrays.equals(toSortedIndices(gameBoard, actual),
+                                               toSortedIndices(reference, expected)), true);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Tests that the bitboards are kept in sync with the ChessPiece array through moves, captures and undos.
+     */
+    public void testBitboardsFollowMovesAndUndos() {
+
+        BitboardChessBoard8x8 bitboard = (BitboardChessBoard8x8) gameBoard;
+        assertEquals(bitboard.getOccupancy(true), 0xFFFFL);
+        assertEquals(bitboard.getOccupancy(false), 0xFFFFL << 48);
+        assertEquals(bitboard.getPieceBitboard(ChessPiece.KING, true), Bitboards.bit(4));
+
+        bitboard.move(12, 28, true); //pawn two steps ahead
+        bitboard.move(51, 35, false);
+        ChessPiece captured = bitboard.board[35];
+        bitboard.move(28, 35, true); //pawn captures pawn
+        assertEquals(bitboard.getPieceBitboard(ChessPiece.PAWN, true) & Bitboards.bit(35), Bitboards.bit(35));
+        assertEquals(bitboard.getPieceBitboard(ChessPiece.PAWN, false) & Bitboards.bit(35), 0L);
+
+        bitboard.undoTheMove(28, 35, captured); //undo the capture
+        assertEquals(bitboard.getPieceBitboard(ChessPiece.PAWN, true) & Bitboards.bit(28), Bitboards.bit(28));
+        assertEquals(bitboard.getPieceBitboard(ChessPiece.PAWN, false) & Bitboards.bit(35), Bitboards.bit(35));
+        assertEquals(Long.bitCount(bitboard.getOccupancy(true) | bitboard.getOccupancy(false)), 32);
+
+    }
+
+}
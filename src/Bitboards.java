@@ -0,0 +1,574 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Bitboards -- Utility class for working with bitboards, i.e. 64-bit longs where bit i is set if square i of an
+ * 8x8 board is part of the set. Square i corresponds to the same index used by the ChessPiece array of
+ * ChessBoard8x8, i.e. i = (8*y) + x.
+ * Provides the attack sets of every piece type given the occupancy of the board.
+ * @author sahil1105
+ */
+public final class Bitboards {
+
+    /**
+     * Single step directions (x,y) a king can take.
+     */
+    static final int[][] KING_DIRECTIONS = {{1, 0}, {1, 1}, {1, -1}, {0, 1}, {0, -1}, {-1, 0}, {-1, 1}, {-1, -1}};
+
+    /**
+     * Directions (x,y) of the knight steps. Also the directions of the Nightrider's rays.
+     */
+    static final int[][] KNIGHT_DIRECTIONS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {-1, 2}, {1, -2}, {-1, -2}};
+
+    /**
+     * Directions (x,y) of the alfil's leaps.
+     */
+    static final int[][] ALFIL_DIRECTIONS = {{2, 2}, {2, -2}, {-2, 2}, {-2, -2}};
+
+    /**
+     * Directions (x,y) of a rook's rays.
+     */
+    static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    /**
+     * Directions (x,y) of a bishop's rays.
+     */
+    static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    /**
+     * Private constructor, since this is a utility class which shouldn't be instantiated.
+     */
+    private Bitboards() {
+    }
+
+    /**
+     * @param square index of the square (0-63)
+     * @return A bitboard with only the given square set.
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Utility function to check if a coordinate lies on the 8x8 board.
+     * @param x The column number (zero-indexed)
+     * @param y The row number (zero-indexed)
+     * @return true if the coordinate is on the board, false otherwise
+     */
+    static boolean onBoard(int x, int y) {
+        return x >= 0 && x < 8 && y >= 0 && y < 8;
+    }
+
+    /**
+     * Precomputed destination squares of each leaper on each square, in the same order as the directions above
+     * (which is the order the pieces list their moves in). Indexed by [square].
+     */
+    static final int[][] KING_TARGETS = new int[64][], KNIGHT_TARGETS = new int[64][], ALFIL_TARGETS = new int[64][];
+
+    /**
+     * Precomputed squares a pawn can advance to (one step, then two steps if on its starting row), and the squares
+     * it can capture on (left, then right). Indexed by [0 for player 1, 1 for player 2][square].
+     */
+    static final int[][][] PAWN_PUSH_TARGETS = new int[2][64][], PAWN_CAPTURE_TARGETS = new int[2][64][];
+
+    /**
+     * Precomputed bitboards of the squares attacked by each leaper on each square. Indexed by [square].
+     */
+    private static final long[] KING_ATTACKS = new long[64], KNIGHT_ATTACKS = new long[64],
+                                ALFIL_ATTACKS = new long[64];
+
+    /**
+     * Precomputed bitboards of the squares attacked by a pawn on each square.
+     * Indexed by [0 for player 1, 1 for player 2][square].
+     */
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    /**
+     * Precomputed bitboards of the squares a pawn on each square can advance to on an empty board.
+     * Indexed by [0 for player 1, 1 for player 2][square].
+     */
+    private static final long[][] PAWN_PUSHES = new long[2][64];
+
+    //build the leaper tables once, when the class is loaded
+    static {
+        for (int square = 0; square < 64; square++) {
+            KING_TARGETS[square] = leaperTargets(square, KING_DIRECTIONS);
+            KNIGHT_TARGETS[square] = leaperTargets(square, KNIGHT_DIRECTIONS);
+            ALFIL_TARGETS[square] = leaperTargets(square, ALFIL_DIRECTIONS);
+            KING_ATTACKS[square] = toBitboard(KING_TARGETS[square]);
+            KNIGHT_ATTACKS[square] = toBitboard(KNIGHT_TARGETS[square]);
+            ALFIL_ATTACKS[square] = toBitboard(ALFIL_TARGETS[square]);
+            for (int colour = 0; colour < 2; colour++) {
+                int forward = (colour == 0) ? 1 : -1; //player 1 moves up the board, player 2 down
+                int startingYPosition = (colour == 0) ? 1 : 6;
+                int[][] pushes = ((square >>> 3) == startingYPosition) ? new int[][] {{0, forward}, {0, 2 * forward}}
+                                                                       : new int[][] {{0, forward}};
+                PAWN_PUSH_TARGETS[colour][square] = leaperTargets(square, pushes);
+                PAWN_CAPTURE_TARGETS[colour][square] = leaperTargets(square, new int[][] {{-1, forward}, {1, forward}});
+                PAWN_ATTACKS[colour][square] = toBitboard(PAWN_CAPTURE_TARGETS[colour][square]);
+                PAWN_PUSHES[colour][square] = toBitboard(PAWN_PUSH_TARGETS[colour][square]);
+            }
+        }
+    }
+
+    /**
+     * Computes the squares reachable by single steps from a square in each of the given directions.
+     * Used to build the tables above.
+     * @param square The square to step from
+     * @param directions The (x,y) steps to take
+     * @return the squares reached, in the order of the directions
+     */
+    private static int[] leaperTargets(int square, int[][] directions) {
+        int x = square & 7, y = square >>> 3;
+        int[] targets = new int[directions.length];
+        int count = 0;
+        for (int[] direction : directions) {
+            int nextX = x + direction[0], nextY = y + direction[1];
+            if (onBoard(nextX, nextY)) {
+                targets[count++] = (8 * nextY) + nextX;
+            }
+        }
+        return Arrays.copyOf(targets, count);
+    }
+
+    /**
+     * @param squares Indices of squares
+     * @return A bitboard with the given squares set
+     */
+    private static long toBitboard(int[] squares) {
+        long bitboard = 0L;
+        for (int square : squares) {
+            bitboard |= bit(square);
+        }
+        return bitboard;
+    }
+
+    /**
+     * Computes the squares reachable by repeated steps from a square in each of the given directions. Each ray
+     * stops at (and includes) the first occupied square.
+     * Walks the rays one step at a time, so it is only used to build (and test) the lookup tables below.
+     * @param square The square to step from
+     * @param occupied bitboard of all the occupied squares on the board
+     * @param directions The (x,y) steps to repeat
+     * @return bitboard of the squares reached
+     */
+    static long rayAttacks(int square, long occupied, int[][] directions) {
+        int x = square & 7, y = square >>> 3;
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int nextX = x + direction[0], nextY = y + direction[1];
+            while (onBoard(nextX, nextY)) {
+                long next = bit((8 * nextY) + nextX);
+                attacks |= next;
+                if ((occupied & next) != 0) { //blocked
+                    break;
+                }
+                nextX += direction[0];
+                nextY += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Directions (x,y) of a queen's rays, in the order the Queen lists its moves in (the bishop's, then the rook's).
+     */
+    static final int[][] QUEEN_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    /**
+     * Precomputed bitboards of all the squares on each ray of the sliding pieces (up to the edge of the board),
+     * in the same order as their directions above. Indexed by [direction][square].
+     */
+    static final long[][] ROOK_RAYS = buildRays(ROOK_DIRECTIONS), BISHOP_RAYS = buildRays(BISHOP_DIRECTIONS),
+                          QUEEN_RAYS = buildRays(QUEEN_DIRECTIONS), NIGHTRIDER_RAYS = buildRays(KNIGHT_DIRECTIONS);
+
+    /**
+     * Magic numbers for the rook, bishop and nightrider tables, one per square. These were found with the search in
+     * MagicTable, and are hardcoded so that the tables don't have to be searched for every time the class is loaded.
+     */
+    private static final long[] ROOK_MAGICS = {
+            0x0080004000208010L, 0x0240100160024000L, 0x08801000800A2000L, 0x4500041001090021L,
+            0x0480080080040002L, 0x0100010008040002L, 0x8880020001000080L, 0x2200004024011082L,
+            0x40C4800040008020L, 0x8020804000200080L, 0x4081002008104100L, 0x08A0801004080080L,
+            0x8040800402800800L, 0x0850808002000400L, 0x4828808081000200L, 0x3002002082044904L,
+            0x8000208000804000L, 0x0410004000200040L, 0x0610002004002800L, 0x0400090020100100L,
+            0x0004250010480100L, 0x8402808002000400L, 0x0310808002000100L, 0x000002001041A403L,
+            0x0000400080208004L, 0x4000820200402100L, 0x0000200100110040L, 0x0802002200081040L,
+            0x0800040080800800L, 0x0810040080800200L, 0x0400020080800100L, 0x600004020003A249L,
+            0x0000C00082800220L, 0x4210086004C00049L, 0x0020004023001302L, 0x0A06210009001000L,
+            0x0000080005001100L, 0x0001104008012004L, 0x0202021004000108L, 0x6000004402000081L,
+            0x0000804000208000L, 0x0000201000404009L, 0x0000220010820040L, 0x0000080010008080L,
+            0x0504080004008080L, 0x0400402084080110L, 0x0000010810040082L, 0x000221008842000CL,
+            0x0004801861410100L, 0x0001008040002100L, 0xC1A2042080104200L, 0x0818008208100080L,
+            0x0328000400420040L, 0x0122800400020080L, 0x0501080210010400L, 0x0200040841088200L,
+            0x0C42050022821042L, 0x3110400410208103L, 0x08010810C0228202L, 0x080100B001204409L,
+            0x0002000804209102L, 0x1002005041044802L, 0x00003000C1080214L, 0x2442394404810262L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x2040520282008500L, 0x040802040C002000L, 0x2010450218200230L, 0xA804042080204202L,
+            0x04C404228000070BL, 0x2002095008100084L, 0x0001180882080400L, 0x0202440208900411L,
+            0x0C00080830008620L, 0x4825300109010200L, 0x00000848090921C2L, 0x0000040506040140L,
+            0x24100C2420230106L, 0x0000084530100024L, 0x0801210108201649L, 0x000112014422288CL,
+            0x004002045004C105L, 0x2410040404080052L, 0x20100122002A0024L, 0x000400A124008000L,
+            0x0004800400A00010L, 0x0802020109012000L, 0x0083081188088242L, 0x0408686080880800L,
+            0xA204C00024904426L, 0x0010050030410200L, 0x0805410008060C00L, 0x100048010C021020L,
+            0x4A41080401004002L, 0x0118060080404204L, 0x0088024004820800L, 0x000C034000846401L,
+            0x00085A0828302110L, 0x002C100308484212L, 0x818072480010048AL, 0x0023010800110040L,
+            0x0044104010040100L, 0x0081005200C10100L, 0x0002220200304810L, 0x00E101410102050AL,
+            0x0402100220400901L, 0x200A421004009010L, 0x8000404220811000L, 0x4201008401202400L,
+            0x8880080104010040L, 0x20200C3002100020L, 0x8020042420880440L, 0x0530050210201180L,
+            0x00820110190C400CL, 0x0A06050108028006L, 0x0120424864100012L, 0x00380083840C0011L,
+            0x0020001002020D00L, 0x2109400204050020L, 0xA8E18B100A048024L, 0x0008300902032800L,
+            0x040142008088C004L, 0x0000902188084802L, 0x0000084022011082L, 0xC00400004C840400L,
+            0x8400002040504100L, 0x6040C00830011208L, 0x000018201802C100L, 0x0015701006082040L
+    };
+
+    private static final long[] NIGHTRIDER_MAGICS = {
+            0x0410080008010065L, 0x1010510202940480L, 0x0041500084420040L, 0x0091040004008000L,
+            0x00204100B0402208L, 0x000802010684018AL, 0x4244040006884002L, 0x00411A0582000024L,
+            0x300C280840300400L, 0x421028650010C100L, 0x0100082210020110L, 0x0000010401040041L,
+            0x041210048A020001L, 0x0008105900041900L, 0x0003040890080000L, 0x20308422801A0A38L,
+            0x84094230C8000120L, 0x000480502E001000L, 0x2041080450500008L, 0x0220800608002040L,
+            0x402000082A001000L, 0x0082584806002800L, 0x004C000204040004L, 0x100B004242100814L,
+            0x4C00902008080490L, 0x080A040002204203L, 0xC400448003100840L, 0x0000528202080080L,
+            0x004010000D040403L, 0x4080080802020002L, 0x000880A008108002L, 0x000102002B020102L,
+            0x000010A03250052CL, 0x0008060A00141C00L, 0x0000504400010400L, 0x0140322400408100L,
+            0x1020022040080000L, 0x8410010401900070L, 0x0809040420028850L, 0x1024150080240402L,
+            0x0410002508022107L, 0x0204002202000404L, 0x0800002802000888L, 0x0200820602001400L,
+            0x0000003628402001L, 0x0903809848012420L, 0x8500200894000800L, 0x08A3000A02000160L,
+            0x0420112008280082L, 0xA4000C0804080201L, 0x0000042010011864L, 0x488021A218014002L,
+            0x4402150004060B08L, 0x0840160006080000L, 0x81C00200040C4004L, 0x1010042205008000L,
+            0x0002040840083004L, 0x00101208220C2C02L, 0x0800000800180200L, 0x0800090400042900L,
+            0x0221008212060800L, 0x8011001002230440L, 0x00A0442402441208L, 0x0008050091950400L
+    };
+
+    /**
+     * Magic bitboard tables for the sliding pieces. The Nightrider's knight-step rays are handled exactly like
+     * the rook's and bishop's rays: only the squares on them that can block the Nightrider matter.
+     * Built once, when the class is loaded.
+     */
+    private static final MagicTable ROOK_TABLE = new MagicTable(ROOK_DIRECTIONS, ROOK_MAGICS),
+                                    BISHOP_TABLE = new MagicTable(BISHOP_DIRECTIONS, BISHOP_MAGICS),
+                                    NIGHTRIDER_TABLE = new MagicTable(KNIGHT_DIRECTIONS, NIGHTRIDER_MAGICS);
+
+    /**
+     * Builds the ray tables above.
+     * @param directions The (x,y) steps of the rays
+     * @return bitboards of the squares on each ray. Indexed by [direction][square].
+     */
+    private static long[][] buildRays(int[][] directions) {
+        long[][] rays = new long[directions.length][64];
+        for (int direction = 0; direction < directions.length; direction++) {
+            for (int square = 0; square < 64; square++) {
+                rays[direction][square] = rayAttacks(square, 0L, new int[][] {directions[direction]});
+            }
+        }
+        return rays;
+    }
+
+    /**
+     * Checks whether the squares of a ray in the given direction have increasing board indices, i.e. whether the
+     * nearest square of the ray is its lowest set bit (rather than its highest).
+     * @param direction The (x,y) step of the ray
+     * @return true if the ray goes towards higher board indices
+     */
+    static boolean isIncreasing(int[] direction) {
+        return (8 * direction[1]) + direction[0] > 0;
+    }
+
+    /**
+     * MagicTable -- Magic bitboard lookup table of the attacks of a sliding piece. For each square, the occupancy
+     * of the squares that can block the piece (the relevant squares) is multiplied by a 'magic' number, whose top
+     * bits then index a table of precomputed attack sets. The magic numbers are found by trial and error.
+     */
+    private static final class MagicTable {
+
+        /**
+         * Relevant squares for each square, i.e. the squares on the rays except for the last one on each.
+         */
+        private final long[] masks = new long[64];
+
+        /**
+         * Magic multiplier for each square.
+         */
+        private final long[] magics = new long[64];
+
+        /**
+         * Number of bits to shift the product by for each square (64 - number of relevant squares).
+         */
+        private final int[] shifts = new int[64];
+
+        /**
+         * Table of attack sets for each square, indexed by the magic index.
+         */
+        private final long[][] attacks = new long[64][];
+
+        /**
+         * Constructor for the MagicTable class. Fills in the tables for every square, using the given magic numbers
+         * where they work and searching for new ones where they don't.
+         * @param directions The (x,y) steps of the piece's rays
+         * @param knownMagics Magic number to try first for each square
+         */
+        MagicTable(int[][] directions, long[] knownMagics) {
+            Random random = new Random(1105); //fixed seed, so any search gives the same result every time
+            for (int square = 0; square < 64; square++) {
+                long mask = relevantSquares(square, directions);
+                int size = 1 << Long.bitCount(mask);
+
+                //enumerate every subset of the relevant squares, along with the attacks for that occupancy
+                long[] occupancies = new long[size];
+                long[] attackSets = new long[size];
+                long subset = 0L;
+                for (int i = 0; i < size; i++) {
+                    occupancies[i] = subset;
+                    attackSets[i] = rayAttacks(square, subset, directions);
+                    subset = (subset - mask) & mask;
+                }
+
+                this.masks[square] = mask;
+                this.shifts[square] = 64 - Long.bitCount(mask);
+                long magic = knownMagics[square];
+                //try random sparse numbers until one maps every subset to a slot without a conflicting attack set
+                while (!fillTable(square, magic, occupancies, attackSets)) {
+                    magic = random.nextLong() & random.nextLong() & random.nextLong();
+                }
+            }
+        }
+
+        /**
+         * Tries to fill in the table of a square using a magic number.
+         * @param square The square the piece is on
+         * @param magic The magic number to try
+         * @param occupancies Every subset of the square's relevant squares
+         * @param attackSets The attacks corresponding to each of the occupancies
+         * @return true if the magic number works (the table is filled in), false if two occupancies with
+         * different attacks map to the same slot (the table is left untouched)
+         */
+        private boolean fillTable(int square, long magic, long[] occupancies, long[] attackSets) {
+            long[] table = new long[occupancies.length];
+            boolean[] used = new boolean[occupancies.length];
+            for (int i = 0; i < occupancies.length; i++) {
+                int idx = (int) ((occupancies[i] * magic) >>> this.shifts[square]);
+                if (used[idx] && table[idx] != attackSets[i]) {
+                    return false;
+                }
+                used[idx] = true;
+                table[idx] = attackSets[i];
+            }
+            this.magics[square] = magic;
+            this.attacks[square] = table;
+            return true;
+        }
+
+        /**
+         * Computes the relevant squares of a square: every square on its rays except the last one on each ray,
+         * since a piece on the last square can't block anything behind it.
+         * @param square The square the piece is on
+         * @param directions The (x,y) steps of the piece's rays
+         * @return bitboard of the relevant squares
+         */
+        private static long relevantSquares(int square, int[][] directions) {
+            int x = square & 7, y = square >>> 3;
+            long relevant = 0L;
+            for (int[] direction : directions) {
+                int nextX = x + direction[0], nextY = y + direction[1];
+                while (onBoard(nextX + direction[0], nextY + direction[1])) {
+                    relevant |= bit((8 * nextY) + nextX);
+                    nextX += direction[0];
+                    nextY += direction[1];
+                }
+            }
+            return relevant;
+        }
+
+        /**
+         * @param square The square the piece is on
+         * @return bitboard of the squares whose occupancy decides the piece's attacks from this square
+         */
+        long mask(int square) {
+            return this.masks[square];
+        }
+
+        /**
+         * Looks up the attacks of the piece.
+         * @param square The square the piece is on
+         * @param occupied bitboard of the occupied squares (only the relevant ones are looked at)
+         * @return bitboard of the attacked squares
+         */
+        long attacks(int square, long occupied) {
+            return this.attacks[square][(int) (((occupied & this.masks[square]) * this.magics[square])
+                                               >>> this.shifts[square])];
+        }
+
+    }
+
+    /**
+     * @param square square the rook is on
+     * @return bitboard of the squares whose occupancy decides the attacks of a rook on the given square
+     */
+    public static long rookMask(int square) {
+        return ROOK_TABLE.mask(square);
+    }
+
+    /**
+     * @param square square the bishop is on
+     * @return bitboard of the squares whose occupancy decides the attacks of a bishop on the given square
+     */
+    public static long bishopMask(int square) {
+        return BISHOP_TABLE.mask(square);
+    }
+
+    /**
+     * @param square square the nightrider is on
+     * @return bitboard of the squares whose occupancy decides the attacks of a nightrider on the given square
+     */
+    public static long nightriderMask(int square) {
+        return NIGHTRIDER_TABLE.mask(square);
+    }
+
+    /**
+     * Computes the squares whose occupancy decides where a piece of the given type can move to. Only the
+     * occupancy of these squares needs to be gathered before calling attacks() or pawnPushes().
+     * @param pieceType One of the ChessPiece type constants
+     * @param square square the piece is on
+     * @param player1 whether the piece belongs to player 1
+     * @return bitboard of the relevant squares (empty for leapers, which can't be blocked)
+     */
+    public static long occupancyMask(int pieceType, int square, boolean player1) {
+        switch (pieceType) {
+            case ChessPiece.QUEEN:
+                return rookMask(square) | bishopMask(square);
+            case ChessPiece.ROOK:
+                return rookMask(square);
+            case ChessPiece.BISHOP:
+                return bishopMask(square);
+            case ChessPiece.NIGHTRIDER:
+                return nightriderMask(square);
+            case ChessPiece.PAWN:
+                return PAWN_PUSHES[player1 ? 0 : 1][square];
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * @param square square the king is on
+     * @return bitboard of the squares attacked by a king on the given square
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param square square the knight is on
+     * @return bitboard of the squares attacked by a knight on the given square
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @param square square the alfil is on
+     * @return bitboard of the squares attacked by an alfil on the given square
+     */
+    public static long alfilAttacks(int square) {
+        return ALFIL_ATTACKS[square];
+    }
+
+    /**
+     * @param square square the pawn is on
+     * @param player1 whether the pawn belongs to player 1 (who moves up the board) or not
+     * @return bitboard of the squares attacked (diagonally in front) by a pawn on the given square
+     */
+    public static long pawnAttacks(int square, boolean player1) {
+        return PAWN_ATTACKS[player1 ? 0 : 1][square];
+    }
+
+    /**
+     * @param square square the pawn is on
+     * @param player1 whether the pawn belongs to player 1 (who moves up the board) or not
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the (non-capturing) squares a pawn can advance to. Two steps are allowed from the
+     * pawn's starting row if both squares are empty.
+     */
+    public static long pawnPushes(int square, boolean player1, long occupied) {
+        long pushes = 0L;
+        for (int target : PAWN_PUSH_TARGETS[player1 ? 0 : 1][square]) {
+            if ((occupied & bit(target)) != 0) { //can't advance onto or past a piece
+                break;
+            }
+            pushes |= bit(target);
+        }
+        return pushes;
+    }
+
+    /**
+     * @param square square the rook is on
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the squares attacked by a rook on the given square
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE.attacks(square, occupied);
+    }
+
+    /**
+     * @param square square the bishop is on
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the squares attacked by a bishop on the given square
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE.attacks(square, occupied);
+    }
+
+    /**
+     * @param square square the queen is on
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the squares attacked by a queen on the given square
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @param square square the nightrider is on
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the squares attacked by a nightrider (repeated knight steps) on the given square
+     */
+    public static long nightriderAttacks(int square, long occupied) {
+        return NIGHTRIDER_TABLE.attacks(square, occupied);
+    }
+
+    /**
+     * Computes the squares attacked by a piece of the given type.
+     * For pawns this is only the diagonal (capturing) squares.
+     * @param pieceType One of the ChessPiece type constants
+     * @param square square the piece is on
+     * @param player1 whether the piece belongs to player 1
+     * @param occupied bitboard of all the occupied squares on the board
+     * @return bitboard of the attacked squares
+     */
+    public static long attacks(int pieceType, int square, boolean player1, long occupied) {
+        switch (pieceType) {
+            case ChessPiece.KING:
+                return kingAttacks(square);
+            case ChessPiece.QUEEN:
+                return queenAttacks(square, occupied);
+            case ChessPiece.ROOK:
+                return rookAttacks(square, occupied);
+            case ChessPiece.KNIGHT:
+                return knightAttacks(square);
+            case ChessPiece.BISHOP:
+                return bishopAttacks(square, occupied);
+            case ChessPiece.PAWN:
+                return pawnAttacks(square, player1);
+            case ChessPiece.NIGHTRIDER:
+                return nightriderAttacks(square, occupied);
+            case ChessPiece.ALFIL:
+                return alfilAttacks(square);
+            default:
+                return 0L;
+        }
+    }
+
+}
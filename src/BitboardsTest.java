@@ -0,0 +1,81 @@
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * BitboardsTest -- Tests the precomputed attack tables of the Bitboards class.
+ * @author sahil1105
+ */
+public class BitboardsTest extends TestCase {
+
+    /**
+     * Tests the leaper tables (king, knight, alfil and pawn) on corner, edge and central squares,
+     * and that the ordered target arrays agree with the attack bitboards.
+     */
+    public void testLeaperTables() {
+
+        //corners and edges have fewer destinations than the centre
+        assertEquals(Long.bitCount(Bitboards.knightAttacks(0)), 2);
+        assertEquals(Long.bitCount(Bitboards.knightAttacks(27)), 8);
+        assertEquals(Long.bitCount(Bitboards.kingAttacks(7)), 3);
+        assertEquals(Long.bitCount(Bitboards.kingAttacks(35)), 8);
+        assertEquals(Long.bitCount(Bitboards.alfilAttacks(1)), 1);
+        assertEquals(Long.bitCount(Bitboards.alfilAttacks(27)), 4);
+
+        //a knight on b1 (index 1) reaches c3 (18), a3 (16) and d2 (11), listed in the Knight's direction order
+        assertEquals(Bitboards.KNIGHT_TARGETS[1].length, 3);
+        assertEquals(Bitboards.KNIGHT_TARGETS[1][0], 11);
+        assertEquals(Bitboards.KNIGHT_TARGETS[1][1], 18);
+        assertEquals(Bitboards.KNIGHT_TARGETS[1][2], 16);
+
+        //pawns only attack diagonally forward, and may take two steps from their starting row
+        assertEquals(Bitboards.pawnAttacks(12, true), Bitboards.bit(19) | Bitboards.bit(21));
+        assertEquals(Bitboards.pawnAttacks(52, false), Bitboards.bit(43) | Bitboards.bit(45));
+        assertEquals(Bitboards.pawnAttacks(56, true), 0L);
+        assertEquals(Bitboards.pawnPushes(12, true, 0L), Bitboards.bit(20) | Bitboards.bit(28));
+        assertEquals(Bitboards.pawnPushes(12, true, Bitboards.bit(28)), Bitboards.bit(20));
+        assertEquals(Bitboards.pawnPushes(12, true, Bitboards.bit(20)), 0L);
+        assertEquals(Bitboards.pawnPushes(20, true, 0L), Bitboards.bit(28));
+
+        //the ordered targets must list exactly the squares of the attack bitboards
+        for (int square = 0; square < 64; square++) {
+            long fromTargets = 0L;
+            for (int target : Bitboards.KNIGHT_TARGETS[square]) {
+                fromTargets |= Bitboards.bit(target);
+            }
+            assertEquals(fromTargets, Bitboards.knightAttacks(square));
+        }
+
+    }
+
+    /**
+     * Tests the magic bitboard lookups of the sliding pieces (rook, bishop, queen and nightrider) against
+     * walking their rays step by step, for many random occupancies of the board.
+     */
+    public void testSlidingAttacksMatchRayWalks() {
+
+        Random random = new Random(64);
+        for (int trial = 0; trial < 200; trial++) {
+            //random boards of varying density
+            long occupied = random.nextLong() & random.nextLong() & (trial % 2 == 0 ? -1L : random.nextLong());
+            for (int square = 0; square < 64; square++) {
+                assertEquals(Bitboards.rookAttacks(square, occupied),
+                             Bitboards.rayAttacks(square, occupied, Bitboards.ROOK_DIRECTIONS));
+                assertEquals(Bitboards.bishopAttacks(square, occupied),
+                             Bitboards.rayAttacks(square, occupied, Bitboards.BISHOP_DIRECTIONS));
+                assertEquals(Bitboards.queenAttacks(square, occupied),
+                             Bitboards.rayAttacks(square, occupied, Bitboards.QUEEN_DIRECTIONS));
+                assertEquals(Bitboards.nightriderAttacks(square, occupied),
+                             Bitboards.rayAttacks(square, occupied, Bitboards.KNIGHT_DIRECTIONS));
+            }
+        }
+
+        //a nightrider on an empty board in the middle has 12 moves (as listed by the NightriderTest)
+        assertEquals(Long.bitCount(Bitboards.nightriderAttacks(27, 0L)), 12);
+        //a rook on an empty board always has 14 moves
+        assertEquals(Long.bitCount(Bitboards.rookAttacks(0, 0L)), 14);
+        assertEquals(Long.bitCount(Bitboards.rookAttacks(36, 0L)), 14);
+
+    }
+
+}
@@ -59,6 +59,23 @@ public abstract class Board {
         return;
     }
 
+    /**
+     * Initializes the board with the custom pieces (the layout with alfils and nightriders).
+     * Expected to be implemented by each child class that supports it.
+     */
+    public void initCustomBoard() {
+        return;
+    }
+
+    /**
+     * Function to get the position as the piece placement field of a FEN string.
+     * Expected to be implemented by each child class based on its structure.
+     * @return The FEN string of the position
+     */
+    public String toFen() {
+        return "";
+    }
+
     /**
      * Function that moves a piece at source_pos to dest_pos if the move is legal.
      * May capture opponent's piece.
@@ -81,6 +98,52 @@ public abstract class Board {
         return false;
     }
 
+    /**
+     * Same as move(int[], int[], boolean), with the squares given as indices (8 * y + x) on an 8x8 board.
+     * @param startIdx Index of the square of the piece to move
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying if this is player 1's move or not.
+     * @return makes the move and returns true if the move is valid/legal
+     *         else doesn't make the move and returns false.
+     */
+    public boolean move(int startIdx, int destIdx, boolean player1) {
+        return true;
+    }
+
+    /**
+     * Function to write the moves a player's pieces can make into a buffer, packed as ints (see the Move class).
+     * Doesn't check if the moves would leave the player's king in check.
+     * Expected to be implemented by each child class based on its structure.
+     * @param player1 boolean specifying whose moves to write
+     * @param moves The buffer to write the moves into. Must have room for all of them. Is modified.
+     * @return Number of moves written
+     */
+    public int writePossibleMoves(boolean player1, int[] moves) {
+        return 0;
+    }
+
+    /**
+     * Function to write the legal moves of a player into a buffer, packed as ints (see the Move class).
+     * Expected to be implemented by each child class based on its structure.
+     * @param player1 boolean specifying whose moves to write
+     * @param moves The buffer to write the moves into. Must have room for all of them. Is modified.
+     * @return Number of moves written
+     */
+    public int writeLegalMoves(boolean player1, int[] moves) {
+        return 0;
+    }
+
+    /**
+     * Function to check if any of a player's pieces attack a square of an 8x8 board.
+     * Expected to be implemented by each child class based on its structure.
+     * @param square Index (8 * y + x) of the square
+     * @param byPlayer1 boolean specifying whose pieces to look at
+     * @return true if the square is attacked, false otherwise.
+     */
+    public boolean isSquareAttacked(int square, boolean byPlayer1) {
+        return false;
+    }
+
 
     /**
      * Function to check if the game is over (checkmate, stalemate, etc.) based on the rules of the game.
@@ -94,6 +157,28 @@ public abstract class Board {
     }
 
 
+    /**
+     * Function to get a 64-bit hash identifying the current arrangement of the pieces on the board, eg. to be used
+     * as the key of a cache of positions. Equal positions always have equal hashes; different positions have
+     * different hashes with very high probability.
+     * Doesn't include whose turn it is (see getPositionHash(boolean)).
+     * Expected to be implemented by each child class based on its structure.
+     * @return The hash of the position
+     */
+    public long getPositionHash() {
+        return 0L;
+    }
+
+    /**
+     * Function to get a 64-bit hash identifying the current position, including whose turn it is.
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return The hash of the position
+     */
+    public long getPositionHash(boolean player1) {
+        return player1? getPositionHash() : (getPositionHash() ^ Zobrist.SIDE_TO_MOVE);
+    }
+
+
     /**
      * Overriding the toString function to aid in printing the board.
      * @return String representation of the Board.
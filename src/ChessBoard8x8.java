@@ -1,6 +1,3 @@
-import com.sun.istack.internal.NotNull;
-import javafx.util.Pair;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
@@ -15,12 +12,105 @@ import java.util.ListIterator;
  */
 public class ChessBoard8x8 extends Board {
 
+    /**
+     * Last known index in the ChessPiece array of each player's king (player 1's at 0, player 2's at 1).
+     * -1 if not known. Kept up to date by moveHelper and undoTheMove, and checked (and looked up again if wrong)
+     * by findKingIdx, so kings placed with setPiece are still picked up.
+     */
+    private int[] kingIdx;
+
+    /**
+     * Indices in the ChessPiece array of each player's pieces (player 1's at 0, player 2's at 1), in no particular
+     * order, and the number of pieces each player has. Lets the scans for one player's pieces skip the empty
+     * squares and the opponent's pieces. Built the first time they are needed after the board is initialized, and
+     * kept up to date by moveHelper and undoTheMove after that. Pieces put on the board outside of a move must be
+     * placed with setPiece(), which has them built again.
+     */
+    private int[][] pieceSquares;
+    private int[] pieceCounts;
+
+    /**
+     * Position of the piece on each square in its player's list in pieceSquares (only meaningful for occupied
+     * squares), so it can be found there without searching when it moves or is captured.
+     */
+    private int[] pieceListIdx;
+
+    /**
+     * Whether the piece lists have been built since the board was last initialized.
+     */
+    private boolean pieceListsSynced;
+
+    /**
+     * Number of each player's pieces attacking each square, read by isSquareAttacked (and so isInCheck). Built the
+     * first time it is needed after the board is initialized, and kept up to date by moveHelper and undoTheMove
+     * after that. Pieces put on the board outside of a move must be placed with setPiece(), which has them built
+     * again.
+     */
+    private AttackMaps attackMaps;
+
+    /**
+     * Whether the attack maps have been built since the board was last initialized.
+     */
+    private boolean attackMapsSynced;
+
+    /**
+     * Maximum number of moves a player can have in any position. Buffers passed to writePossibleMoves and
+     * writeLegalMoves of this size are always big enough.
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * Legal move generators for player 1 and player 2 respectively, reused by writeLegalMoves.
+     * Created the first time they are needed.
+     */
+    private LegalMoveGenerator[] legalMoveGenerators;
+
+    /**
+     * Zobrist hash of the pieces on the board (see the Zobrist class). Kept up to date by moveHelper and
+     * undoTheMove once it has been computed.
+     */
+    private long positionHash;
+
+    /**
+     * Material plus piece-square score of the pieces on the board, from player 1's point of view (see the Evaluator
+     * class). Kept up to date by moveHelper and undoTheMove along with positionHash.
+     */
+    private int pieceSquareScore;
+
+    /**
+     * Whether positionHash and pieceSquareScore have been computed since the board was last initialized.
+     */
+    private boolean positionHashed;
+
+    /**
+     * Letters used for each piece type (indexed by the ChessPiece type constants) in FEN strings. Capital for
+     * player 1's pieces, lower case for player 2's. Besides the standard ones, 'H' is a nightrider and 'A' an alfil.
+     */
+    protected static final String FEN_PIECES = "KQRNBPHA";
+
+    /**
+     * FEN piece placements of the regular and the custom starting positions (as set up by initBoard() and
+     * initCustomBoard())
+     */
+    protected static final String STANDARD_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+                                  CUSTOM_FEN = "rhbqkbna/pppppppp/8/8/8/8/PPPPPPPP/ANBQKBHR";
+
+    /**
+     * Encoding of a square in a snapshot (see snapshot()): EMPTY_SQUARE if there is no piece on it, otherwise the
+     * piece's type plus one, with PLAYER2_FLAG set for player 2's pieces.
+     */
+    public static final byte EMPTY_SQUARE = 0, PLAYER2_FLAG = 16;
+
     /**
      * Constructor for the ChessBoard8x8 class. Initializes a size 64 (8x8) ChessPiece object array.
      * Doesn't place the pieces on the board yet. That is done by initBoard().
      */
     public ChessBoard8x8() {
         this.board = new ChessPiece[64];
+        this.kingIdx = new int[] {-1, -1};
+        this.pieceSquares = new int[2][64];
+        this.pieceCounts = new int[2];
+        this.pieceListIdx = new int[64];
     }
 
     /**
@@ -138,12 +228,32 @@ public class ChessBoard8x8 extends Board {
         return (this.board[boardIdx].isPlayer1() == player1)? (short)0 : (short)1;
     }
 
+    /**
+     * Computes which of the given squares are occupied, as a bitboard (bit i set if index i of the ChessPiece
+     * array is part of the set). Used to look up the moves of sliding pieces in the tables of the Bitboards class.
+     * Only looks at the squares in the mask, so it is cheap for the small masks of a single piece.
+     * @param mask bitboard of the squares to check
+     * @return bitboard of the squares in the mask that are occupied
+     */
+    protected long occupancyWithin(long mask) {
+
+        long occupied = 0L;
+        for (; mask != 0; mask &= mask - 1) { //go over the set bits of the mask
+            if (this.board[Long.numberOfTrailingZeros(mask)] != null) {
+                occupied |= mask & -mask; //lowest set bit
+            }
+        }
+        return occupied;
+
+    }
+
     /**
      * Initialize board with the regular Chess pieces in their normal starting positions
      */
     public void initBoard() {
 
         this.clearBoard();
+        this.positionHashed = false; //computed again the next time it is asked for
 
         //initialize pawns
         for (int i = 0; i < 8; i ++) {
@@ -190,6 +300,8 @@ public class ChessBoard8x8 extends Board {
         for (int i = 0; i < this.board.length; i++) {
             this.board[i] = null;
         }
+        this.pieceListsSynced = false; //built again the next time they are needed
+        this.attackMapsSynced = false;
 
     }
 
@@ -208,6 +320,281 @@ public class ChessBoard8x8 extends Board {
 
     }
 
+    /**
+     * Initializes the board with the pieces described by the piece placement field of a FEN string
+     * (eg. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"), ranks from the 8th (row 7) down to the 1st (row 0).
+     * Capital letters are player 1's pieces. Besides the standard letters, 'H' is a nightrider and 'A' an alfil.
+     * Any fields after the piece placement (whose turn it is, castling, ...) are ignored.
+     * @param fen The FEN string
+     * @throws IllegalArgumentException if the piece placement is malformed
+     */
+    public void initFromFen(@NotNull String fen) {
+
+        this.clearBoard();
+        this.positionHashed = false; //computed again the next time it is asked for
+
+        byte[] squares = fenToSnapshot(fen);
+        for (int idx = 0; idx < 64; idx++) {
+            if (squares[idx] != EMPTY_SQUARE) {
+                this.board[idx] = PieceType.ofCode(squares[idx]).newPiece(idx, PieceType.isPlayer1(squares[idx]));
+            }
+        }
+
+    }
+
+    /**
+     * Describes the pieces on the board as the piece placement field of a FEN string (see initFromFen).
+     * @return The piece placement, eg. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR" for the starting position
+     */
+    public String toFen() {
+        return snapshotToFen(snapshot());
+    }
+
+    /**
+     * Reads the piece placement field of a FEN string (see initFromFen) into a snapshot (see snapshot()), so any
+     * kind of board can be set up from it.
+     * @param fen The FEN string
+     * @return byte[64] with the encoding of each square, indexed as the ChessPiece array
+     * @throws IllegalArgumentException if the piece placement is malformed
+     */
+    public static byte[] fenToSnapshot(@NotNull String fen) {
+
+        byte[] squares = new byte[64];
+        String[] ranks = fen.trim().split("\\s+")[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Expected 8 ranks in FEN: " + fen);
+        }
+        for (int rank = 0; rank < 8; rank++) {
+            int y = 7 - rank; //the first rank listed is the top of the board
+            int x = 0;
+            for (char c : ranks[rank].toCharArray()) {
+                if (Character.isDigit(c)) { //run of empty squares
+                    x += c - '0';
+                    continue;
+                }
+                int pieceType = FEN_PIECES.indexOf(Character.toUpperCase(c));
+                if (pieceType == -1 || x > 7) {
+                    throw new IllegalArgumentException("Invalid rank '" + ranks[rank] + "' in FEN: " + fen);
+                }
+                squares[8 * y + x] = PieceType.of(pieceType).code(Character.isUpperCase(c));
+                x++;
+            }
+            if (x != 8) {
+                throw new IllegalArgumentException("Invalid rank '" + ranks[rank] + "' in FEN: " + fen);
+            }
+        }
+        return squares;
+
+    }
+
+    /**
+     * Describes the pieces of a snapshot as the piece placement field of a FEN string (see initFromFen).
+     * @param squares A snapshot, as returned by snapshot()
+     * @return The piece placement
+     */
+    public static String snapshotToFen(@NotNull byte[] squares) {
+
+        StringBuilder fen = new StringBuilder();
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0; //length of the current run of empty squares
+            for (int x = 0; x < 8; x++) {
+                byte square = squares[8 * y + x];
+                if (square == EMPTY_SQUARE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = PieceType.ofCode(square).getFenLetter();
+                fen.append(PieceType.isPlayer1(square)? c : Character.toLowerCase(c));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+        return fen.toString();
+
+    }
+
+    /**
+     * Prints the pieces of a snapshot as a grid, in the same form as toString(). Lets the other board classes that
+     * keep their squares as codes print themselves the same way.
+     * @param squares A snapshot, as returned by snapshot()
+     * @return String representation of the board
+     */
+    public static String snapshotToString(@NotNull byte[] squares) {
+
+        StringBuilder board = new StringBuilder(""); //StringBuilder object to hold the string representation
+        for (int row = 0; row < 8; row++) {
+            board.append("\n-----------------------------------------\n");
+            for (int col = 0; col < 8; col++) {
+                board.append("|");
+                int idx = 8 * row + col;
+                board.append((idx < 10)? "  " + idx + " " : " " + idx + " ");
+            }
+            board.append("|");
+            board.append("\n");
+            for (int col = 0; col < 8; col++) {
+                board.append("|");
+                byte code = squares[8 * row + col];
+                board.append((code != EMPTY_SQUARE)?
+                             " " + PieceType.ofCode(code).toString(PieceType.isPlayer1(code)) + " " : "    ");
+            }
+            board.append("|");
+        }
+        board.append("\n-----------------------------------------\n");
+        return board.toString();
+
+    }
+
+    /**
+     * Describes the pieces on the board in a compact primitive form: one byte per square (see EMPTY_SQUARE and
+     * PLAYER2_FLAG). Unlike the board, a snapshot doesn't share anything with it, so it can be handed to other
+     * threads and restored onto other boards.
+     * @return byte[64] with the encoding of each square, indexed as the ChessPiece array
+     */
+    public byte[] snapshot() {
+        byte[] squares = new byte[64];
+        for (int idx = 0; idx < 64; idx++) {
+            squares[idx] = encodeSquare(this.board[idx]);
+        }
+        return squares;
+    }
+
+    /**
+     * Sets the board up with the pieces of a snapshot. Pieces already on the board are kept where the snapshot
+     * has the same type of piece of the same player on their square, so restoring a position close to the
+     * current one creates very few ChessPiece objects.
+     * @param squares A snapshot, as returned by snapshot()
+     * @throws IllegalArgumentException if the snapshot isn't 64 squares long or has an invalid square
+     */
+    public void restore(@NotNull byte[] squares) {
+
+        if (squares.length != 64) {
+            throw new IllegalArgumentException("Expected 64 squares in snapshot: " + squares.length);
+        }
+        for (int idx = 0; idx < 64; idx++) {
+            if (squares[idx] == EMPTY_SQUARE) {
+                this.board[idx] = null;
+                continue;
+            }
+            int pieceType = (squares[idx] & (PLAYER2_FLAG - 1)) - 1;
+            if (pieceType < 0 || pieceType >= ChessPiece.NUM_PIECE_TYPES) {
+                throw new IllegalArgumentException("Invalid square in snapshot: " + squares[idx]);
+            }
+            placePiece(idx, pieceType, (squares[idx] & PLAYER2_FLAG) == 0);
+        }
+        this.positionHashed = false; //computed again the next time it is asked for
+        this.pieceListsSynced = false; //built again the next time they are needed
+        this.attackMapsSynced = false;
+
+    }
+
+    /**
+     * Sets the board up with the same pieces as another board, without going through a snapshot. As with
+     * restore(), pieces already on the right squares are kept, and none of the other board's pieces are shared,
+     * so the two boards can then be used by different threads.
+     * @param other The board to copy. Is not modified.
+     */
+    public void copyFrom(@NotNull ChessBoard8x8 other) {
+
+        for (int idx = 0; idx < 64; idx++) {
+            ChessPiece piece = other.board[idx];
+            if (piece == null) {
+                this.board[idx] = null;
+            }
+            else {
+                placePiece(idx, piece.getPieceType(), piece.isPlayer1());
+            }
+        }
+        this.kingIdx[0] = other.kingIdx[0];
+        this.kingIdx[1] = other.kingIdx[1];
+        this.positionHash = other.positionHash;
+        this.pieceSquareScore = other.pieceSquareScore;
+        this.positionHashed = other.positionHashed;
+        this.pieceListsSynced = other.pieceListsSynced;
+        this.attackMapsSynced = false; //built again the next time they are needed
+        if (this.pieceListsSynced) {
+            for (int side = 0; side < 2; side++) {
+                System.arraycopy(other.pieceSquares[side], 0, this.pieceSquares[side], 0, other.pieceCounts[side]);
+                this.pieceCounts[side] = other.pieceCounts[side];
+            }
+            System.arraycopy(other.pieceListIdx, 0, this.pieceListIdx, 0, 64);
+        }
+
+    }
+
+    /**
+     * Creates an independent copy of the board, with pieces of its own (see copyFrom()).
+     * @return A board of the same class with the same pieces on it
+     */
+    public ChessBoard8x8 copy() {
+        ChessBoard8x8 copy = newEmptyBoard();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Creates an empty board of the same class as this one, for copy(). Expected to be overridden by subclasses.
+     * @return A new empty board
+     */
+    protected ChessBoard8x8 newEmptyBoard() {
+        return new ChessBoard8x8();
+    }
+
+    /**
+     * Puts a piece on a square, or empties it, outside of a move (eg. to set up a position piece by piece).
+     * Whatever was on the square is replaced. The hash, piece lists and attack maps are built again the next time
+     * they are needed, so this is the way to change the board other than by moving, rather than writing into the
+     * 'board' array.
+     * @param idx Index in the ChessPiece array of the square
+     * @param piece The piece to put there, whose position must be the square's, or null to empty the square
+     */
+    public void setPiece(int idx, ChessPiece piece) {
+
+        this.board[idx] = piece;
+        this.positionHashed = false; //computed again the next time it is asked for
+        this.pieceListsSynced = false; //built again the next time they are needed
+        this.attackMapsSynced = false;
+
+    }
+
+    /**
+     * Utility function to put a piece of the given type and player on a square, keeping the piece that is
+     * already there if it is the same.
+     * @param idx Index in the ChessPiece array of the square
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 Whether the piece belongs to player 1
+     */
+    private void placePiece(int idx, int pieceType, boolean player1) {
+        ChessPiece current = this.board[idx];
+        if (current != null && current.getPieceType() == pieceType && current.isPlayer1() == player1) {
+            int[] pos = current.getPos();
+            if (pos.length != 2 || pos[0] != (idx & 7) || pos[1] != (idx >>> 3)) {
+                current.setPos(boardIdxToPosition(idx));
+            }
+            return;
+        }
+        this.board[idx] = ChessPiece.newPiece(pieceType, boardIdxToPosition(idx), player1);
+    }
+
+    /**
+     * Utility function to encode a square for a snapshot.
+     * @param piece The piece on the square (null if there isn't one)
+     * @return The encoding of the square
+     */
+    public static byte encodeSquare(ChessPiece piece) {
+        if (piece == null) {
+            return EMPTY_SQUARE;
+        }
+        return (byte) ((piece.getPieceType() + 1) | (piece.isPlayer1()? 0 : PLAYER2_FLAG));
+    }
+
     /**
      * Wrapper function for the 'move' function below. This one takes the source and destination indices as arguments.
      * @param startIdx Current Index of the piece to move
@@ -299,23 +686,75 @@ public class ChessBoard8x8 extends Board {
      */
     public List possibleMovesForAPiece(int pieceIndex, boolean player1) {
 
-        List<int[]> possibleMoves = new ArrayList<>();
-        //base condition checks
-        if (pieceIndex < 0 || pieceIndex >= board.length || board[pieceIndex] == null || board[pieceIndex].isPlayer1() != player1) {
-            return possibleMoves;
-        }
-        //get the possible moves
-        possibleMoves = board[pieceIndex].getPossibleMoves(this);
-        //collect the illegal moves (that would lead to king being in check)
-        List<int[]> illegalMoves = new ArrayList<>();
-        for (int[] curr_move: possibleMoves) {
-            if (moveLeavesKingInCheck(pieceIndex, this.twoDPositionToBoardIdx(curr_move), player1)) {
-                illegalMoves.add(curr_move);
-            }
+        //work out the checks and pins once, and filter the piece's possible moves with them
+        return new LegalMoveGenerator(this, player1).legalMovesForAPiece(pieceIndex);
+    }
+
+    /**
+     * Writes all the possible moves of a player into a buffer, packed as ints (see the Move class).
+     * Doesn't check if the moves would be legal (eg. leave the king in a check). Doesn't allocate anything.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (MAX_MOVES is always
+     *              enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    public int writePossibleMoves(boolean player1, @NotNull int[] moves) {
+
+        int count = 0;
+        int[] squares = getPieceSquares(player1);
+        for (int i = 0; i < getPieceCount(player1); i++) {
+            count = this.board[squares[i]].writePossibleMoves(this, moves, count);
+        }
+        return count;
+
+    }
+
+    /**
+     * Writes all the legal moves of a player (moves that do not put the player's king in check) into a buffer,
+     * packed as ints (see the Move class). Doesn't allocate anything after the first call.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (MAX_MOVES is always
+     *              enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    public int writeLegalMoves(boolean player1, @NotNull int[] moves) {
+
+        return legalMoveGenerator(player1).writeLegalMoves(moves, 0);
+
+    }
+
+    /**
+     * Checks if the player was in check in the position their legal moves were last written for (by
+     * writeLegalMoves), as the legal move generator worked it out then. Lets code that has just listed the moves
+     * (eg. the Search) find out without isInCheck, which builds the attack maps that every move would then keep
+     * up to date. Only valid until the board is changed.
+     * @param player1 boolean specifying the player
+     * @return true if the player's king was in check, false otherwise
+     */
+    public boolean isInCheckForLegalMoves(boolean player1) {
+
+        if (this.legalMoveGenerators == null) { //no moves listed yet
+            return legalMoveGenerator(player1).isInCheck();
         }
-        //remove the illegal moves
-        possibleMoves.removeAll(illegalMoves);
-        return possibleMoves;
+        return this.legalMoveGenerators[player1? 0 : 1].isInCheck();
+
+    }
+
+    /**
+     * Utility function to get the reusable legal move generator of a player, set up for the current position.
+     * @param player1 boolean specifying the player
+     * @return The generator, with the checks and pins of the current position worked out
+     */
+    private LegalMoveGenerator legalMoveGenerator(boolean player1) {
+
+        if (this.legalMoveGenerators == null) {
+            this.legalMoveGenerators = new LegalMoveGenerator[] {new LegalMoveGenerator(this, true),
+                                                                 new LegalMoveGenerator(this, false)};
+        }
+        LegalMoveGenerator generator = this.legalMoveGenerators[player1? 0 : 1];
+        generator.analysePosition(); //the board may have changed since it was last used
+        return generator;
+
     }
 
     /**
@@ -326,13 +765,45 @@ public class ChessBoard8x8 extends Board {
      * @param sourceIdx Index on the ChessPiece array from where to move the piece
      * @param destinationIdx Index on the ChessPiece array to move the piece to
      */
-    private void moveHelper(int sourceIdx, int destinationIdx) {
-        //set the new position in the corresponding piece
-        this.board[sourceIdx].setPos(boardIdxToPosition(destinationIdx));
+    protected void moveHelper(int sourceIdx, int destinationIdx) {
+        //take out the attacks that the move can change, to be put back once it is made
+        if (this.attackMapsSynced) {
+            this.attackMaps.beforeChange(sourceIdx, destinationIdx);
+        }
+        //keep track of the king if it is the one moving
+        if (this.board[sourceIdx] instanceof King) {
+            this.kingIdx[this.board[sourceIdx].player1? 0 : 1] = destinationIdx;
+        }
+        //update the hash and score: the piece leaves its square, lands on the destination, and any captured piece
+        //goes away
+        if (this.positionHashed) {
+            this.positionHash ^= Zobrist.pieceKey(this.board[sourceIdx], sourceIdx)
+                               ^ Zobrist.pieceKey(this.board[sourceIdx], destinationIdx);
+            this.pieceSquareScore += Evaluator.squareScore(this.board[sourceIdx], destinationIdx)
+                                     - Evaluator.squareScore(this.board[sourceIdx], sourceIdx);
+            if (this.board[destinationIdx] != null) {
+                this.positionHash ^= Zobrist.pieceKey(this.board[destinationIdx], destinationIdx);
+                this.pieceSquareScore -= Evaluator.squareScore(this.board[destinationIdx], destinationIdx);
+            }
+        }
+        //update the piece lists: any captured piece leaves its player's list, and the moving piece's entry now points
+        //to the destination
+        if (this.pieceListsSynced) {
+            if (this.board[destinationIdx] != null) {
+                removeFromPieceList(destinationIdx, this.board[destinationIdx].player1);
+            }
+            this.pieceSquares[this.board[sourceIdx].player1? 0 : 1][this.pieceListIdx[sourceIdx]] = destinationIdx;
+            this.pieceListIdx[destinationIdx] = this.pieceListIdx[sourceIdx];
+        }
+        //set the new position in the corresponding piece (in place, without allocating)
+        this.board[sourceIdx].setSquare(destinationIdx);
         //move the piece
         this.board[destinationIdx] = this.board[sourceIdx];
         //empty the starting location
         this.board[sourceIdx] = null;
+        if (this.attackMapsSynced) {
+            this.attackMaps.afterChange(sourceIdx, destinationIdx);
+        }
     }
 
     /**
@@ -350,7 +821,7 @@ public class ChessBoard8x8 extends Board {
         ChessPiece originallyAtDest = this.board[destIdx];
         //make the move
         moveHelper(sourceIdx, destIdx);
-        //check if the player is now in check
+        //check if the player is now in check (read off the attack maps, which the move has brought up to date)
         boolean inCheck = this.isInCheck(player1);
         //undo the move
         this.undoTheMove(sourceIdx, destIdx, originallyAtDest);
@@ -367,18 +838,39 @@ public class ChessBoard8x8 extends Board {
      */
     protected int[] findKing(boolean player1) {
 
-        //holder to store the position in
-        int [] kingPosition = null;
+        int idx = findKingIdx(player1);
+        return (idx == -1)? null : boardIdxToPosition(idx);
 
-        //go through the ChessPiece array
-        for (int i = 0; i < this.board.length; i++) {
-            if (this.board[i] != null && (this.board[i] instanceof King) && this.board[i].isPlayer1() == player1) {
+    }
+
+    /**
+     * Utility function to find the index of the specified player's King in the ChessPiece array.
+     * Uses the cached index when the king is still there, and only goes through the player's pieces when it isn't
+     * (the king was captured, or pieces were placed with setPiece()).
+     * @param player1 boolean specifying whether to find player 1 (true) or player 2's (false) King
+     * @return index of the player's king in the ChessPiece array
+     *         -1 if there is no king (probably captured)
+     */
+    protected int findKingIdx(boolean player1) {
+
+        int side = player1? 0 : 1;
+        int cached = this.kingIdx[side];
+        //check that the cached index still holds this player's king
+        if (cached != -1 && this.board[cached] instanceof King && this.board[cached].isPlayer1() == player1) {
+            return cached;
+        }
+
+        //otherwise go through the player's pieces
+        this.kingIdx[side] = -1;
+        int[] squares = getPieceSquares(player1);
+        for (int i = 0; i < getPieceCount(player1); i++) {
+            if (this.board[squares[i]] instanceof King) {
                 //found the king
-                kingPosition = boardIdxToPosition(i);
+                this.kingIdx[side] = squares[i];
                 break;
             }
         }
-        return kingPosition;
+        return this.kingIdx[side];
 
     }
 
@@ -391,22 +883,112 @@ public class ChessBoard8x8 extends Board {
     public boolean isInCheck(boolean player1) {
 
         //get the king's location
-        //assuming this is not null
-        int[] kingPos = this.findKing(player1);
+        int kingIdx = this.findKingIdx(player1);
+        if (kingIdx == -1) { //no king (probably captured), so nothing can attack it
+            return false;
+        }
 
-        //go through all of the opponent's pieces and their possible moves
-        for (int i = 0; i < this.board.length; i++) {
-            if (this.board[i] != null && this.board[i].isPlayer1() != player1) {
-                //check if this piece can attack the king in its next move
-                if (this.board[i].canMoveToPos(this, kingPos)) {
-                    //if it can, return true
-                    return true;
-                }
+        //work backwards from the king's square, looking for an opponent's piece that can attack it
+        return isSquareAttacked(kingIdx, !player1);
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces. Reads the attack maps, which are kept up to date
+     * as moves are made and undone (see the AttackMaps class), instead of working it out from the pieces.
+     * Whatever is on the square itself is ignored, so a piece defending its own side's piece there counts as
+     * attacking it.
+     * @param square Index in the ChessPiece array of the square to check
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces can move to (capture on) the square, false otherwise
+     */
+    public boolean isSquareAttacked(int square, boolean byPlayer1) {
+        return getAttackMaps().isAttacked(square, byPlayer1);
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces, treating one square of the board as empty.
+     * Used to check where a king can move to: the king's own square mustn't block the rays of the pieces attacking
+     * it. Always reads the ChessPiece array: works backwards from the square, looking at the squares a knight,
+     * king, alfil or pawn would attack it from, and walking outwards along the rook, bishop and nightrider rays
+     * until the first piece on each. Stops as soon as an attacker is found.
+     * @param square Index in the ChessPiece array of the square to check
+     * @param byPlayer1 boolean specifying the attacking player
+     * @param ignoredIdx Index in the ChessPiece array of the square to treat as empty (-1 for none)
+     * @return true if any of the player's pieces can move to (capture on) the square, false otherwise
+     */
+    protected boolean isSquareAttacked(int square, boolean byPlayer1, int ignoredIdx) {
+
+        //leapers: the squares they attack from are the squares they would attack from here
+        if (leaperAttacks(Bitboards.KNIGHT_TARGETS[square], ChessPiece.KNIGHT, byPlayer1)
+                || leaperAttacks(Bitboards.KING_TARGETS[square], ChessPiece.KING, byPlayer1)
+                || leaperAttacks(Bitboards.ALFIL_TARGETS[square], ChessPiece.ALFIL, byPlayer1)) {
+            return true;
+        }
+        //a pawn attacks this square if it is on a square a pawn of the other player would attack from here
+        if (leaperAttacks(Bitboards.PAWN_CAPTURE_TARGETS[byPlayer1? 1 : 0][square], ChessPiece.PAWN, byPlayer1)) {
+            return true;
+        }
+
+        //sliders: the first piece along each ray is the only one that can attack through it
+        return rayAttacks(square, Bitboards.ROOK_DIRECTIONS, ChessPiece.ROOK, byPlayer1, ignoredIdx)
+                || rayAttacks(square, Bitboards.BISHOP_DIRECTIONS, ChessPiece.BISHOP, byPlayer1, ignoredIdx)
+                || rayAttacks(square, Bitboards.KNIGHT_DIRECTIONS, ChessPiece.NIGHTRIDER, byPlayer1, ignoredIdx);
+    }
+
+    /**
+     * Helper function for isSquareAttacked. Checks if a player's piece of the given type is on any of the given
+     * squares.
+     * @param squares Indices in the ChessPiece array to look at
+     * @param pieceType The type of the attacking piece (one of the constants in ChessPiece)
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if one of the squares holds such a piece, false otherwise
+     */
+    private boolean leaperAttacks(int[] squares, int pieceType, boolean byPlayer1) {
+
+        for (int sq : squares) {
+            ChessPiece piece = this.board[sq];
+            if (piece != null && piece.player1 == byPlayer1 && piece.getPieceType() == pieceType) {
+                return true;
             }
         }
+        return false;
+
+    }
 
-        //none of the opponent's piece can attack the player's king in their next move, so return false
+    /**
+     * Helper function for isSquareAttacked. Walks outwards from a square along each of the given directions,
+     * and checks if the first piece on any of the rays is a player's piece that slides along it.
+     * Queens are counted along the rook and bishop rays.
+     * @param square Index in the ChessPiece array to start from
+     * @param directions The (x,y) steps of the rays
+     * @param pieceType The type of the sliding piece (one of the constants in ChessPiece)
+     * @param byPlayer1 boolean specifying the attacking player
+     * @param ignoredIdx Index in the ChessPiece array of a square to treat as empty (-1 for none)
+     * @return true if such a piece attacks the square, false otherwise
+     */
+    private boolean rayAttacks(int square, int[][] directions, int pieceType, boolean byPlayer1, int ignoredIdx) {
+
+        //queens move like both rooks and bishops
+        boolean queenToo = pieceType == ChessPiece.ROOK || pieceType == ChessPiece.BISHOP;
+        for (int[] dir : directions) {
+            int x = (square & 7) + dir[0];
+            int y = (square >>> 3) + dir[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                ChessPiece piece = (8*y + x == ignoredIdx)? null : this.board[8*y + x];
+                if (piece != null) {
+                    //blocked here, so only this piece can attack along the ray
+                    if (piece.player1 == byPlayer1 && (piece.getPieceType() == pieceType
+                            || (queenToo && piece.getPieceType() == ChessPiece.QUEEN))) {
+                        return true;
+                    }
+                    break;
+                }
+                x += dir[0];
+                y += dir[1];
+            }
+        }
         return false;
+
     }
 
     /**
@@ -418,26 +1000,19 @@ public class ChessBoard8x8 extends Board {
      */
     public int isGameOver(boolean player1) {
 
+        //work out the checks and pins once, for both questions below
+        LegalMoveGenerator generator = legalMoveGenerator(player1);
         //if your king is dead, then game over
-        if (findKing(player1) == null) {
+        if (generator.getKingIdx() == -1) {
             return 1;
         }
-
-        //check if you have any legal moves left (moves that do not put your own king in check)
-        boolean legalMovesLeft = legalMovesLeft(player1);
-        //if you are in check
-        if (isInCheck((player1))) {
-            //but have legal moves left, then it's not a checkmate or a stalemate
-            if (legalMovesLeft) {
-                return 0;
-            }
-            //if no legal moves left, but in check, then it's a checkmate and hence game over
-            return 1;
+        //if you have a legal move left (one that does not put your own king in check), then it's not a checkmate or
+        //a stalemate. The search for one stops at the first one found.
+        if (generator.hasLegalMove()) {
+            return 0;
         }
-
-        //stalemate check, i.e. if not in check, then game is over if you do not have any legal moves left,
-        // otherwise it isn't
-        return (!legalMovesLeft? -1 : 0);
+        //if no legal moves left, it's a checkmate if you are in check, and a stalemate otherwise
+        return generator.isInCheck()? 1 : -1;
 
     }
 
@@ -446,36 +1021,10 @@ public class ChessBoard8x8 extends Board {
      * @param player1 boolean specifying if it is player 1's turn
      * @return true if you have legal moves left, false if not
      */
-    private boolean legalMovesLeft(boolean player1) {
-
-        for (int idx = 0; idx < this.board.length; idx++) {
-            if (this.board[idx] != null && this.board[idx].isPlayer1() == player1) {
-                //for each of your pieces, get their possible moves
-                List<int[]> possibleMoves = this.board[idx].getPossibleMoves(this);
-                for (int i = 0; i < possibleMoves.size(); i++) {
-                    int destIdx = twoDPositionToBoardIdx(possibleMoves.get(i)); //destIdx on the ChessPiece array
-                    //store what was originally at dest so it can be restored later
-                    ChessPiece originallyAtDest = this.board[destIdx];
-                    int[] currentPosition = boardIdxToPosition(idx); //get current location as 2D coordinates
-                    //execute the move and check if it is a legal move (doesn't put the king in check)
-                    boolean isALegalMove = this.move(currentPosition[0], currentPosition[1],
-                                                     possibleMoves.get(i)[0], possibleMoves.get(i)[1],
-                                                     player1);
-                    //if not a legal move, then check the next one (must not have been performed, so no need to undo it)
-                    if (!isALegalMove) {
-                        continue;
-                    }
-                    //since the move is legal, it must have been performed, hence we must undo the move
-                    this.undoTheMove(idx, destIdx, originallyAtDest);
-                    //since there is a legal move left, return true
-                    return true;
-
-                }
+    protected boolean legalMovesLeft(boolean player1) {
 
-            }
-        }
-        //if here, that means there were no legal moves, hence return false
-        return false;
+        //work out the checks and pins once, and stop at the first legal move found
+        return legalMoveGenerator(player1).hasLegalMove();
     }
 
     /**
@@ -485,13 +1034,195 @@ public class ChessBoard8x8 extends Board {
      * @param originallyAtDest The ChessPiece object that was originally at the destination (to undo captures)
      */
     protected void undoTheMove(int startIdx, int destIdx, ChessPiece originallyAtDest) {
+        //take out the attacks that undoing the move can change, to be put back once it is undone
+        if (this.attackMapsSynced) {
+            this.attackMaps.beforeChange(startIdx, destIdx);
+        }
+        //update the hash and score: the piece goes back to where it started, and any captured piece comes back
+        if (this.positionHashed) {
+            this.positionHash ^= Zobrist.pieceKey(this.board[destIdx], destIdx)
+                               ^ Zobrist.pieceKey(this.board[destIdx], startIdx);
+            this.pieceSquareScore += Evaluator.squareScore(this.board[destIdx], startIdx)
+                                     - Evaluator.squareScore(this.board[destIdx], destIdx);
+            if (originallyAtDest != null) {
+                this.positionHash ^= Zobrist.pieceKey(originallyAtDest, destIdx);
+                this.pieceSquareScore += Evaluator.squareScore(originallyAtDest, destIdx);
+            }
+        }
+        //update the piece lists: the moved piece's entry points back to where it started, and any captured piece
+        //goes back to its place in its player's list
+        if (this.pieceListsSynced) {
+            this.pieceSquares[this.board[destIdx].player1? 0 : 1][this.pieceListIdx[destIdx]] = startIdx;
+            this.pieceListIdx[startIdx] = this.pieceListIdx[destIdx];
+            if (originallyAtDest != null) {
+                restoreToPieceList(destIdx, originallyAtDest.player1);
+            }
+        }
         //point the original location back to the piece that was moved
         this.board[startIdx] = this.board[destIdx];
         //restore the piece originally at the destination (undo capture if there was one)
         this.board[destIdx] = originallyAtDest;
         //reset the position of the piece that was moved. Needn't do this was the ChessPiece originallyAtDest,
         //since it's position was never modified in the first place
-        this.board[startIdx].setPos(boardIdxToPosition(startIdx));
+        this.board[startIdx].setSquare(startIdx);
+        //keep track of the kings, if either of them was involved in the move
+        if (this.board[startIdx] instanceof King) {
+            this.kingIdx[this.board[startIdx].player1? 0 : 1] = startIdx;
+        }
+        if (originallyAtDest instanceof King) {
+            this.kingIdx[originallyAtDest.player1? 0 : 1] = destIdx;
+        }
+        if (this.attackMapsSynced) {
+            this.attackMaps.afterChange(startIdx, destIdx);
+        }
+    }
+
+    /**
+     * Getter for the squares of a player's pieces.
+     * @param player1 boolean specifying the player
+     * @return Indices in the ChessPiece array of the player's pieces, in no particular order. Only the first
+     *         getPieceCount(player1) are meaningful. Is not to be modified, and changes as moves are made.
+     */
+    public int[] getPieceSquares(boolean player1) {
+        ensurePieceListsSynced();
+        return this.pieceSquares[player1? 0 : 1];
+    }
+
+    /**
+     * Getter for the number of pieces a player has on the board.
+     * @param player1 boolean specifying the player
+     * @return Number of pieces
+     */
+    public int getPieceCount(boolean player1) {
+        ensurePieceListsSynced();
+        return this.pieceCounts[player1? 0 : 1];
+    }
+
+    /**
+     * Utility function that rebuilds the piece lists from the ChessPiece array.
+     */
+    private void syncPieceLists() {
+        this.pieceCounts[0] = 0;
+        this.pieceCounts[1] = 0;
+        for (int idx = 0; idx < this.board.length; idx++) {
+            if (this.board[idx] != null) {
+                addToPieceList(idx, this.board[idx].player1);
+            }
+        }
+        this.pieceListsSynced = true;
+    }
+
+    /**
+     * Getter for the attack maps, which are built first if they haven't been since the board was last initialized.
+     * @return The attack maps of the board's current position
+     */
+    public AttackMaps getAttackMaps() {
+        if (this.attackMaps == null) {
+            this.attackMaps = new AttackMaps(this);
+        }
+        else if (!this.attackMapsSynced) {
+            this.attackMaps.rebuild();
+        }
+        this.attackMapsSynced = true;
+        return this.attackMaps;
+    }
+
+    /**
+     * Utility function that builds the piece lists if they haven't been since the board was last initialized.
+     */
+    protected void ensurePieceListsSynced() {
+        if (!this.pieceListsSynced) {
+            syncPieceLists();
+        }
+    }
+
+    /**
+     * Utility function to add a piece to the end of its player's list.
+     * @param idx Index in the ChessPiece array of the square the piece is on
+     * @param player1 boolean specifying whose piece it is
+     */
+    private void addToPieceList(int idx, boolean player1) {
+        int side = player1? 0 : 1;
+        this.pieceListIdx[idx] = this.pieceCounts[side];
+        this.pieceSquares[side][this.pieceCounts[side]++] = idx;
+    }
+
+    /**
+     * Utility function to remove a piece from its player's list, by moving the last piece of the list into its
+     * place. The old last entry is left as it was past the end of the list, for restoreToPieceList.
+     * @param idx Index in the ChessPiece array of the square the piece is on
+     * @param player1 boolean specifying whose piece it is
+     */
+    private void removeFromPieceList(int idx, boolean player1) {
+        int side = player1? 0 : 1;
+        int last = this.pieceSquares[side][--this.pieceCounts[side]];
+        this.pieceSquares[side][this.pieceListIdx[idx]] = last;
+        this.pieceListIdx[last] = this.pieceListIdx[idx];
+    }
+
+    /**
+     * Utility function to undo the latest removeFromPieceList of a player that hasn't been undone yet, putting the
+     * lists back in exactly the order they were in, so that undoing a move doesn't change the order the moves are
+     * generated in. The piece that was moved into the removed piece's place is the one left just past the end of
+     * the list.
+     * @param idx Index in the ChessPiece array of the square the removed piece is back on
+     * @param player1 boolean specifying whose piece it is
+     */
+    private void restoreToPieceList(int idx, boolean player1) {
+        int side = player1? 0 : 1;
+        int end = this.pieceCounts[side]++;
+        int moved = this.pieceSquares[side][end];
+        if (moved != idx) { //wasn't the last piece of the list, so swap back with the one that took its place
+            int slot = this.pieceListIdx[moved];
+            this.pieceSquares[side][slot] = idx;
+            this.pieceListIdx[idx] = slot;
+            this.pieceListIdx[moved] = end;
+        }
+        else {
+            this.pieceListIdx[idx] = end;
+        }
+    }
+
+    /**
+     * Function to get the Zobrist hash of the pieces on the board. Computed from scratch the first time it is asked
+     * for after the board is initialized, and kept up to date by moveHelper and undoTheMove after that.
+     * Pieces placed with setPiece() have it computed again.
+     * Doesn't include whose turn it is (see getPositionHash(boolean)).
+     * @return The hash of the position
+     */
+    @Override
+    public long getPositionHash() {
+
+        if (!this.positionHashed) {
+            rehashPosition();
+        }
+        return this.positionHash;
+
+    }
+
+    /**
+     * Function to get the material plus piece-square score of the pieces on the board (see the Evaluator class).
+     * Like the hash, computed from scratch the first time it is asked for after the board is initialized, and kept
+     * up to date by moveHelper and undoTheMove after that, so it costs nothing to look up.
+     * @return The score, in centipawns, from player 1's point of view
+     */
+    public int getPieceSquareScore() {
+
+        if (!this.positionHashed) {
+            rehashPosition();
+        }
+        return this.pieceSquareScore;
+
+    }
+
+    /**
+     * Utility function that computes the Zobrist hash and the piece-square score of the pieces on the board from
+     * scratch.
+     */
+    private void rehashPosition() {
+        this.positionHash = Zobrist.hash(this.board);
+        this.pieceSquareScore = Evaluator.pieceSquareScore(this.board);
+        this.positionHashed = true;
     }
 
     /**
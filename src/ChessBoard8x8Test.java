@@ -1,6 +1,7 @@
 import junit.framework.TestCase;
 
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * ChessBoard8x8Test -- Tests for the ChessBoard8x8 class.
@@ -21,11 +22,20 @@ public class ChessBoard8x8Test extends TestCase {
      */
     public void setUp() throws Exception {
         super.setUp();
-        gameBoard = new ChessBoard8x8();
+        gameBoard = newBoard();
         gameBoard.initBoard();
         player1 = true;
     }
 
+    /**
+     * Creates an empty board of the class under test. Overridden by the tests of subclasses, so that every test
+     * here, including the ones that set up positions on a new board, runs on the subclass.
+     * @return A new, empty board
+     */
+    protected ChessBoard8x8 newBoard() {
+        return new ChessBoard8x8();
+    }
+
     /**
      * Check if the function boardIdxToPosition is working correctly.
      */
@@ -262,6 +272,22 @@ public class ChessBoard8x8Test extends TestCase {
 
     }
 
+    /**
+     * Checks that the king is still found correctly after it is captured and the capture is undone.
+     */
+    public void testFindKingAfterCapture() {
+
+        gameBoard.moveHelper(3, 43); //move the queen out, without checking legality
+        gameBoard.moveHelper(43, 60); //and capture the king with it
+        assertEquals(gameBoard.findKing(false), null);
+        assertEquals(gameBoard.isGameOver(false), 1);
+        gameBoard.undoTheMove(43, 60, new King(new int[] {4, 7}, false)); //bring the king back
+        assertEquals(gameBoard.findKing(false)[0], 4);
+        assertEquals(gameBoard.findKing(false)[1], 7);
+        assertEquals(gameBoard.isGameOver(false), 0);
+
+    }
+
     /**
      * Tests that check detection is working by putting the kings of both players in various situation where they
      * are and some aren't in check and testing that the function correctly recognizes these situations.
@@ -281,6 +307,74 @@ public class ChessBoard8x8Test extends TestCase {
 
     }
 
+    /**
+     * Tests that the check found while listing the legal moves agrees with isInCheck, in the same positions as
+     * testIsInCheck.
+     */
+    public void testIsInCheckForLegalMoves() {
+
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        testMoveLeavesKingInCheck();
+        gameBoard.writeLegalMoves(player1, moves);
+        assertEquals(gameBoard.isInCheckForLegalMoves(player1), true);
+        gameBoard.move(25, 17, !player1);
+        gameBoard.writeLegalMoves(player1, moves);
+        assertEquals(gameBoard.isInCheckForLegalMoves(player1), false);
+        gameBoard.move(35, 45, player1);
+        gameBoard.writeLegalMoves(!player1, moves);
+        assertEquals(gameBoard.isInCheckForLegalMoves(!player1), gameBoard.isInCheck(!player1));
+        assertEquals(gameBoard.isInCheckForLegalMoves(!player1), true);
+
+    }
+
+    /**
+     * Tests that isSquareAttacked agrees with asking every one of the attacker's pieces whether it can move to the
+     * square, on every square of the standard and custom boards and after a few moves and captures.
+     */
+    public void testIsSquareAttacked() {
+
+        testIsInCheck();
+        assertSquareAttacksMatchPieceMoves();
+        gameBoard.initCustomBoard();
+        assertSquareAttacksMatchPieceMoves();
+        gameBoard.move(12, 28, player1); //open up the bishop and queen
+        gameBoard.move(49, 41, !player1);
+        gameBoard.move(6, 23, player1); //nightrider out
+        gameBoard.move(57, 40, !player1);
+        assertSquareAttacksMatchPieceMoves();
+
+    }
+
+    /**
+     * Helper function for testIsSquareAttacked. Compares isSquareAttacked against the pieces' own move lists on
+     * every square not held by the attacker. Empty squares temporarily get an opponent's piece on them, so that
+     * pawns are asked about their captures rather than their pushes.
+     */
+    private void assertSquareAttacksMatchPieceMoves() {
+
+        for (int square = 0; square < 64; square++) {
+            for (boolean byPlayer1 : new boolean[] {true, false}) {
+                ChessPiece original = gameBoard.board[square];
+                if (original != null && original.isPlayer1() == byPlayer1) {
+                    continue; //pieces never list moves onto their own side's pieces
+                }
+                int[] pos = gameBoard.boardIdxToPosition(square);
+                if (original == null) {
+                    gameBoard.setPiece(square, new Rook(pos, !byPlayer1));
+                }
+                boolean expected = false;
+                for (ChessPiece piece : gameBoard.board) {
+                    if (piece != null && piece.isPlayer1() == byPlayer1 && piece.canMoveToPos(gameBoard, pos)) {
+                        expected = true;
+                    }
+                }
+                assertEquals(gameBoard.isSquareAttacked(square, byPlayer1), expected);
+                gameBoard.setPiece(square, original);
+            }
+        }
+
+    }
+
     /**
      * Tests that the game can recognize checkmate and stalemate situations.
      * It does this by creating a few situations of both and checking that the board
@@ -299,28 +393,28 @@ public class ChessBoard8x8Test extends TestCase {
         //referenced https://en.wikipedia.org/wiki/Checkmate to come up with these test cases
 
         //classic checkmate with a rook
-        gameBoard = new ChessBoard8x8();
-        gameBoard.board[31] = new King(new int[] {7,3}, true);
-        gameBoard.board[29] = new King(new int[] {5,3}, false);
-        gameBoard.board[55] = new Rook(new int[] {7,6}, false);
+        gameBoard = newBoard();
+        gameBoard.setPiece(31, new King(new int[] {7,3}, true));
+        gameBoard.setPiece(29, new King(new int[] {5,3}, false));
+        gameBoard.setPiece(55, new Rook(new int[] {7,6}, false));
         assertEquals(gameBoard.isGameOver(true), 1);
         assertEquals(gameBoard.isGameOver(false), 0);
 
         //similar to D. Bryne vs fischer
-        gameBoard = new ChessBoard8x8();
-        gameBoard.board[1] = new Queen(new int[] {1,0}, false);
-        gameBoard.board[14] = new King(new int[] {6,1}, true);
-        gameBoard.board[33] = new Pawn(new int[] {1,4}, true);
-        gameBoard.board[41] = new Bishop(new int[] {1,5}, true);
-        gameBoard.board[42] = new Knight(new int[] {2,5}, true);
-        gameBoard.board[50] = new Rook(new int[] {2,6}, true);
-        gameBoard.board[54] = new Pawn(new int[] {6,6}, false);
-        gameBoard.board[58] = new King(new int[] {2,7}, false);
+        gameBoard = newBoard();
+        gameBoard.setPiece(1, new Queen(new int[] {1,0}, false));
+        gameBoard.setPiece(14, new King(new int[] {6,1}, true));
+        gameBoard.setPiece(33, new Pawn(new int[] {1,4}, true));
+        gameBoard.setPiece(41, new Bishop(new int[] {1,5}, true));
+        gameBoard.setPiece(42, new Knight(new int[] {2,5}, true));
+        gameBoard.setPiece(50, new Rook(new int[] {2,6}, true));
+        gameBoard.setPiece(54, new Pawn(new int[] {6,6}, false));
+        gameBoard.setPiece(58, new King(new int[] {2,7}, false));
         assertEquals(gameBoard.isGameOver(true), 0);
         assertEquals(gameBoard.isGameOver(false), 1);
 
         //testing fool's mate
-        gameBoard = new ChessBoard8x8();
+        gameBoard = newBoard();
         gameBoard.initBoard();
 
         //make sure starting position is not game over state
@@ -334,25 +428,137 @@ public class ChessBoard8x8Test extends TestCase {
         assertEquals(gameBoard.isGameOver(false), 1);
 
         //stalemate example referenced from https://en.wikipedia.org/wiki/Stalemate
-        gameBoard = new ChessBoard8x8();
-        gameBoard.board[7] = new King(new int[] {7,0}, true);
-        gameBoard.board[13] = new King(new int[] {5,1}, false);
-        gameBoard.board[22] = new Queen(new int[] {6,2}, false);
+        gameBoard = newBoard();
+        gameBoard.setPiece(7, new King(new int[] {7,0}, true));
+        gameBoard.setPiece(13, new King(new int[] {5,1}, false));
+        gameBoard.setPiece(22, new Queen(new int[] {6,2}, false));
         assertEquals(gameBoard.isGameOver(true), -1);
         assertEquals(gameBoard.isGameOver(false), 0);
 
         //another stalemate check
-        gameBoard = new ChessBoard8x8();
-        gameBoard.board[30] = new King(new int[] {6,3}, false);
-        gameBoard.board[41] = new Queen(new int[] {1,5}, false);
-        gameBoard.board[48] = new Pawn(new int[] {0,6}, true);
-        gameBoard.board[56] = new King(new int[] {0,7}, true);
+        gameBoard = newBoard();
+        gameBoard.setPiece(30, new King(new int[] {6,3}, false));
+        gameBoard.setPiece(41, new Queen(new int[] {1,5}, false));
+        gameBoard.setPiece(48, new Pawn(new int[] {0,6}, true));
+        gameBoard.setPiece(56, new King(new int[] {0,7}, true));
         assertEquals(gameBoard.isGameOver(true), -1);
         assertEquals(gameBoard.isGameOver(false), 0);
 
 
     }
 
+    /**
+     * Tests isGameOver on positions reached by playing random legal moves with the custom pieces: it must agree
+     * with the number of legal moves and isInCheck, and leave the board as it was.
+     */
+    public void testIsGameOverMatchesLegalMoves() {
+
+        gameBoard.initCustomBoard();
+        Random random = new Random(20);
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        for (int ply = 0; ply < 200; ply++) {
+            String fen = gameBoard.toFen();
+            int gameState = gameBoard.isGameOver(player1);
+            assertEquals(gameBoard.toFen(), fen);
+            int count = gameBoard.writeLegalMoves(player1, moves);
+            assertEquals(gameState, count > 0? 0 : gameBoard.isInCheck(player1)? 1 : -1);
+            if (count == 0) {
+                break;
+            }
+            int move = moves[random.nextInt(count)];
+            gameBoard.move(Move.getStartIdx(move), Move.getDestIdx(move), player1);
+            player1 = !player1;
+        }
+
+    }
+
+    /**
+     * Plays random games, from both the standard and the custom layouts, making moves and taking some of them back,
+     * and checks after every change that all the state kept up to date by moveHelper and undoTheMove (the hash,
+     * the piece-square score, the piece lists and the attack maps) matches what is computed from scratch. Also
+     * checks that undoing a move puts the piece lists back in the same order.
+     */
+    public void testIncrementalStateMatchesFromScratch() {
+
+        Random random = new Random(1105);
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        for (int game = 0; game < 8; game++) {
+            if (game % 2 == 0) {
+                gameBoard.initBoard();
+            }
+            else {
+                gameBoard.initCustomBoard();
+            }
+            player1 = true;
+            for (int ply = 0; ply < 150; ply++) {
+                int count = gameBoard.writeLegalMoves(player1, moves);
+                if (count == 0) {
+                    break;
+                }
+                int[] listBefore = Arrays.copyOf(gameBoard.getPieceSquares(!player1),
+                                                 gameBoard.getPieceCount(!player1));
+                int move = moves[random.nextInt(count)];
+                int startIdx = Move.getStartIdx(move);
+                int destIdx = Move.getDestIdx(move);
+                ChessPiece originallyAtDest = gameBoard.board[destIdx];
+                gameBoard.moveHelper(startIdx, destIdx);
+                assertIncrementalStateMatchesFromScratch();
+                if (random.nextInt(4) == 0) { //take the move back every now and then
+                    gameBoard.undoTheMove(startIdx, destIdx, originallyAtDest);
+                    assertIncrementalStateMatchesFromScratch();
+                    assertTrue(Arrays.equals(Arrays.copyOf(gameBoard.getPieceSquares(!player1),
+                                                           gameBoard.getPieceCount(!player1)), listBefore));
+                    continue;
+                }
+                player1 = !player1;
+            }
+            assertEquals(gameBoard.copy().getPieceSquareScore(), gameBoard.getPieceSquareScore());
+        }
+
+    }
+
+    /**
+     * Helper function for testIncrementalStateMatchesFromScratch. Compares the incrementally kept state of the
+     * board with the same state computed from the ChessPiece array.
+     */
+    private void assertIncrementalStateMatchesFromScratch() {
+
+        assertEquals(gameBoard.getPositionHash(), Zobrist.hash(gameBoard.board));
+        assertEquals(gameBoard.getPieceSquareScore(), Evaluator.pieceSquareScore(gameBoard.board));
+
+        //the piece lists hold exactly the squares of each player's pieces
+        for (boolean side : new boolean[] {true, false}) {
+            int[] squares = gameBoard.getPieceSquares(side);
+            int numPieces = 0;
+            for (int idx = 0; idx < 64; idx++) {
+                if (gameBoard.board[idx] != null && gameBoard.board[idx].isPlayer1() == side) {
+                    numPieces++;
+                }
+            }
+            assertEquals(gameBoard.getPieceCount(side), numPieces);
+            long listed = 0L; //to make sure no square is listed twice
+            for (int i = 0; i < numPieces; i++) {
+                assertEquals(gameBoard.board[squares[i]].isPlayer1(), side);
+                listed |= Bitboards.bit(squares[i]);
+            }
+            assertEquals(Long.bitCount(listed), numPieces);
+        }
+
+        //the attack maps agree with maps built from scratch, and with the check that walks out from the square
+        AttackMaps attackMaps = gameBoard.getAttackMaps();
+        AttackMaps fromScratch = new AttackMaps(gameBoard);
+        for (int square = 0; square < 64; square++) {
+            assertEquals(attackMaps.getPieceAttacks(square), fromScratch.getPieceAttacks(square));
+            for (boolean byPlayer1 : new boolean[] {true, false}) {
+                assertEquals(attackMaps.getAttackCount(square, byPlayer1),
+                             fromScratch.getAttackCount(square, byPlayer1));
+                assertEquals(attackMaps.isAttacked(square, byPlayer1),
+                             gameBoard.isSquareAttacked(square, byPlayer1, -1));
+            }
+        }
+
+    }
+
     /**
      * Tests that the undo functionality works correctly.
      * Makes sure it works for moves that do capture another piece and those that don't.
@@ -382,4 +588,109 @@ public class ChessBoard8x8Test extends TestCase {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that snapshots and copies describe the same position as the board, and that copies are independent
+     * of it: moves made on one don't show up on the other, and no pieces are shared.
+     * Also makes sure restoring a position close to the board's keeps the pieces that didn't move.
+     */
+    public void testSnapshotAndCopy() {
+
+        gameBoard.move(12, 28, player1); //pawn two steps ahead
+        gameBoard.move(57, 42, !player1); //knight out
+        String fen = gameBoard.toFen();
+        byte[] snapshot = gameBoard.snapshot();
+        assertEquals(snapshot[28], ChessPiece.PAWN + 1);
+        assertEquals(snapshot[42], ChessPiece.KNIGHT + 1 + ChessBoard8x8.PLAYER2_FLAG);
+        assertEquals(snapshot[12], ChessBoard8x8.EMPTY_SQUARE);
+
+        ChessBoard8x8 copy = gameBoard.copy();
+        assertEquals(copy.getClass(), gameBoard.getClass());
+        assertEquals(copy.toFen(), fen);
+        assertEquals(copy.getPositionHash(), gameBoard.getPositionHash());
+        for (int idx = 0; idx < 64; idx++) {
+            assertTrue(copy.board[idx] == null || copy.board[idx] != gameBoard.board[idx]);
+        }
+        copy.move(28, 36, player1);
+        assertEquals(gameBoard.toFen(), fen);
+        assertTrue(Arrays.equals(gameBoard.board[28].getPos(), new int[] {4, 3}));
+        assertTrue(copy.isInCheck(player1) == gameBoard.isInCheck(player1));
+
+        //restoring the snapshot only replaces the pieces that moved
+        ChessPiece king = copy.board[4];
+        copy.restore(snapshot);
+        assertEquals(copy.toFen(), fen);
+        assertEquals(copy.getPositionHash(), gameBoard.getPositionHash());
+        assertSame(copy.board[4], king);
+        assertTrue(Arrays.equals(copy.board[28].getPos(), new int[] {4, 3}));
+        assertEquals(copy.writeLegalMoves(!player1, new int[ChessBoard8x8.MAX_MOVES]),
+                     gameBoard.writeLegalMoves(!player1, new int[ChessBoard8x8.MAX_MOVES]));
+
+        //and copying a board onto another does the same
+        copy.move(28, 36, player1);
+        copy.copyFrom(gameBoard);
+        assertEquals(copy.toFen(), fen);
+        assertSame(copy.board[4], king);
+        assertEquals(copy.getPositionHash(), gameBoard.getPositionHash());
+
+    }
+
+    /**
+     * Plays random games on another representation of the board and a ChessBoard8x8 side by side, from both the
+     * standard and the custom (alfil and nightrider) layouts, checking after every move that they list the same
+     * legal moves, agree on checks and on whether the game is over, and have the same hash. Shared by the tests of
+     * the other board classes.
+     * @param gameBoard The board under test. Is reset with initBoard and initCustomBoard.
+     */
+    public static void assertPlaysLikeChessBoard8x8(Board gameBoard) {
+
+        Random random = new Random(1105);
+        int[] expected = new int[ChessBoard8x8.MAX_MOVES];
+        int[] actual = new int[ChessBoard8x8.MAX_MOVES];
+        for (int game = 0; game < 8; game++) {
+            ChessBoard8x8 reference = new ChessBoard8x8();
+            if (game % 2 == 0) {
+                reference.initBoard();
+                gameBoard.initBoard();
+            }
+            else {
+                reference.initCustomBoard();
+                gameBoard.initCustomBoard();
+            }
+            boolean player1 = true;
+            for (int ply = 0; ply < 100; ply++) {
+                assertEquals(gameBoard.isInCheck(true), reference.isInCheck(true));
+                assertEquals(gameBoard.isInCheck(false), reference.isInCheck(false));
+                for (int square = 0; square < 64; square += 9) {
+                    assertEquals(gameBoard.isSquareAttacked(square, player1),
+                                 reference.isSquareAttacked(square, player1));
+                }
+                int gameState = reference.isGameOver(player1);
+                assertEquals(gameBoard.isGameOver(player1), gameState);
+                assertEquals(gameBoard.getPositionHash(), reference.getPositionHash());
+
+                int count = reference.writePossibleMoves(player1, expected);
+                assertEquals(gameBoard.writePossibleMoves(player1, actual), count);
+                Arrays.sort(expected, 0, count);
+                Arrays.sort(actual, 0, count);
+                assertEquals(Arrays.equals(Arrays.copyOf(actual, count), Arrays.copyOf(expected, count)), true);
+
+                count = reference.writeLegalMoves(player1, expected);
+                assertEquals(gameBoard.writeLegalMoves(player1, actual), count);
+                Arrays.sort(expected, 0, count);
+                Arrays.sort(actual, 0, count);
+                assertEquals(Arrays.equals(Arrays.copyOf(actual, count), Arrays.copyOf(expected, count)), true);
+                if (gameState != 0) {
+                    break;
+                }
+
+                int move = expected[random.nextInt(count)];
+                assertEquals(reference.move(Move.getStartIdx(move), Move.getDestIdx(move), player1), true);
+                assertEquals(gameBoard.move(Move.getStartIdx(move), Move.getDestIdx(move), player1), true);
+                assertEquals(gameBoard.toFen(), reference.toFen());
+                player1 = !player1;
+            }
+        }
+
+    }
+
+}
@@ -41,6 +41,12 @@ public class ChessGUI extends JFrame{
      */
     public static ImageIcon emptySquareIcon = new ImageIcon(new BufferedImage(64,64, BufferedImage.TYPE_INT_ARGB));
 
+    /**
+     * Icons of the chess pieces, created as they are first needed and shared by every ChessGUI (they are only used
+     * on the Swing event thread). Indexed by [pieceType + (0 for player 1, NUM_PIECE_TYPES for player 2)].
+     */
+    private static final ImageIcon[] PIECE_ICONS = new ImageIcon[2 * ChessPiece.NUM_PIECE_TYPES];
+
     /**
      * JPanel object which as the name suggests, serves as the main GUI component of the
      * Chess game. Holds athe chessBoard8x8 JPanel object, the toolbar and other
@@ -301,7 +307,7 @@ public class ChessGUI extends JFrame{
             //if there is a piece
             if (this.gameBoard.board[count] != null) {
                 //assign its image as the icon
-                this.squares[count].setIcon(new ImageIcon(this.gameBoard.board[count].getPieceIcon()));
+                this.squares[count].setIcon(getPieceIcon(this.gameBoard.board[count]));
             }
             else {
                 //otherwise assign the default icon
@@ -310,4 +316,18 @@ public class ChessGUI extends JFrame{
         }
     }
 
+    /**
+     * Utility function to get the icon of a chess piece. The ImageIcons are created once per piece type and
+     * player, from the images shared through the PieceSprites class.
+     * @param piece The piece to get the icon of
+     * @return ImageIcon showing the piece
+     */
+    static ImageIcon getPieceIcon(ChessPiece piece) {
+        int index = piece.isPlayer1() ? piece.getPieceType() : ChessPiece.NUM_PIECE_TYPES + piece.getPieceType();
+        if (PIECE_ICONS[index] == null) {
+            PIECE_ICONS[index] = new ImageIcon(PieceSprites.getIcon(piece.getPieceType(), piece.isPlayer1()));
+        }
+        return PIECE_ICONS[index];
+    }
+
 }
@@ -0,0 +1,25 @@
+import junit.framework.TestCase;
+
+/**
+ * ChessGUITest -- Tests for the parts of the ChessGUI class that don't need a display.
+ * @author sahil1105
+ */
+public class ChessGUITest extends TestCase {
+
+    /**
+     * Tests that pieces of the same type and player get the same cached icon, wherever they are, and that other
+     * types and the other player get icons of their own.
+     */
+    public void testPieceIconsAreShared() {
+
+        ChessPiece knight = new Knight(new int[] {1, 0}, true);
+        assertNotNull(ChessGUI.getPieceIcon(knight));
+        assertSame(ChessGUI.getPieceIcon(knight), ChessGUI.getPieceIcon(new Knight(new int[] {6, 0}, true)));
+        assertNotSame(ChessGUI.getPieceIcon(knight), ChessGUI.getPieceIcon(new Knight(new int[] {1, 7}, false)));
+        assertNotSame(ChessGUI.getPieceIcon(knight), ChessGUI.getPieceIcon(new Nightrider(new int[] {1, 0}, true)));
+        assertSame(ChessGUI.getPieceIcon(new Nightrider(new int[] {6, 7}, false)),
+                   ChessGUI.getPieceIcon(new Nightrider(new int[] {1, 7}, false)));
+
+    }
+
+}
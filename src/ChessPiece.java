@@ -1,22 +1,14 @@
-import com.sun.istack.internal.NotNull;
-
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.geom.AffineTransform;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
-import static jdk.nashorn.internal.objects.NativeMath.min;
-
 
 /**
  * ChessPiece -- This class is a blueprint of a chess piece object. These objects can be placed on
  * boards of type 'Board'. Each ChessPiece object contains a pos (position) and a boolean  'player1' indicating
  * whether it belongs to player 1 or not. The 'pos' is a 1-D int[] containing the piece's position on a
  * multi-dimensional Board.
+ * Pieces are pure data: they don't hold or load any images, so the model can be used without a display (eg. by
+ * the engine). Their icons are looked up by the ChessGUI (see the PieceSprites class).
  *
  * @author sahil1105
  */
@@ -38,6 +30,21 @@ public abstract class ChessPiece {
         this.pos = pos;
     }
 
+    /**
+     * Moves the piece to a square of a standard 8x8 board. Unlike setPos, updates the piece's own 'pos' array
+     * rather than allocating a new one, when it is already 2D.
+     * @param square Index (8 * y + x) of the square
+     */
+    public void setSquare(int square) {
+        if (this.pos.length == 2) {
+            this.pos[0] = square & 7;
+            this.pos[1] = square >>> 3;
+        }
+        else {
+            this.pos = new int[] {square & 7, square >>> 3};
+        }
+    }
+
     /**
      * Getter for the 'player1' boolean variable of the ChessPiece class.
      * @return player1 : The boolean vector indicating whether the piece belongs to player 1 or player 2. 'true' for
@@ -58,125 +65,71 @@ public abstract class ChessPiece {
     protected final boolean player1;
 
     /**
-     * Getter for the piece icon for this piece.
-     * @return Image corresponding to this piece
+     * Constants identifying each type of ChessPiece. Used by board representations that store pieces by type
+     * (eg. one bitboard per piece type and player) rather than as ChessPiece objects.
      */
-    public Image getPieceIcon() {
-        return pieceIcon;
-    }
+    public static final int KING = 0, QUEEN = 1, ROOK = 2, KNIGHT = 3, BISHOP = 4, PAWN = 5, NIGHTRIDER = 6,
+                            ALFIL = 7;
 
     /**
-     * A 64x64 image for this piece.
+     * Number of different piece types (the constants above).
      */
-    protected Image pieceIcon;
+    public static final int NUM_PIECE_TYPES = 8;
 
     /**
-     * Constructor for the ChessPiece class.
-     * @param pos The postion of the ChessPiece object
-     * @param player1 'true' if the piece belongs to player 1, false otherwise.
+     * Creates a ChessPiece of the given type.
+     * @param pieceType One of the piece type constants defined above
+     * @param pos The position piece is at on the Board
+     * @param player1 Whether or not the piece belongs to player 1
+     * @return A new ChessPiece object of the class corresponding to the type
+     * @throws IllegalArgumentException if the type isn't one of the constants
      */
-    public ChessPiece(@NotNull int[] pos, boolean player1) {
-        this.pos = Arrays.copyOf(pos, pos.length);
-        this.player1 = player1;
-        this.pieceIcon = getPieceIcon(getImageIndex());
-    }
-
-    /**
-     * Location of the image from where to get the images of the chess pieces.
-     */
-    private final String imagesLocation = "chessPieces.png";
-
-    /**
-     * Utility function to get the corresponding image for the piece
-     * @param imageIndex the index in the pre-specified image to assign to this piece
-     * @return An Image corresponding to the calling piece.
-     */
-    private Image getPieceIcon(int imageIndex) {
-        Image[] images = loadImages(imagesLocation);
-        //positions of the image in the imported pic
-        int QUEEN = 0, KING = 1, ROOK = 2, KNIGHT = 3, BISHOP = 4, PAWN = 5;
-        int offset = this.isPlayer1()? 0 : 6;
-
-        if (imageIndex == 6) { //if a nightrider
-            return rotate(images[offset + KNIGHT]); //return a rotated knight
-        }
-        if (imageIndex == 7) { //if an alfil
-            return rotate(images[offset + BISHOP]); //return a rotated bishop
+    public static ChessPiece newPiece(int pieceType, @NotNull int[] pos, boolean player1) {
+        switch (pieceType) {
+            case KING:
+                return new King(pos, player1);
+            case QUEEN:
+                return new Queen(pos, player1);
+            case ROOK:
+                return new Rook(pos, player1);
+            case KNIGHT:
+                return new Knight(pos, player1);
+            case BISHOP:
+                return new Bishop(pos, player1);
+            case PAWN:
+                return new Pawn(pos, player1);
+            case NIGHTRIDER:
+                return new Nightrider(pos, player1);
+            case ALFIL:
+                return new Alfil(pos, player1);
+            default:
+                throw new IllegalArgumentException("Unknown piece type: " + pieceType);
         }
-
-        return images[offset+imageIndex];
     }
 
     /**
-     * Get index based on the specific class of the Piece
-     * @return An index to be passed into getPieceIcon method above.
+     * Function that identifies the type of this ChessPiece.
+     * Expected to be implemented by each of the children classes separately.
+     * @return One of the piece type constants defined above (KING, QUEEN, ..., ALFIL).
      */
-    private int getImageIndex() {
-
-        if (this instanceof Queen) {
-            return 1;
-        }
-        if (this instanceof King) {
-            return 0;
-        }
-        if (this instanceof Rook) {
-            return 2;
-        }
-        if (this instanceof Knight) {
-            return 3;
-        }
-        if (this instanceof Bishop) {
-            return 4;
-        }
-        if (this instanceof Pawn) {
-            return 5;
-        }
-        if (this instanceof Nightrider) {
-            return 6;
-        }
-        if (this instanceof Alfil) {
-            return 7;
-        }
-        return 5;
-    }
+    public abstract int getPieceType();
 
     /**
-     * Utility function to rotate an image by 180 degrees.
-     * //Reference: https://stackoverflow.com/questions/23457754/how-to-flip-bufferedimage-in-java
-     * @param original Original image. (Not modified)
-     * @return 180 degree rotated copy of the original image.
+     * Getter for the shared description of this piece's type (see the PieceType class).
+     * @return The PieceType object of the type
      */
-    public static Image rotate(Image original) {
-        BufferedImage rotatedImage = new BufferedImage(64,64,BufferedImage.TYPE_INT_ARGB);
-        AffineTransform tx = AffineTransform.getRotateInstance(Math.PI, 32, 32);
-        Graphics2D g = rotatedImage.createGraphics();
-        g.transform(tx);
-        g.drawImage(original, 0,0, null);
-        g.dispose();
-        return rotatedImage;
+    public PieceType getType() {
+        return PieceType.of(getPieceType());
     }
 
     /**
-     * Utility function to load images of standard chess pieces from a predefined image.
-     * @param imagesLocation Location of the image to load from
-     * @return Image[] of size 12 containing 64x64 images of various standard chess pieces
-     * @throws IOException
+     * Constructor for the ChessPiece class.
+     * @param pos The postion of the ChessPiece object
+     * @param player1 'true' if the piece belongs to player 1, false otherwise.
      */
-    private Image[] loadImages(String imagesLocation) {
-
-        Image[] images = new Image[12];
-        try {
-            File imageFile = new File(imagesLocation);
-            BufferedImage mainImage = ImageIO.read(imageFile);
-            for (int row = 0; row < 2; row++) {
-                for (int col = 0; col < 6; col++) {
-                    images[row*6 + col] = mainImage.getSubimage(col*64, row*64, 64, 64);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return images;
+    public ChessPiece(@NotNull int[] pos, boolean player1) {
+        this.pos = Arrays.copyOf(pos, pos.length);
+        this.player1 = player1;
     }
 
     /**
@@ -242,6 +195,134 @@ public abstract class ChessPiece {
         }
     }
 
+    /**
+     * Checks whether this piece is on a standard 8x8 board, in which case its moves can be looked up in the
+     * precomputed tables of the Bitboards class instead of being worked out step by step.
+     * @param gameBoard The Board object that the ChessPiece is currently on.
+     * @return true if the board is a ChessBoard8x8 and the piece has a 2D position, false otherwise
+     */
+    protected boolean isOnStandardBoard(@NotNull Board gameBoard) {
+        return gameBoard instanceof ChessBoard8x8 && this.pos.length == 2;
+    }
+
+    /**
+     * Utility function to get the index of the square this piece is on, on a standard 8x8 board.
+     * @return Index in the ChessPiece array of a ChessBoard8x8 corresponding to this piece's position
+     */
+    protected int getSquare() {
+        return (8 * this.pos[1]) + this.pos[0];
+    }
+
+    /**
+     * A helper function which adds to the possibleMoves list the precomputed destinations of a leaper (a piece
+     * that jumps directly to its destination), skipping those occupied by the piece's own side.
+     * Only valid when isOnStandardBoard(gameBoard) is true.
+     * @param gameBoard The ChessBoard8x8 object that the ChessPiece is currently on. Is not modified.
+     * @param possibleMoves A list of int[] objects to add to. Is modified.
+     * @param targets The precomputed destination squares (board indices) of the piece from its current square.
+     */
+    protected void possibleMovesFromTable(@NotNull ChessBoard8x8 gameBoard, @NotNull List<int[]> possibleMoves,
+                                          @NotNull int[] targets) {
+        for (int target : targets) {
+            ChessPiece pieceAtTarget = gameBoard.board[target];
+            //the destination is only valid if it is empty or occupied by an opponent
+            if (pieceAtTarget == null || pieceAtTarget.player1 != this.player1) {
+                possibleMoves.add(new int[] {target & 7, target >>> 3});
+            }
+        }
+    }
+
+    /**
+     * A helper function which adds to the possibleMoves list the squares of a sliding piece's attack set (looked
+     * up in the magic bitboard tables of the Bitboards class), ray by ray and nearest square first, skipping a
+     * square at the end of a ray that is occupied by the piece's own side.
+     * Only valid when isOnStandardBoard(gameBoard) is true.
+     * @param gameBoard The ChessBoard8x8 object that the ChessPiece is currently on. Is not modified.
+     * @param possibleMoves A list of int[] objects to add to. Is modified.
+     * @param attacks bitboard of the squares attacked by the piece from its current square
+     * @param rays Precomputed rays of the piece (indexed by [direction][square]), in the order to list them in
+     * @param directions The (x,y) steps of the rays
+     */
+    protected void possibleMovesFromRays(@NotNull ChessBoard8x8 gameBoard, @NotNull List<int[]> possibleMoves,
+                                         long attacks, @NotNull long[][] rays, @NotNull int[][] directions) {
+        int square = getSquare();
+        for (int direction = 0; direction < directions.length; direction++) {
+            long ray = attacks & rays[direction][square];
+            boolean increasing = Bitboards.isIncreasing(directions[direction]);
+            while (ray != 0) {
+                //take the nearest remaining square of the ray
+                int target = increasing? Long.numberOfTrailingZeros(ray) : 63 - Long.numberOfLeadingZeros(ray);
+                ray ^= Bitboards.bit(target);
+                ChessPiece pieceAtTarget = gameBoard.board[target];
+                if (pieceAtTarget == null || pieceAtTarget.player1 != this.player1) {
+                    possibleMoves.add(new int[] {target & 7, target >>> 3});
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the squares this piece can move to (the same squares getPossibleMoves lists), as a bitboard.
+     * Doesn't allocate anything. Only valid when isOnStandardBoard(gameBoard) is true.
+     * @param gameBoard The ChessBoard8x8 object that the ChessPiece is currently on. Is not modified.
+     * @return bitboard with the bits of the destination squares (board indices) set
+     */
+    protected long possibleTargets(@NotNull ChessBoard8x8 gameBoard) {
+
+        int square = getSquare();
+        int type = getPieceType();
+        //only the squares that can block the piece need to be looked at
+        long occupied = gameBoard.occupancyWithin(Bitboards.occupancyMask(type, square, this.player1));
+        long targets = 0L;
+        for (long attacks = Bitboards.attacks(type, square, this.player1, occupied); attacks != 0;
+             attacks &= attacks - 1) {
+            ChessPiece pieceAtTarget = gameBoard.board[Long.numberOfTrailingZeros(attacks)];
+            //empty squares and opponent pieces are valid destinations, except that pawns can only move
+            //diagonally to capture
+            if (pieceAtTarget == null? type != PAWN : pieceAtTarget.player1 != this.player1) {
+                targets |= attacks & -attacks; //lowest set bit
+            }
+        }
+        if (type == PAWN) {
+            targets |= Bitboards.pawnPushes(square, this.player1, occupied);
+        }
+        return targets;
+
+    }
+
+    /**
+     * Writes the moves this piece can make (the same moves getPossibleMoves lists, though not necessarily in the
+     * same order) into a buffer, packed as ints (see the Move class). Doesn't allocate anything on a standard
+     * board.
+     * Doesn't check if the moves would be legal (eg. leave the king in a check, that must be decided by the
+     * Board object).
+     * @param gameBoard The Board object that the ChessPiece is currently on. Is not modified.
+     * @param moves The buffer to write the moves into. Must have room for all of them. Is modified.
+     * @param count Number of moves already in the buffer (where to start writing)
+     * @return Number of moves in the buffer after writing this piece's moves
+     */
+    public int writePossibleMoves(@NotNull Board gameBoard, @NotNull int[] moves, int count) {
+
+        int square = (8 * this.pos[1]) + this.pos[0];
+        if (isOnStandardBoard(gameBoard)) {
+            for (long targets = possibleTargets((ChessBoard8x8) gameBoard); targets != 0; targets &= targets - 1) {
+                int target = Long.numberOfTrailingZeros(targets);
+                moves[count++] = Move.encode(square, target, gameBoard.board[target]);
+            }
+            return count;
+        }
+
+        //otherwise, pack the moves listed by getPossibleMoves. Captures are looked up through the Board API, since
+        //other boards (eg. MailboxChessBoard8x8) don't keep the board array.
+        List<int[]> possibleMoves = this.getPossibleMoves(gameBoard);
+        for (int[] move : possibleMoves) {
+            int target = (8 * move[1]) + move[0];
+            moves[count++] = Move.encode(square, target, gameBoard.getPieceAtPosition(move));
+        }
+        return count;
+
+    }
+
     /**
      * Wrapper function to the above two functions. Redirected to the multipleSteps version if the
      * boolean 'multipleSteps'
@@ -268,11 +349,18 @@ public abstract class ChessPiece {
      * If the lengths of the two arrays is not equal, the increments are made to either all the dimensions
      * that an increment has been specified for,
      * or can be made in overall (min(length(next_pos), length(incrementVector))).
+     * Positions on 2D boards, which is every ray step of the move generation, are incremented directly.
      * @param next_pos The array to increment. Is modified.
      * @param incrementVector The increments to make in each dimension. Is not modified.
      */
     public static void incrementInDirection(@NotNull int[] next_pos, @NotNull int[] incrementVector) {
-        for (int i = 0; i < min(next_pos.length, incrementVector.length); i++) {
+        if (next_pos.length == 2 && incrementVector.length == 2) {
+            next_pos[0] += incrementVector[0];
+            next_pos[1] += incrementVector[1];
+            return;
+        }
+        int dimensions = Math.min(next_pos.length, incrementVector.length);
+        for (int i = 0; i < dimensions; i++) {
             next_pos[i] += incrementVector[i];
         }
     }
@@ -315,6 +403,14 @@ public abstract class ChessPiece {
      */
     public boolean canMoveToPos(@NotNull Board gameBoard, int[] pos) {
 
+        //on a standard board, just check the destination's bit, instead of building the list of possible moves
+        if (isOnStandardBoard(gameBoard)) {
+            if (pos == null || pos.length != 2 || pos[0] < 0 || pos[0] > 7 || pos[1] < 0 || pos[1] > 7) {
+                return false;
+            }
+            return (possibleTargets((ChessBoard8x8) gameBoard) & Bitboards.bit((8 * pos[1]) + pos[0])) != 0;
+        }
+
         List<int[]> possibleMoves = this.getPossibleMoves(gameBoard);
         for (int i = 0; i < possibleMoves.size(); i++) {
             if (Arrays.equals(possibleMoves.get(i), pos)) {
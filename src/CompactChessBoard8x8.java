@@ -0,0 +1,531 @@
+/**
+ * CompactChessBoard8x8 -- Implementation of the 8x8 Chess Board that holds nothing but a byte[64] of square codes
+ * (the encoding of ChessBoard8x8.snapshot()), so its position fits in a single cache line and the whole board takes
+ * about a hundred bytes: a million of them fit in about a hundred megabytes, where a ChessBoard8x8, with its
+ * ChessPiece objects, piece lists and attack maps, takes around five kilobytes.
+ * How each piece moves comes from the shared PieceType object of its type (a flyweight) instead of from a
+ * ChessPiece object of its own. Anything else (occupancy bitboards, the kings' squares, the hash) is worked out from
+ * the squares when it is needed rather than stored. Follows the same rules as the ChessBoard8x8 class, and takes and
+ * returns squares as the same indices (8 * y + x) and moves in the same packed form (see the Move class).
+ * @author sahil1105
+ */
+public class CompactChessBoard8x8 extends Board {
+
+    /**
+     * Constructor for the CompactChessBoard8x8 class. Creates an empty board.
+     * Doesn't place the pieces on the board yet. That is done by initBoard().
+     */
+    public CompactChessBoard8x8() {
+        this.squares = new byte[64];
+    }
+
+    /**
+     * Getter for the type of the piece on a square.
+     * @param square Index (8 * y + x) of the square
+     * @return The shared PieceType object of the piece, or null if the square is empty
+     */
+    public PieceType getPieceType(int square) {
+        return PieceType.ofCode(this.squares[square]);
+    }
+
+    /**
+     * Utility function to get the index of a position.
+     * @param position The (x,y) position
+     * @return The index (8 * y + x), or -1 if the position isn't on the board
+     */
+    private static int squareIdx(@NotNull int[] position) {
+        if (position.length != 2 || ((position[0] | position[1]) & ~7) != 0) {
+            return -1;
+        }
+        return 8 * position[1] + position[0];
+    }
+
+    /**
+     * Utility function that converts an index to an (x,y) position.
+     * @param pos The index (8 * y + x)
+     * @return int[] {x, y} of the square, or null if the index isn't on the board
+     */
+    @Override
+    protected int[] boardIdxToPosition(int pos) {
+        if (pos < 0 || pos > 63) {
+            return null;
+        }
+        return new int[] {pos & 7, pos >>> 3};
+    }
+
+    /**
+     * The board keeps codes rather than ChessPiece objects, so a new piece is created for each call.
+     * @param position The (x,y) position
+     * @return A new ChessPiece object for the piece at the specified position or 'null' if the position is empty
+     *         or not on the board.
+     */
+    @Override
+    public ChessPiece getPieceAtPosition(@NotNull int[] position) {
+        int square = squareIdx(position);
+        if (square == -1 || this.squares[square] == ChessBoard8x8.EMPTY_SQUARE) {
+            return null;
+        }
+        return PieceType.ofCode(this.squares[square]).newPiece(square, PieceType.isPlayer1(this.squares[square]));
+    }
+
+    /**
+     * Checks if the position is occupied by a piece.
+     * @param position The (x,y) position
+     * @return 0 if not occupied
+     *         1 if occupied
+     *        -1 if not a valid position
+     */
+    @Override
+    public short isOccupied(@NotNull int[] position) {
+        int square = squareIdx(position);
+        if (square == -1) {
+            return -1;
+        }
+        return (short) (this.squares[square] == ChessBoard8x8.EMPTY_SQUARE? 0 : 1);
+    }
+
+    /**
+     * Checks if the position is occupied by an opponent or not.
+     * @param position The (x,y) position
+     * @param player1 boolean specifying whose opponent to look for
+     * @return 0 if not occupied by opponent
+     *         1 if occupied by opponent
+     *        -1 if not a valid position
+     */
+    @Override
+    public short isOccupiedByOpponent(@NotNull int[] position, boolean player1) {
+        int square = squareIdx(position);
+        if (square == -1) {
+            return -1;
+        }
+        byte code = this.squares[square];
+        return (short) (code != ChessBoard8x8.EMPTY_SQUARE && PieceType.isPlayer1(code) != player1? 1 : 0);
+    }
+
+    /**
+     * Initialize board with the regular Chess pieces in their normal starting positions
+     */
+    @Override
+    public void initBoard() {
+        initFromFen(ChessBoard8x8.STANDARD_FEN);
+    }
+
+    /**
+     * Initialize board with the custom pieces, in the same position as ChessBoard8x8.initCustomBoard().
+     */
+    @Override
+    public void initCustomBoard() {
+        initFromFen(ChessBoard8x8.CUSTOM_FEN);
+    }
+
+    /**
+     * Sets the board up from the piece placement field of a FEN string (see ChessBoard8x8.initFromFen).
+     * @param fen The FEN string. Only the piece placement (up to the first space) is read.
+     * @throws IllegalArgumentException if the piece placement is invalid
+     */
+    public void initFromFen(@NotNull String fen) {
+        this.squares = ChessBoard8x8.fenToSnapshot(fen);
+    }
+
+    /**
+     * Describes the pieces on the board as the piece placement field of a FEN string.
+     * @return The piece placement, eg. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR" for the starting position
+     */
+    @Override
+    public String toFen() {
+        return ChessBoard8x8.snapshotToFen(this.squares);
+    }
+
+    /**
+     * Describes the pieces on the board in the same form as ChessBoard8x8.snapshot(), so the position can be
+     * restored onto any kind of board.
+     * @return A copy of the board's squares
+     */
+    public byte[] snapshot() {
+        return this.squares.clone();
+    }
+
+    /**
+     * Sets the board up with the pieces of a snapshot (see ChessBoard8x8.snapshot()).
+     * @param snapshot The snapshot. Is copied, not kept.
+     * @throws IllegalArgumentException if the snapshot isn't 64 squares long or has an invalid square
+     */
+    public void restore(@NotNull byte[] snapshot) {
+
+        if (snapshot.length != 64) {
+            throw new IllegalArgumentException("Expected 64 squares in snapshot: " + snapshot.length);
+        }
+        for (byte code : snapshot) {
+            PieceType.ofCode(code); //throws if the code is invalid
+        }
+        System.arraycopy(snapshot, 0, this.squares, 0, 64);
+
+    }
+
+    /**
+     * Creates an independent copy of the board. Only copies the 64 squares.
+     * @return A board with the same pieces on it
+     */
+    public CompactChessBoard8x8 copy() {
+        CompactChessBoard8x8 copy = new CompactChessBoard8x8();
+        System.arraycopy(this.squares, 0, copy.squares, 0, 64);
+        return copy;
+    }
+
+    /**
+     * Function that moves a piece at source_pos to dest_pos if the move is legal (see move(int, int, boolean)).
+     * @param source_pos Current Position of the piece to move
+     * @param dest_pos Position to move the piece to.
+     * @param player1 boolean specifying if this is player 1's move or not.
+     * @return makes the move and returns true if the move is legal
+     *         doesn't make the move and returns false otherwise
+     */
+    @Override
+    public boolean move(@NotNull int[] source_pos, @NotNull int[] dest_pos, boolean player1) {
+        int sourceIdx = squareIdx(source_pos);
+        int destIdx = squareIdx(dest_pos);
+        if (sourceIdx == -1 || destIdx == -1) {
+            return false;
+        }
+        return move(sourceIdx, destIdx, player1);
+    }
+
+    /**
+     * Function to perform a move on the Game board. Makes the move only if it is legal (the piece belongs to the
+     * player whose turn it is, the piece can make this move and this move doesn't leave the player's king in check).
+     * @param startIdx Index (8 * y + x) of the square of the piece to move
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying if this is player 1's move or not.
+     * @return true if the move is legal (the move is performed)
+     *         false otherwise (the move is not performed)
+     */
+    @Override
+    public boolean move(int startIdx, int destIdx, boolean player1) {
+
+        if (startIdx > 63 || startIdx < 0 || destIdx > 63 || destIdx < 0) {
+            return false;
+        }
+        byte code = this.squares[startIdx];
+        if (code == ChessBoard8x8.EMPTY_SQUARE || PieceType.isPlayer1(code) != player1) {
+            return false;
+        }
+        //the occupancies are worked out once, for both the piece's moves and the check test
+        long own = occupancy(player1);
+        long opponent = occupancy(!player1);
+        if ((PieceType.ofCode(code).targets(startIdx, player1, own, opponent) & Bitboards.bit(destIdx)) == 0) {
+            return false;
+        }
+        int king = findKingIdx(player1);
+        if (king != -1 && leavesKingInCheck(startIdx, destIdx, player1, king, own | opponent)) {
+            return false;
+        }
+        makeMove(startIdx, destIdx);
+        return true;
+
+    }
+
+    /**
+     * Writes all the possible moves of a player into a buffer, packed as ints (see the Move class).
+     * Doesn't check if the moves would be legal (eg. leave the king in a check). Doesn't allocate anything.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (ChessBoard8x8.MAX_MOVES is
+     *              always enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    @Override
+    public int writePossibleMoves(boolean player1, @NotNull int[] moves) {
+
+        long own = occupancy(player1);
+        long opponent = occupancy(!player1);
+        int count = 0;
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int start = Long.numberOfTrailingZeros(pieces);
+            PieceType type = PieceType.ofCode(this.squares[start]);
+            for (long targets = type.targets(start, player1, own, opponent); targets != 0; targets &= targets - 1) {
+                moves[count++] = encodeMove(start, Long.numberOfTrailingZeros(targets));
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Writes all the legal moves of a player (moves that do not put the player's king in check) into a buffer,
+     * packed as ints (see the Move class). Each possible move is made and undone to check it, which only takes two
+     * byte writes each way. Doesn't allocate anything.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (ChessBoard8x8.MAX_MOVES is
+     *              always enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    @Override
+    public int writeLegalMoves(boolean player1, @NotNull int[] moves) {
+
+        int possible = writePossibleMoves(player1, moves);
+        int king = findKingIdx(player1);
+        if (king == -1) { //no king, so no move can leave it in check
+            return possible;
+        }
+        long occupied = occupancy(true) | occupancy(false);
+        int count = 0;
+        for (int i = 0; i < possible; i++) {
+            int move = moves[i];
+            if (!leavesKingInCheck(Move.getStartIdx(move), Move.getDestIdx(move), player1, king, occupied)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Utility function to pack a move (see the Move class), capturing whatever is on the destination square.
+     * @param startIdx Index of the square the move is made from
+     * @param destIdx Index of the square the move is made to
+     * @return The packed move
+     */
+    private int encodeMove(int startIdx, int destIdx) {
+        byte atDest = this.squares[destIdx];
+        if (atDest == ChessBoard8x8.EMPTY_SQUARE) {
+            return Move.encode(startIdx, destIdx, Move.NO_PIECE, 0);
+        }
+        return Move.encode(startIdx, destIdx, PieceType.ofCode(atDest).getPieceType(), Move.FLAG_CAPTURE);
+    }
+
+    /**
+     * Utility function to get the squares occupied by a player's pieces.
+     * @param player1 boolean specifying the player
+     * @return bitboard of the squares of the player's pieces
+     */
+    private long occupancy(boolean player1) {
+        long occupied = 0L;
+        for (int square = 0; square < 64; square++) {
+            byte code = this.squares[square];
+            if (code != ChessBoard8x8.EMPTY_SQUARE && PieceType.isPlayer1(code) == player1) {
+                occupied |= Bitboards.bit(square);
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Utility function to find a player's king.
+     * @param player1 boolean specifying the player
+     * @return Index of the square of the king, or -1 if the player has no king
+     */
+    private int findKingIdx(boolean player1) {
+        byte king = PieceType.KING.code(player1);
+        for (int square = 0; square < 64; square++) {
+            if (this.squares[square] == king) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check if the player's king is in 'check'
+     * @param player1 boolean specifying which player's turn it is
+     * @return true if the player's king is in check
+     *         false otherwise (including when the player has no king)
+     */
+    @Override
+    public boolean isInCheck(boolean player1) {
+        int king = findKingIdx(player1);
+        return king != -1 && isSquareAttacked(king, !player1);
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces. Whatever is on the square itself is ignored.
+     * @param square Index (8 * y + x) of the square to check
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces could capture on the square, false otherwise
+     */
+    @Override
+    public boolean isSquareAttacked(int square, boolean byPlayer1) {
+        return isAttacked(square, byPlayer1, occupancy(true) | occupancy(false));
+    }
+
+    /**
+     * Utility function to check if a square is attacked, by working backwards from it: looking for each kind of
+     * piece on the squares a piece of that kind on the square would attack.
+     * @param square Index of the square
+     * @param byPlayer1 boolean specifying the attacking player
+     * @param occupied bitboard of the occupied squares
+     * @return true if any of the player's pieces could capture on the square, false otherwise
+     */
+    private boolean isAttacked(int square, boolean byPlayer1, long occupied) {
+
+        byte queen = PieceType.QUEEN.code(byPlayer1);
+        byte knight = PieceType.KNIGHT.code(byPlayer1);
+        byte king = PieceType.KING.code(byPlayer1);
+        byte pawn = PieceType.PAWN.code(byPlayer1);
+        byte alfil = PieceType.ALFIL.code(byPlayer1);
+        byte nightrider = PieceType.NIGHTRIDER.code(byPlayer1);
+        //pawns attack diagonally forwards, so look where a pawn of the other player would attack
+        return isOn(Bitboards.pawnAttacks(square, !byPlayer1), pawn, pawn)
+               || isOn(Bitboards.knightAttacks(square), knight, knight)
+               || isOn(Bitboards.kingAttacks(square), king, king)
+               || isOn(Bitboards.alfilAttacks(square), alfil, alfil)
+               || isOn(Bitboards.rookAttacks(square, occupied), PieceType.ROOK.code(byPlayer1), queen)
+               || isOn(Bitboards.bishopAttacks(square, occupied), PieceType.BISHOP.code(byPlayer1), queen)
+               || isOn(Bitboards.nightriderAttacks(square, occupied), nightrider, nightrider);
+
+    }
+
+    /**
+     * Utility function to look for a piece on a set of squares.
+     * @param candidates bitboard of the squares to look on
+     * @param code Code of the piece to look for
+     * @param alsoCode Code of another piece that counts too (eg. the queen when looking for a rook), or code again
+     * @return true if one of the squares holds either piece
+     */
+    private boolean isOn(long candidates, byte code, byte alsoCode) {
+        for (; candidates != 0; candidates &= candidates - 1) {
+            byte atSquare = this.squares[Long.numberOfTrailingZeros(candidates)];
+            if (atSquare == code || atSquare == alsoCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the game is over i.e. there is either a checkmate or a stalemate
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return 1 if there is a checkmate and hence the game is over
+     *        -1 if there is a stalemate and hence the game is over
+     *         0 otherwise
+     */
+    @Override
+    public int isGameOver(boolean player1) {
+
+        //if your king is dead, then game over
+        if (findKingIdx(player1) == -1) {
+            return 1;
+        }
+        //if you have a legal move left, then it's not a checkmate or a stalemate
+        if (legalMovesLeft(player1)) {
+            return 0;
+        }
+        //if no legal moves left, it's a checkmate if you are in check, and a stalemate otherwise
+        return isInCheck(player1)? 1 : -1;
+
+    }
+
+    /**
+     * Checks if you have any legal moves left, in particular moves that do not put your own king in check.
+     * Stops at the first legal move found. Doesn't allocate anything.
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return true if you have legal moves left, false if not
+     */
+    protected boolean legalMovesLeft(boolean player1) {
+
+        long own = occupancy(player1);
+        long opponent = occupancy(!player1);
+        int king = findKingIdx(player1);
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int start = Long.numberOfTrailingZeros(pieces);
+            PieceType type = PieceType.ofCode(this.squares[start]);
+            for (long targets = type.targets(start, player1, own, opponent); targets != 0; targets &= targets - 1) {
+                if (king == -1
+                    || !leavesKingInCheck(start, Long.numberOfTrailingZeros(targets), player1, king, own | opponent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Function to check if a move would leave the player's king in check. Assumes the move is possible for the
+     * piece to make.
+     * @param sourceIdx Index (8 * y + x) of the square to move the piece from
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return true if the move would leave the player's king in check
+     *         false if the move wouldn't leave the player's king in check
+     */
+    protected boolean moveLeavesKingInCheck(int sourceIdx, int destIdx, boolean player1) {
+        int king = findKingIdx(player1);
+        return king != -1
+               && leavesKingInCheck(sourceIdx, destIdx, player1, king, occupancy(true) | occupancy(false));
+    }
+
+    /**
+     * Utility function to check if a move would leave the player's king in check, by making the move, checking
+     * and undoing it.
+     * @param sourceIdx Index of the square to move the piece from
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying the player making the move
+     * @param king Index of the square of the player's king before the move
+     * @param occupied bitboard of the occupied squares before the move
+     * @return true if the move would leave the player's king in check
+     */
+    private boolean leavesKingInCheck(int sourceIdx, int destIdx, boolean player1, int king, long occupied) {
+        byte captured = makeMove(sourceIdx, destIdx);
+        boolean inCheck = isAttacked(king == sourceIdx? destIdx : king, !player1,
+                                     (occupied & ~Bitboards.bit(sourceIdx)) | Bitboards.bit(destIdx));
+        undoMove(sourceIdx, destIdx, captured);
+        return inCheck;
+    }
+
+    /**
+     * Makes a move without checking that it is legal. Captures whatever is on the destination square.
+     * @param sourceIdx Index (8 * y + x) of the square to move the piece from
+     * @param destIdx Index of the square to move the piece to
+     * @return The code of what was on the destination square, to pass to undoMove()
+     */
+    protected byte makeMove(int sourceIdx, int destIdx) {
+        byte captured = this.squares[destIdx];
+        this.squares[destIdx] = this.squares[sourceIdx];
+        this.squares[sourceIdx] = ChessBoard8x8.EMPTY_SQUARE;
+        return captured;
+    }
+
+    /**
+     * Undoes a move made by makeMove().
+     * @param sourceIdx Index (8 * y + x) of the square the piece was moved from
+     * @param destIdx Index of the square the piece was moved to
+     * @param captured The code returned by makeMove()
+     */
+    protected void undoMove(int sourceIdx, int destIdx, byte captured) {
+        this.squares[sourceIdx] = this.squares[destIdx];
+        this.squares[destIdx] = captured;
+    }
+
+    /**
+     * Function to get the Zobrist hash of the pieces on the board, worked out from the squares each time, so the
+     * board doesn't have to keep it. Equal to the hash of a ChessBoard8x8 with the same pieces.
+     * @return The hash of the position
+     */
+    @Override
+    public long getPositionHash() {
+        long hash = 0L;
+        for (int square = 0; square < 64; square++) {
+            byte code = this.squares[square];
+            if (code != ChessBoard8x8.EMPTY_SQUARE) {
+                hash ^= Zobrist.pieceKey(PieceType.ofCode(code).getPieceType(), PieceType.isPlayer1(code), square);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Overriding the toString function
+     * @return String representation of the Chess Board, complete with all the pieces on it, in the same form as
+     *         ChessBoard8x8.toString()
+     */
+    @Override
+    public String toString() {
+        return ChessBoard8x8.snapshotToString(this.squares);
+    }
+
+    /**
+     * The code of each square (see ChessBoard8x8.encodeSquare()), indexed as the ChessPiece array of a
+     * ChessBoard8x8. This is all the board holds.
+     */
+    private byte[] squares;
+
+}
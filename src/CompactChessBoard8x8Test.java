@@ -0,0 +1,100 @@
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * CompactChessBoard8x8Test -- Tests for the CompactChessBoard8x8 class.
+ * Plays random games on a CompactChessBoard8x8 and a ChessBoard8x8 side by side, making sure both boards agree on
+ * every move, check and game over decision.
+ * @author sahil1105
+ */
+public class CompactChessBoard8x8Test extends TestCase {
+
+    CompactChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes the game board with the regular pieces.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new CompactChessBoard8x8();
+        gameBoard.initBoard();
+    }
+
+    /**
+     * Tests the int[] position API, including positions off the board.
+     */
+    public void testIsOccupied() {
+
+        assertEquals(gameBoard.isOccupied(new int[] {0, 0}), 1);
+        assertEquals(gameBoard.isOccupied(new int[] {4, 4}), 0);
+        assertEquals(gameBoard.isOccupied(new int[] {-1, 0}), -1);
+        assertEquals(gameBoard.isOccupied(new int[] {8, 3}), -1);
+        assertEquals(gameBoard.isOccupiedByOpponent(new int[] {0, 7}, true), 1);
+        assertEquals(gameBoard.isOccupiedByOpponent(new int[] {0, 7}, false), 0);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {3, 7}) instanceof Queen, true);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {3, 7}).isPlayer1(), false);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {4, 4}), null);
+        assertSame(gameBoard.getPieceType(4), PieceType.KING);
+        assertEquals(gameBoard.getPieceType(30), null);
+
+    }
+
+    /**
+     * Tests that the starting positions, snapshots, copies, hashes and printed boards match ChessBoard8x8's.
+     */
+    public void testMatchesInitialPositions() {
+
+        ChessBoard8x8 reference = new ChessBoard8x8();
+        reference.initBoard();
+        assertEquals(gameBoard.toFen(), reference.toFen());
+        assertEquals(gameBoard.toString(), reference.toString());
+        assertEquals(gameBoard.getPositionHash(), reference.getPositionHash());
+
+        reference.initCustomBoard();
+        gameBoard.initCustomBoard();
+        assertEquals(Arrays.equals(gameBoard.snapshot(), reference.snapshot()), true);
+        assertEquals(gameBoard.toString(), reference.toString());
+        assertEquals(gameBoard.getPositionHash(), reference.getPositionHash());
+
+        CompactChessBoard8x8 copy = gameBoard.copy();
+        assertEquals(copy.move(11, 27, true), true);
+        assertEquals(gameBoard.toFen(), reference.toFen());
+        gameBoard.restore(copy.snapshot());
+        assertEquals(gameBoard.toFen(), copy.toFen());
+
+    }
+
+    /**
+     * Tests that moves are only made when they are legal, and that captures are undone.
+     */
+    public void testMoveAndUndo() {
+
+        assertEquals(gameBoard.move(12, 28, true), true); //pawn two steps ahead
+        assertEquals(gameBoard.move(28, 44, true), false); //three steps
+        assertEquals(gameBoard.move(new int[] {3, 6}, new int[] {3, 4}, false), true);
+        String fen = gameBoard.toFen();
+        byte captured = gameBoard.makeMove(28, 35); //pawn takes pawn
+        assertSame(PieceType.ofCode(captured), PieceType.PAWN);
+        gameBoard.undoMove(28, 35, captured);
+        assertEquals(gameBoard.toFen(), fen);
+
+        //pinned piece can't move, by a nightrider this time
+        gameBoard.initFromFen("7k/8/8/6h1/8/5N2/8/4K3");
+        assertEquals(gameBoard.isInCheck(true), false);
+        assertEquals(gameBoard.move(21, 27, true), false);
+        assertEquals(gameBoard.isGameOver(true), 0);
+        assertEquals(gameBoard.move(4, 3, true), true);
+
+    }
+
+    /**
+     * Plays random games on a CompactChessBoard8x8 and a ChessBoard8x8 side by side (see
+     * ChessBoard8x8Test.assertPlaysLikeChessBoard8x8()).
+     */
+    public void testMatchesChessBoard8x8() {
+        ChessBoard8x8Test.assertPlaysLikeChessBoard8x8(gameBoard);
+    }
+
+}
@@ -0,0 +1,220 @@
+/**
+ * Evaluator -- Static evaluation of ChessBoard8x8 positions, in centipawns.
+ * A position is scored on:
+ *  - material, with values for the custom pieces (nightrider and alfil) as well as the standard ones,
+ *  - piece-square tables, which reward pieces for standing on good squares (eg. knights in the centre, pawns
+ *    that have advanced),
+ *  - mobility: the number of squares each piece other than the pawns and the king can move to.
+ * The material and piece-square terms only depend on which piece is on which square, so ChessBoard8x8 keeps
+ * their sum up to date as moves are made and undone (see ChessBoard8x8.getPieceSquareScore()), and they cost
+ * nothing to look up. Mobility is worked out from the pieces' attack sets each time.
+ * @author sahil1105
+ */
+public final class Evaluator {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Evaluator() {
+    }
+
+    /**
+     * Value of each piece type (indexed by the ChessPiece type constants), in centipawns. The kings are never
+     * captured (only mated), so they aren't worth anything.
+     */
+    public static final int[] PIECE_VALUES = {0, 900, 500, 320, 330, 100, 450, 150};
+
+    /**
+     * Score for each square a piece can move to
+     */
+    public static final int MOBILITY_WEIGHT = 2;
+
+    /**
+     * Piece-square tables for player 1, as seen from player 1's side of the board: the first row is the far
+     * (8th) rank, the last row player 1's own back rank. Player 2 uses them mirrored.
+     */
+    private static final int[] KING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] ROOK_TABLE = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] PAWN_TABLE = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] ALFIL_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,   0,  10,  15,  15,  10,   0, -10,
+            -10,   0,  10,  15,  15,  10,   0, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    /**
+     * Material plus piece-square score of every piece type, player and square, from player 1's point of view (so
+     * negative for player 2's pieces). Indexed by [pieceType + (0 for player 1, NUM_PIECE_TYPES for player 2)]
+     * [square].
+     */
+    private static final int[][] SQUARE_SCORES = new int[2 * ChessPiece.NUM_PIECE_TYPES][64];
+
+    //combine the values and tables once, when the class is loaded
+    static {
+        //nightriders are placed like knights
+        int[][] tables = {KING_TABLE, QUEEN_TABLE, ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, PAWN_TABLE, KNIGHT_TABLE,
+                          ALFIL_TABLE};
+        for (int type = 0; type < ChessPiece.NUM_PIECE_TYPES; type++) {
+            for (int square = 0; square < 64; square++) {
+                //the tables list the far rank first, so player 1's square is flipped vertically to look it up
+                SQUARE_SCORES[type][square] = PIECE_VALUES[type] + tables[type][square ^ 56];
+                SQUARE_SCORES[ChessPiece.NUM_PIECE_TYPES + type][square] = -(PIECE_VALUES[type] + tables[type][square]);
+            }
+        }
+    }
+
+    /**
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 whether the piece belongs to player 1
+     * @param square index of the square the piece is on (0-63)
+     * @return the material plus piece-square score of the piece on the square, from player 1's point of view
+     */
+    public static int squareScore(int pieceType, boolean player1, int square) {
+        return SQUARE_SCORES[player1 ? pieceType : ChessPiece.NUM_PIECE_TYPES + pieceType][square];
+    }
+
+    /**
+     * @param piece The piece
+     * @param square index of the square the piece is on (0-63)
+     * @return the material plus piece-square score of the piece on the square, from player 1's point of view
+     */
+    public static int squareScore(ChessPiece piece, int square) {
+        return squareScore(piece.getPieceType(), piece.isPlayer1(), square);
+    }
+
+    /**
+     * Computes the material plus piece-square score of a position from scratch.
+     * @param board The ChessPiece array of an 8x8 board
+     * @return Sum of the scores of all the pieces on the board, from player 1's point of view
+     */
+    public static int pieceSquareScore(ChessPiece[] board) {
+        int score = 0;
+        for (int square = 0; square < board.length; square++) {
+            if (board[square] != null) {
+                score += squareScore(board[square], square);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Evaluates a position on material and piece-square tables only. Costs nothing, as the board keeps the score
+     * up to date.
+     * @param gameBoard The board
+     * @param player1 boolean specifying whose point of view to score the position from
+     * @return Score of the position for the player, in centipawns
+     */
+    public static int evaluateMaterial(ChessBoard8x8 gameBoard, boolean player1) {
+        int score = gameBoard.getPieceSquareScore();
+        return player1? score : -score;
+    }
+
+    /**
+     * Evaluates a position on material, piece-square tables and mobility.
+     * @param gameBoard The board
+     * @param player1 boolean specifying whose point of view to score the position from
+     * @return Score of the position for the player, in centipawns
+     */
+    public static int evaluate(ChessBoard8x8 gameBoard, boolean player1) {
+        int score = gameBoard.getPieceSquareScore() + MOBILITY_WEIGHT * mobility(gameBoard);
+        return player1? score : -score;
+    }
+
+    /**
+     * Counts the squares the pieces other than the pawns and kings can move to (whether or not the moves would be
+     * legal), for both players.
+     * @param gameBoard The board
+     * @return Player 1's count minus player 2's
+     */
+    public static int mobility(ChessBoard8x8 gameBoard) {
+
+        long player1Pieces = pieceBitboard(gameBoard, true), player2Pieces = pieceBitboard(gameBoard, false);
+        long occupied = player1Pieces | player2Pieces;
+
+        int mobility = 0;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            ChessPiece piece = gameBoard.board[square];
+            int type = piece.getPieceType();
+            if (type == ChessPiece.PAWN || type == ChessPiece.KING) {
+                continue;
+            }
+            long own = piece.isPlayer1()? player1Pieces : player2Pieces;
+            int count = Long.bitCount(Bitboards.attacks(type, square, piece.isPlayer1(), occupied) & ~own);
+            mobility += piece.isPlayer1()? count : -count;
+        }
+        return mobility;
+
+    }
+
+    /**
+     * Utility function to get the squares of a player's pieces as a bitboard, from the board's piece list.
+     * @param gameBoard The board
+     * @param player1 boolean specifying the player
+     * @return bitboard of the squares the player's pieces are on
+     */
+    private static long pieceBitboard(ChessBoard8x8 gameBoard, boolean player1) {
+        int[] squares = gameBoard.getPieceSquares(player1);
+        long pieces = 0L;
+        for (int i = 0; i < gameBoard.getPieceCount(player1); i++) {
+            pieces |= Bitboards.bit(squares[i]);
+        }
+        return pieces;
+    }
+
+}
@@ -0,0 +1,55 @@
+import junit.framework.TestCase;
+
+/**
+ * EvaluatorTest -- Tests for the Evaluator class and the piece-square score kept by the ChessBoard8x8 class.
+ * How the score keeps up with moves is tested by ChessBoard8x8Test.testIncrementalStateMatchesFromScratch.
+ * @author sahil1105
+ */
+public class EvaluatorTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes the game board with the custom pieces, so that the
+     * alfils and nightriders are covered too.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+    }
+
+    /**
+     * Tests that symmetric positions are even, and that the scores are from the given player's point of view.
+     */
+    public void testSymmetry() {
+
+        assertEquals(gameBoard.getPieceSquareScore(), 0);
+        assertEquals(Evaluator.mobility(gameBoard), 0);
+        assertEquals(Evaluator.evaluate(gameBoard, true), 0);
+        gameBoard.initBoard();
+        assertEquals(Evaluator.evaluate(gameBoard, false), 0);
+
+        gameBoard.move(6, 21, true); //knight to the centre
+        assertTrue(Evaluator.evaluate(gameBoard, true) > 0);
+        assertEquals(Evaluator.evaluate(gameBoard, false), -Evaluator.evaluate(gameBoard, true));
+        assertEquals(Evaluator.evaluateMaterial(gameBoard, false), -gameBoard.getPieceSquareScore());
+
+    }
+
+    /**
+     * Tests the material values, including those of the custom pieces.
+     */
+    public void testMaterial() {
+
+        gameBoard.initFromFen("4k3/8/8/8/8/8/8/3QK3");
+        assertTrue(Evaluator.evaluateMaterial(gameBoard, true) > 800);
+        gameBoard.initFromFen("4k3/8/8/8/3h4/8/8/2A1K3"); //nightrider against alfil
+        assertTrue(Evaluator.evaluateMaterial(gameBoard, false) > 200);
+        assertTrue(Evaluator.PIECE_VALUES[ChessPiece.NIGHTRIDER] > Evaluator.PIECE_VALUES[ChessPiece.KNIGHT]);
+        assertTrue(Evaluator.PIECE_VALUES[ChessPiece.ALFIL] > Evaluator.PIECE_VALUES[ChessPiece.PAWN]);
+
+    }
+
+}
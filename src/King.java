@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +26,13 @@ public class King extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the destinations of a king on this square instead of stepping in each direction
+            possibleMovesFromTable((ChessBoard8x8) gameBoard, possibleMoves, Bitboards.KING_TARGETS[getSquare()]);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the king can move in, which are diagonally left or right,
@@ -63,6 +68,15 @@ public class King extends ChessPiece {
         return possibleMoves;
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.KING
+     */
+    @Override
+    public int getPieceType() {
+        return KING;
+    }
+
     /**
      * Overriding toString function for the King class.
      * @return String representation of the King class. Capital if belongs to player 1, uncapitalized otherwise.
@@ -38,17 +38,17 @@ public class KingTest extends TestCase {
 
         //System.out.println(gameBoard);
         gameBoard = new ChessBoard8x8();
-        gameBoard.board[30] = new King(new int[] {6,3}, true); //a board with just a king
+        gameBoard.setPiece(30, new King(new int[] {6,3}, true)); //a board with just a king
         possibleMoves = gameBoard.board[30].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 8); //should have 8 possible moves now
         //make sure that the right moves are enumerated, checking one at random
         assertEquals(Arrays.equals(possibleMoves.get(0), new int[] {7,3}), true);
 
-        gameBoard.board[38] = new Pawn(new int[] {6,4}, true); //lets put a pawn to restrict the kings movement
+        gameBoard.setPiece(38, new Pawn(new int[] {6,4}, true)); //lets put a pawn to restrict the kings movement
         possibleMoves = gameBoard.board[30].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 7); //only 7 possible moves now
 
-        gameBoard.board[39] = new Pawn(new int[] {7,4}, false); //lets put a pawn for the king to capture
+        gameBoard.setPiece(39, new Pawn(new int[] {7,4}, false)); //lets put a pawn for the king to capture
         possibleMoves = gameBoard.board[30].getPossibleMoves(gameBoard);
         //make sure the king can capture the pawn
         assertEquals(Arrays.equals(possibleMoves.get(1), new int[] {7,4}), true);
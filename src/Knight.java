@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +26,13 @@ public class Knight extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the destinations of a knight on this square instead of stepping in each direction
+            possibleMovesFromTable((ChessBoard8x8) gameBoard, possibleMoves, Bitboards.KNIGHT_TARGETS[getSquare()]);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the knight can move in, which are 2 steps in one direction and then
@@ -64,6 +69,15 @@ public class Knight extends ChessPiece {
 
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.KNIGHT
+     */
+    @Override
+    public int getPieceType() {
+        return KNIGHT;
+    }
+
     /**
      * Overriding toString function for the Knight class.
      * @return String representation of the Knight class. Capital if belongs to player 1, uncapitalized otherwise.
@@ -0,0 +1,329 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LegalMoveGenerator -- Generates the legal moves of a player on a ChessBoard8x8, without making and undoing every
+ * candidate move to see whether it leaves the king in check.
+ * When constructed, it works out once for the position which of the opponent's pieces are checking the player's
+ * king and which of the player's pieces are pinned to it (along rook, bishop or nightrider rays). After that a
+ * piece's possible moves can be filtered down to the legal ones with a couple of bit operations:
+ *  - a pinned piece can only move along the ray it is pinned on,
+ *  - in check, a move must capture the checking piece or block its ray,
+ *  - in double check, only the king can move,
+ *  - the king can't move to a square attacked by the opponent (with the king itself removed, so it can't hide
+ *    behind its own square).
+ * Only valid for the position it was constructed for. Call analysePosition() (or create a new one) after a move
+ * is made.
+ * @author sahil1105
+ */
+public class LegalMoveGenerator {
+
+    /**
+     * Constructor for the LegalMoveGenerator class. Finds the checking pieces and the pinned pieces.
+     * @param gameBoard The board to generate the moves on
+     * @param player1 boolean specifying the player whose moves to generate
+     */
+    public LegalMoveGenerator(ChessBoard8x8 gameBoard, boolean player1) {
+
+        this.gameBoard = gameBoard;
+        this.player1 = player1;
+        this.pinRays = new long[64];
+        analysePosition();
+
+    }
+
+    /**
+     * Finds the checking pieces and the pinned pieces in the board's current position. Lets the same generator be
+     * reused after moves are made on the board, instead of creating a new one.
+     */
+    public void analysePosition() {
+
+        this.kingIdx = this.gameBoard.findKingIdx(this.player1);
+        this.checkMask = -1L; //every square allowed until a checker is found
+        this.numCheckers = 0;
+        this.pinned = 0L; //pinRays is only looked at for pinned pieces, so needn't be cleared
+
+        if (this.kingIdx == -1) { //no king (probably captured), so nothing can be in check or pinned
+            return;
+        }
+
+        //leapers can only be captured, their attacks can't be blocked
+        findLeaperCheckers(Bitboards.KNIGHT_TARGETS[this.kingIdx], ChessPiece.KNIGHT);
+        findLeaperCheckers(Bitboards.KING_TARGETS[this.kingIdx], ChessPiece.KING);
+        findLeaperCheckers(Bitboards.ALFIL_TARGETS[this.kingIdx], ChessPiece.ALFIL);
+        findLeaperCheckers(Bitboards.PAWN_CAPTURE_TARGETS[this.player1? 0 : 1][this.kingIdx], ChessPiece.PAWN);
+
+        //sliders can be captured or blocked, and can pin the pieces in front of the king
+        //no square is on more than one of these rays, so a piece is pinned along at most one of them
+        findRayCheckersAndPins(Bitboards.ROOK_DIRECTIONS, ChessPiece.ROOK);
+        findRayCheckersAndPins(Bitboards.BISHOP_DIRECTIONS, ChessPiece.BISHOP);
+        findRayCheckersAndPins(Bitboards.KNIGHT_DIRECTIONS, ChessPiece.NIGHTRIDER);
+
+    }
+
+    /**
+     * Helper function for analysePosition. Records the opponent's pieces of the given type on any of the given
+     * squares as checking the king.
+     * @param squares Indices in the ChessPiece array from where such a piece would attack the king
+     * @param pieceType The type of the piece (one of the constants in ChessPiece)
+     */
+    private void findLeaperCheckers(int[] squares, int pieceType) {
+
+        for (int sq : squares) {
+            ChessPiece piece = this.gameBoard.board[sq];
+            if (piece != null && piece.isPlayer1() != this.player1 && piece.getPieceType() == pieceType) {
+                this.checkMask &= Bitboards.bit(sq); //must be captured
+                this.numCheckers++;
+            }
+        }
+
+    }
+
+    /**
+     * Helper function for analysePosition. Walks outwards from the king along each of the given directions.
+     * If the first piece on a ray is an opponent's piece sliding along it, it is checking the king. If the first
+     * piece is the player's own and the second is an opponent's piece sliding along the ray, the first is pinned.
+     * @param directions The (x,y) steps of the rays
+     * @param pieceType The type of the piece sliding along them (one of the constants in ChessPiece). Queens are
+     *                  counted along the rook and bishop rays.
+     */
+    private void findRayCheckersAndPins(int[][] directions, int pieceType) {
+
+        for (int[] dir : directions) {
+            long ray = 0L; //squares walked so far, not including the king
+            int ownIdx = -1; //the player's piece found on the ray, if any
+            int x = (this.kingIdx & 7) + dir[0];
+            int y = (this.kingIdx >>> 3) + dir[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                int sq = 8*y + x;
+                ray |= Bitboards.bit(sq);
+                ChessPiece piece = this.gameBoard.board[sq];
+                if (piece != null) {
+                    if (piece.isPlayer1() == this.player1) {
+                        if (ownIdx != -1) {
+                            break; //two of the player's own pieces, so nothing is pinned
+                        }
+                        ownIdx = sq;
+                    }
+                    else {
+                        if (slidesAlong(piece, pieceType)) {
+                            if (ownIdx == -1) {
+                                this.checkMask &= ray; //must be captured or blocked
+                                this.numCheckers++;
+                            }
+                            else {
+                                this.pinned |= Bitboards.bit(ownIdx);
+                                this.pinRays[ownIdx] = ray; //can move along the ray, up to and including the pinner
+                            }
+                        }
+                        break;
+                    }
+                }
+                x += dir[0];
+                y += dir[1];
+            }
+        }
+
+    }
+
+    /**
+     * Utility function to check if a piece slides along the rays of the given type.
+     * @param piece The piece to check
+     * @param pieceType ChessPiece.ROOK, ChessPiece.BISHOP or ChessPiece.NIGHTRIDER
+     * @return true if it does (queens slide along both rook and bishop rays), false otherwise
+     */
+    private static boolean slidesAlong(ChessPiece piece, int pieceType) {
+        int type = piece.getPieceType();
+        return type == pieceType
+                || (type == ChessPiece.QUEEN && (pieceType == ChessPiece.ROOK || pieceType == ChessPiece.BISHOP));
+    }
+
+    /**
+     * Check if the player's king is in 'check' in this position
+     * @return true if at least one of the opponent's pieces is attacking the king, false otherwise
+     */
+    public boolean isInCheck() {
+        return this.numCheckers > 0;
+    }
+
+    /**
+     * Getter for the index of the player's king, as found when the position was analysed.
+     * @return Index on the ChessPiece array of the king, or -1 if there isn't one
+     */
+    public int getKingIdx() {
+        return this.kingIdx;
+    }
+
+    /**
+     * Checks whether a move the piece can make (as listed by its getPossibleMoves) is legal, i.e. doesn't leave
+     * the player's king in check.
+     * @param sourceIdx Index on the ChessPiece array of the piece to move
+     * @param destIdx Index on the ChessPiece array to move the piece to
+     * @return true if the move is legal, false otherwise
+     */
+    public boolean isLegal(int sourceIdx, int destIdx) {
+
+        if (sourceIdx == this.kingIdx) {
+            //the king's own square mustn't shield it from rays along which it is moving away
+            return !this.gameBoard.isSquareAttacked(destIdx, !this.player1, this.kingIdx);
+        }
+        return (allowedTargets(sourceIdx) & Bitboards.bit(destIdx)) != 0;
+
+    }
+
+    /**
+     * Utility function to get the squares a piece (other than the king) is allowed to move to, given the checks
+     * and pins in this position.
+     * @param pieceIdx Index on the ChessPiece array of the piece
+     * @return bitboard of the allowed squares
+     */
+    private long allowedTargets(int pieceIdx) {
+
+        if (this.numCheckers > 1) {
+            return 0L; //double check, only the king can move
+        }
+        long allowed = this.checkMask;
+        if ((this.pinned & Bitboards.bit(pieceIdx)) != 0) {
+            allowed &= this.pinRays[pieceIdx];
+        }
+        return allowed;
+
+    }
+
+    /**
+     * Function that lists all the legal moves for a chess piece, in the order the piece lists its possible moves.
+     * @param pieceIdx Index on the board where the piece is located
+     * @return List of legal moves (as int[] positions) for the given piece. Empty if the square doesn't hold one
+     * of the player's pieces.
+     */
+    public List<int[]> legalMovesForAPiece(int pieceIdx) {
+
+        List<int[]> legalMoves = new ArrayList<>();
+        //base condition checks
+        if (pieceIdx < 0 || pieceIdx >= this.gameBoard.board.length || this.gameBoard.board[pieceIdx] == null
+                || this.gameBoard.board[pieceIdx].isPlayer1() != this.player1) {
+            return legalMoves;
+        }
+        List<int[]> possibleMoves = this.gameBoard.board[pieceIdx].getPossibleMoves(this.gameBoard);
+        for (int[] move : possibleMoves) {
+            if (isLegal(pieceIdx, this.gameBoard.twoDPositionToBoardIdx(move))) {
+                legalMoves.add(move);
+            }
+        }
+        return legalMoves;
+
+    }
+
+    /**
+     * Function that lists all the legal moves of the player.
+     * @return List of Move objects, one for each legal move
+     */
+    public List<Move> generateLegalMoves() {
+
+        List<Move> legalMoves = new ArrayList<>();
+        int[] squares = this.gameBoard.getPieceSquares(this.player1);
+        for (int i = 0; i < this.gameBoard.getPieceCount(this.player1); i++) {
+            int idx = squares[i];
+            for (int[] move : legalMovesForAPiece(idx)) {
+                int destIdx = this.gameBoard.twoDPositionToBoardIdx(move);
+                legalMoves.add(new Move(idx, destIdx, this.gameBoard.board[destIdx]));
+            }
+        }
+        return legalMoves;
+
+    }
+
+    /**
+     * Writes all the legal moves of the player into a buffer, packed as ints (see the Move class).
+     * Doesn't allocate anything.
+     * @param moves The buffer to write the moves into. Must have room for all of them
+     *              (ChessBoard8x8.MAX_MOVES is always enough). Is modified.
+     * @param count Number of moves already in the buffer (where to start writing)
+     * @return Number of moves in the buffer after writing the legal moves
+     */
+    public int writeLegalMoves(int[] moves, int count) {
+
+        int[] squares = this.gameBoard.getPieceSquares(this.player1);
+        int numPieces = this.gameBoard.getPieceCount(this.player1);
+        for (int p = 0; p < numPieces; p++) {
+            int idx = squares[p];
+            ChessPiece piece = this.gameBoard.board[idx];
+            //write all the piece's moves, then keep only the legal ones
+            int start = count;
+            int end = piece.writePossibleMoves(this.gameBoard, moves, count);
+            for (int i = start; i < end; i++) {
+                if (isLegal(idx, Move.getDestIdx(moves[i]))) {
+                    moves[count++] = moves[i];
+                }
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Checks if the player has any legal moves left. Stops at the first one found.
+     * @return true if there is at least one legal move, false otherwise
+     */
+    public boolean hasLegalMove() {
+
+        int[] squares = this.gameBoard.getPieceSquares(this.player1);
+        int numPieces = this.gameBoard.getPieceCount(this.player1);
+        for (int i = 0; i < numPieces; i++) {
+            int idx = squares[i];
+            ChessPiece piece = this.gameBoard.board[idx];
+            if (idx != this.kingIdx) {
+                //any possible move onto an allowed square will do
+                if ((piece.possibleTargets(this.gameBoard) & allowedTargets(idx)) != 0) {
+                    return true;
+                }
+                continue;
+            }
+            for (long targets = piece.possibleTargets(this.gameBoard); targets != 0; targets &= targets - 1) {
+                if (isLegal(idx, Long.numberOfTrailingZeros(targets))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * The board the moves are generated on
+     */
+    private ChessBoard8x8 gameBoard;
+
+    /**
+     * The player whose moves are generated
+     */
+    private boolean player1;
+
+    /**
+     * Index on the ChessPiece array of the player's king (-1 if there isn't one)
+     */
+    private int kingIdx;
+
+    /**
+     * Squares a piece other than the king must move to, to deal with a check (the checker's square and the squares
+     * between it and the king). All squares if not in check.
+     */
+    private long checkMask;
+
+    /**
+     * Number of the opponent's pieces checking the king
+     */
+    private int numCheckers;
+
+    /**
+     * Bitboard of the player's pinned pieces
+     */
+    private long pinned;
+
+    /**
+     * For each pinned piece, the squares of the ray it is pinned along (between the king and the pinner,
+     * including the pinner)
+     */
+    private long[] pinRays;
+
+}
@@ -0,0 +1,152 @@
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * LegalMoveGeneratorTest -- Tests for the LegalMoveGenerator class.
+ * Checks the generated moves against making every possible move and checking if it leaves the king in check,
+ * over random games, and in a few hand-made positions with pins and checks.
+ * @author sahil1105
+ */
+public class LegalMoveGeneratorTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes an empty game board.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+    }
+
+    /**
+     * Utility function to check that, for every piece of a player, the generator allows exactly the possible moves
+     * that don't leave the king in check when made.
+     * @param player1 boolean specifying the player
+     * @return number of legal moves of the player
+     */
+    private int assertMatchesMakeUnmake(boolean player1) {
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(gameBoard, player1);
+        int numLegalMoves = 0;
+        for (int idx = 0; idx < 64; idx++) {
+            if (gameBoard.board[idx] == null || gameBoard.board[idx].isPlayer1() != player1) {
+                continue;
+            }
+            List<int[]> possibleMoves = gameBoard.board[idx].getPossibleMoves(gameBoard);
+            for (int[] move : possibleMoves) {
+                int destIdx = gameBoard.twoDPositionToBoardIdx(move);
+                assertEquals(generator.isLegal(idx, destIdx), !gameBoard.moveLeavesKingInCheck(idx, destIdx, player1));
+                if (generator.isLegal(idx, destIdx)) {
+                    numLegalMoves++;
+                }
+            }
+        }
+        assertEquals(generator.generateLegalMoves().size(), numLegalMoves);
+        //the packed moves must be the same moves
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        assertEquals(gameBoard.writeLegalMoves(player1, moves), numLegalMoves);
+        for (int i = 0; i < numLegalMoves; i++) {
+            int startIdx = Move.getStartIdx(moves[i]);
+            int destIdx = Move.getDestIdx(moves[i]);
+            assertEquals(gameBoard.board[startIdx].isPlayer1(), player1);
+            assertEquals(generator.isLegal(startIdx, destIdx), true);
+            assertEquals(Move.isCapture(moves[i]), gameBoard.board[destIdx] != null);
+        }
+        assertEquals(generator.hasLegalMove(), numLegalMoves > 0);
+        assertEquals(generator.isInCheck(), gameBoard.isInCheck(player1));
+        return numLegalMoves;
+
+    }
+
+    /**
+     * Plays random legal moves from the standard and custom starting positions, checking the generator against
+     * make/unmake in every position along the way.
+     */
+    public void testMatchesMakeUnmakeInRandomGames() {
+
+        Random random = new Random(1105);
+        for (int game = 0; game < 8; game++) {
+            if (game % 2 == 0) {
+                gameBoard.initBoard();
+            }
+            else {
+                gameBoard.initCustomBoard();
+            }
+            boolean player1 = true;
+            for (int ply = 0; ply < 60; ply++) {
+                assertMatchesMakeUnmake(!player1);
+                if (assertMatchesMakeUnmake(player1) == 0) {
+                    break; //game over
+                }
+                List<Move> legalMoves = new LegalMoveGenerator(gameBoard, player1).generateLegalMoves();
+                Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+                assertTrue(gameBoard.move(move.getStartIdx(), move.getDestIdx(), player1));
+                player1 = !player1;
+            }
+        }
+
+    }
+
+    /**
+     * Tests pins along rook and nightrider rays, and that pinned pieces can still move along the ray they
+     * are pinned on.
+     */
+    public void testPins() {
+
+        gameBoard.setPiece(4, new King(new int[] {4, 0}, true));
+        gameBoard.setPiece(60, new King(new int[] {4, 7}, false));
+        gameBoard.setPiece(20, new Rook(new int[] {4, 2}, true)); //pinned by the rook on 52
+        gameBoard.setPiece(52, new Rook(new int[] {4, 6}, false));
+        gameBoard.setPiece(21, new Knight(new int[] {5, 2}, true)); //pinned by the nightrider on 38
+        gameBoard.setPiece(38, new Nightrider(new int[] {6, 4}, false));
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(gameBoard, true);
+        assertEquals(generator.isInCheck(), false);
+        //the rook can only move along the file, from next to the king up to capturing the pinner
+        assertEquals(generator.legalMovesForAPiece(20).size(), 5);
+        assertEquals(generator.isLegal(20, 52), true);
+        assertEquals(generator.isLegal(20, 19), false);
+        //the knight's only move that stays on the nightrider's ray is capturing the nightrider
+        assertEquals(generator.legalMovesForAPiece(21).size(), 1);
+        assertEquals(generator.isLegal(21, 38), true);
+        assertMatchesMakeUnmake(true);
+
+    }
+
+    /**
+     * Tests single and double checks: in single check pieces may only capture or block, in double check only the
+     * king may move, and the king can't step back along the ray of a checking rook.
+     */
+    public void testChecks() {
+
+        gameBoard.setPiece(4, new King(new int[] {4, 0}, true));
+        gameBoard.setPiece(60, new King(new int[] {4, 7}, false));
+        gameBoard.setPiece(36, new Rook(new int[] {4, 4}, false)); //checks along the file
+        gameBoard.setPiece(1, new Rook(new int[] {1, 0}, true)); //can't reach the file
+        gameBoard.setPiece(26, new Bishop(new int[] {2, 3}, true)); //can block on 12
+        gameBoard.setPiece(43, new Queen(new int[] {3, 5}, true)); //can capture the rook
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(gameBoard, true);
+        assertEquals(generator.isInCheck(), true);
+        assertEquals(generator.legalMovesForAPiece(1).size(), 0);
+        assertEquals(generator.legalMovesForAPiece(26).size(), 1); //block on 12
+        assertEquals(generator.isLegal(26, 12), true);
+        assertEquals(generator.isLegal(43, 36), true); //capture the checker
+        assertEquals(generator.isLegal(4, 12), false); //still on the rook's file
+        assertMatchesMakeUnmake(true);
+
+        //add a knight giving a second check
+        gameBoard.setPiece(14, new Knight(new int[] {6, 1}, false));
+        generator = new LegalMoveGenerator(gameBoard, true);
+        assertEquals(generator.legalMovesForAPiece(26).size(), 0);
+        assertEquals(generator.legalMovesForAPiece(43).size(), 0);
+        assertEquals(generator.isLegal(4, 3), true);
+        assertMatchesMakeUnmake(true);
+
+    }
+
+}
@@ -0,0 +1,765 @@
+/**
+ * MailboxChessBoard8x8 -- Implementation of the 8x8 Chess Board as a 12x12 "mailbox": a byte[] with the 64 squares
+ * of the board in the middle, surrounded by a border two squares wide of OFF_BOARD sentinel squares.
+ * Every step a piece can take (a king or pawn step, a knight or nightrider leap, an alfil jump) moves it at most two
+ * squares in each direction, so from any square of the board it lands either on another square of the board or on
+ * the border, never outside the array. Ray walks and leaps are then just additions of a fixed offset to the index,
+ * which stop when they reach a square that isn't EMPTY, with no range checks on the coordinates.
+ * Squares hold the same codes as a snapshot of a ChessBoard8x8 (see ChessBoard8x8.EMPTY_SQUARE and PLAYER2_FLAG)
+ * instead of ChessPiece objects. Follows the same rules as the ChessBoard8x8 class, and takes and returns squares as
+ * the same indices (8 * y + x) and moves in the same packed form (see the Move class), so the two can be compared
+ * and benchmarked against each other.
+ * @author sahil1105
+ */
+public class MailboxChessBoard8x8 extends Board {
+
+    /**
+     * Number of squares in each row of the mailbox, and in all of it: the 8 squares of the board plus 2 of border
+     * on each side.
+     */
+    public static final int WIDTH = 12, SIZE = WIDTH * WIDTH;
+
+    /**
+     * Code of the border squares of the mailbox. Never equal to the code of a piece or to EMPTY_SQUARE.
+     */
+    public static final byte OFF_BOARD = -1;
+
+    /**
+     * Index in the mailbox of each square of the board (indexed as the ChessPiece array of a ChessBoard8x8), and the
+     * other way around (-1 for the border squares).
+     */
+    private static final int[] TO_MAILBOX = new int[64], TO_SQUARE = new int[SIZE];
+
+    /**
+     * Mailbox offsets of the steps of each kind of piece. The knight steps are also the steps of the nightrider's
+     * rays.
+     */
+    private static final int[] ROOK_STEPS = {WIDTH, -WIDTH, 1, -1},
+                               BISHOP_STEPS = {WIDTH + 1, WIDTH - 1, -WIDTH + 1, -WIDTH - 1},
+                               KING_STEPS = {WIDTH, -WIDTH, 1, -1, WIDTH + 1, WIDTH - 1, -WIDTH + 1, -WIDTH - 1},
+                               KNIGHT_STEPS = {2 * WIDTH + 1, 2 * WIDTH - 1, -2 * WIDTH + 1, -2 * WIDTH - 1,
+                                               WIDTH + 2, WIDTH - 2, -WIDTH + 2, -WIDTH - 2},
+                               ALFIL_STEPS = {2 * WIDTH + 2, 2 * WIDTH - 2, -2 * WIDTH + 2, -2 * WIDTH - 2};
+
+    //work out the index tables once, when the class is loaded
+    static {
+        for (int idx = 0; idx < SIZE; idx++) {
+            TO_SQUARE[idx] = -1;
+        }
+        for (int square = 0; square < 64; square++) {
+            int idx = ((square >>> 3) + 2) * WIDTH + (square & 7) + 2;
+            TO_MAILBOX[square] = idx;
+            TO_SQUARE[idx] = square;
+        }
+    }
+
+    /**
+     * Constructor for the MailboxChessBoard8x8 class. Creates an empty mailbox (just the border).
+     * Doesn't place the pieces on the board yet. That is done by initBoard().
+     */
+    public MailboxChessBoard8x8() {
+
+        this.squares = new byte[SIZE];
+        this.kingIdx = new int[] {-1, -1};
+        this.moveBuffer = new int[ChessBoard8x8.MAX_MOVES];
+        this.clearBoard();
+
+    }
+
+    /**
+     * Utility function to get the code of a piece.
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 Whether the piece belongs to player 1
+     * @return The piece's code: its type plus one, with PLAYER2_FLAG set for player 2's pieces
+     */
+    private static byte pieceCode(int pieceType, boolean player1) {
+        return (byte) ((pieceType + 1) | (player1? 0 : ChessBoard8x8.PLAYER2_FLAG));
+    }
+
+    /**
+     * @param code The code of a square holding a piece
+     * @return The piece's type (one of the ChessPiece type constants)
+     */
+    private static int pieceType(byte code) {
+        return (code & (ChessBoard8x8.PLAYER2_FLAG - 1)) - 1;
+    }
+
+    /**
+     * @param code The code of a square holding a piece
+     * @return true if the piece belongs to player 1, false otherwise
+     */
+    private static boolean isPlayer1(byte code) {
+        return (code & ChessBoard8x8.PLAYER2_FLAG) == 0;
+    }
+
+    /**
+     * Utility function to get the mailbox index of a position.
+     * @param position The (x,y) position
+     * @return The index, or -1 if the position isn't on the board
+     */
+    private static int mailboxIdx(@NotNull int[] position) {
+        if (position.length != 2 || ((position[0] | position[1]) & ~7) != 0) {
+            return -1;
+        }
+        return TO_MAILBOX[8 * position[1] + position[0]];
+    }
+
+    /**
+     * Utility function that converts an index (as in the ChessPiece array of a ChessBoard8x8) to an (x,y) position.
+     * @param pos The index
+     * @return int[] {x, y} of the square, or null if the index isn't on the board
+     */
+    @Override
+    protected int[] boardIdxToPosition(int pos) {
+        if (pos < 0 || pos > 63) {
+            return null;
+        }
+        return new int[] {pos & 7, pos >>> 3};
+    }
+
+    /**
+     * The board keeps codes rather than ChessPiece objects, so a new piece is created for each call.
+     * @param position The (x,y) position
+     * @return A new ChessPiece object for the piece at the specified position or 'null' if the position is empty
+     *         or not on the board.
+     */
+    @Override
+    public ChessPiece getPieceAtPosition(@NotNull int[] position) {
+        int idx = mailboxIdx(position);
+        if (idx == -1 || this.squares[idx] == ChessBoard8x8.EMPTY_SQUARE) {
+            return null;
+        }
+        byte code = this.squares[idx];
+        return ChessPiece.newPiece(pieceType(code), new int[] {position[0], position[1]}, isPlayer1(code));
+    }
+
+    /**
+     * Checks if the position is occupied by a piece.
+     * @param position The (x,y) position
+     * @return 0 if not occupied
+     *         1 if occupied
+     *        -1 if not a valid position
+     */
+    @Override
+    public short isOccupied(@NotNull int[] position) {
+        int idx = mailboxIdx(position);
+        if (idx == -1) {
+            return -1;
+        }
+        return (short) (this.squares[idx] == ChessBoard8x8.EMPTY_SQUARE? 0 : 1);
+    }
+
+    /**
+     * Checks if the position is occupied by an opponent or not.
+     * @param position The (x,y) position
+     * @param player1 boolean specifying whose opponent to look for
+     * @return 0 if not occupied by opponent
+     *         1 if occupied by opponent
+     *        -1 if not a valid position
+     */
+    @Override
+    public short isOccupiedByOpponent(@NotNull int[] position, boolean player1) {
+        int idx = mailboxIdx(position);
+        if (idx == -1) {
+            return -1;
+        }
+        byte code = this.squares[idx];
+        return (short) (code != ChessBoard8x8.EMPTY_SQUARE && isPlayer1(code) != player1? 1 : 0);
+    }
+
+    /**
+     * Initialize board with the regular Chess pieces in their normal starting positions
+     */
+    @Override
+    public void initBoard() {
+        initFromFen(ChessBoard8x8.STANDARD_FEN);
+    }
+
+    /**
+     * Initialize board with the custom pieces: as initBoard(), with the alfils in the corners on the queen's side of
+     * player 1 and the king's side of player 2, and a nightrider instead of the other knight.
+     * The same position as ChessBoard8x8.initCustomBoard().
+     */
+    @Override
+    public void initCustomBoard() {
+        initFromFen(ChessBoard8x8.CUSTOM_FEN);
+    }
+
+    /**
+     * Sets the board up from the piece placement field of a FEN string (see ChessBoard8x8.initFromFen).
+     * @param fen The FEN string. Only the piece placement (up to the first space) is read.
+     * @throws IllegalArgumentException if the piece placement is invalid
+     */
+    public void initFromFen(@NotNull String fen) {
+        restore(ChessBoard8x8.fenToSnapshot(fen));
+    }
+
+    /**
+     * Describes the pieces on the board as the piece placement field of a FEN string.
+     * @return The piece placement, eg. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR" for the starting position
+     */
+    @Override
+    public String toFen() {
+        return ChessBoard8x8.snapshotToFen(snapshot());
+    }
+
+    /**
+     * Describes the pieces on the board in the same form as ChessBoard8x8.snapshot(), so the position can be
+     * restored onto either kind of board.
+     * @return byte[64] with the encoding of each square, indexed as the ChessPiece array of a ChessBoard8x8
+     */
+    public byte[] snapshot() {
+        byte[] snapshot = new byte[64];
+        for (int square = 0; square < 64; square++) {
+            snapshot[square] = this.squares[TO_MAILBOX[square]];
+        }
+        return snapshot;
+    }
+
+    /**
+     * Sets the board up with the pieces of a snapshot (see ChessBoard8x8.snapshot()).
+     * @param snapshot The snapshot
+     * @throws IllegalArgumentException if the snapshot isn't 64 squares long or has an invalid square
+     */
+    public void restore(@NotNull byte[] snapshot) {
+
+        if (snapshot.length != 64) {
+            throw new IllegalArgumentException("Expected 64 squares in snapshot: " + snapshot.length);
+        }
+        this.clearBoard();
+        for (int square = 0; square < 64; square++) {
+            byte code = snapshot[square];
+            if (code == ChessBoard8x8.EMPTY_SQUARE) {
+                continue;
+            }
+            int pieceType = pieceType(code);
+            if (pieceType < 0 || pieceType >= ChessPiece.NUM_PIECE_TYPES
+                || (code & ~(2 * ChessBoard8x8.PLAYER2_FLAG - 1)) != 0) {
+                throw new IllegalArgumentException("Invalid square in snapshot: " + code);
+            }
+            putPiece(TO_MAILBOX[square], code);
+        }
+
+    }
+
+    /**
+     * Function that moves a piece at source_pos to dest_pos if the move is legal (see move(int, int, boolean)).
+     * @param source_pos Current Position of the piece to move
+     * @param dest_pos Position to move the piece to.
+     * @param player1 boolean specifying if this is player 1's move or not.
+     * @return makes the move and returns true if the move is legal
+     *         doesn't make the move and returns false otherwise
+     */
+    @Override
+    public boolean move(@NotNull int[] source_pos, @NotNull int[] dest_pos, boolean player1) {
+        int sourceIdx = mailboxIdx(source_pos);
+        int destIdx = mailboxIdx(dest_pos);
+        if (sourceIdx == -1 || destIdx == -1) {
+            return false;
+        }
+        return move(TO_SQUARE[sourceIdx], TO_SQUARE[destIdx], player1);
+    }
+
+    /**
+     * Function to perform a move on the Game board. Makes the move only if it is legal (the piece belongs to the
+     * player whose turn it is, the piece can make this move and this move doesn't leave the player's king in check).
+     * @param startIdx Index (8 * y + x) of the square of the piece to move
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying if this is player 1's move or not.
+     * @return true if the move is legal (the move is performed)
+     *         false otherwise (the move is not performed)
+     */
+    @Override
+    public boolean move(int startIdx, int destIdx, boolean player1) {
+
+        if (startIdx > 63 || startIdx < 0 || destIdx > 63 || destIdx < 0) {
+            return false;
+        }
+        int source = TO_MAILBOX[startIdx];
+        byte code = this.squares[source];
+        if (code == ChessBoard8x8.EMPTY_SQUARE || isPlayer1(code) != player1) {
+            return false;
+        }
+        //check that the piece can make the move, then that it doesn't leave the king in check
+        int count = writePieceMoves(source, this.moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (Move.getDestIdx(this.moveBuffer[i]) == destIdx) {
+                if (moveLeavesKingInCheck(startIdx, destIdx, player1)) {
+                    return false;
+                }
+                makeMove(startIdx, destIdx);
+                return true;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Writes all the possible moves of a player into a buffer, packed as ints (see the Move class).
+     * Doesn't check if the moves would be legal (eg. leave the king in a check). Doesn't allocate anything.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (ChessBoard8x8.MAX_MOVES is
+     *              always enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    @Override
+    public int writePossibleMoves(boolean player1, @NotNull int[] moves) {
+
+        int count = 0;
+        for (int square = 0; square < 64; square++) {
+            byte code = this.squares[TO_MAILBOX[square]];
+            if (code != ChessBoard8x8.EMPTY_SQUARE && isPlayer1(code) == player1) {
+                count = writePieceMoves(TO_MAILBOX[square], moves, count);
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Writes all the legal moves of a player (moves that do not put the player's king in check) into a buffer,
+     * packed as ints (see the Move class). When the player isn't in check, only the king's moves and the moves of
+     * pieces that could be shielding the king (see mayExposeKing()) are made and undone to check them, which only
+     * takes a few byte writes on this board. Doesn't allocate anything.
+     * @param player1 boolean specifying the player
+     * @param moves The buffer to write the moves into. Must have room for all of them (ChessBoard8x8.MAX_MOVES is
+     *              always enough). Is modified.
+     * @return Number of moves written (from the start of the buffer)
+     */
+    @Override
+    public int writeLegalMoves(boolean player1, @NotNull int[] moves) {
+
+        int possible = writePossibleMoves(player1, moves);
+        boolean inCheck = isInCheck(player1);
+        int count = 0;
+        for (int i = 0; i < possible; i++) {
+            int move = moves[i];
+            if (!mayExposeKing(Move.getStartIdx(move), player1, inCheck)
+                || !moveLeavesKingInCheck(Move.getStartIdx(move), Move.getDestIdx(move), player1)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Utility function to check whether moving a piece could leave its player's king in check, so the move has to
+     * be made to find out. Moving a piece can only uncover an attack along a slider's ray (a rank, file, diagonal
+     * or nightrider line) running through both its square and the king's, so when the player isn't in check
+     * already, only moves of the king and of pieces on one of those lines need to be looked at.
+     * @param sourceIdx Index (8 * y + x) of the square of the piece to move
+     * @param player1 boolean specifying the player
+     * @param inCheck Whether the player is in check
+     * @return false if the move is sure not to leave the king in check, true if it has to be checked
+     */
+    private boolean mayExposeKing(int sourceIdx, boolean player1, boolean inCheck) {
+
+        int king = this.kingIdx[player1? 0 : 1];
+        if (inCheck || king == -1) {
+            return inCheck;
+        }
+        int kingSquare = TO_SQUARE[king];
+        int dx = Math.abs((kingSquare & 7) - (sourceIdx & 7));
+        int dy = Math.abs((kingSquare >>> 3) - (sourceIdx >>> 3));
+        return dx == 0 || dy == 0 || dx == dy || dx == 2 * dy || dy == 2 * dx;
+
+    }
+
+    /**
+     * Utility function to write the moves of the piece on a square into a buffer, packed as ints (see the Move
+     * class). Each step is added to the index until it reaches a square that isn't empty: an opponent's piece is
+     * captured, and a piece of the player's own or the border stops the piece there.
+     * @param source Mailbox index of the square. Must hold a piece.
+     * @param moves The buffer to write the moves into. Is modified.
+     * @param count Number of moves already in the buffer (where to start writing)
+     * @return Number of moves in the buffer after writing the piece's moves
+     */
+    private int writePieceMoves(int source, @NotNull int[] moves, int count) {
+
+        byte code = this.squares[source];
+        switch (pieceType(code)) {
+            case ChessPiece.KING:
+                return writeSteps(source, code, KING_STEPS, false, moves, count);
+            case ChessPiece.QUEEN:
+                return writeSteps(source, code, KING_STEPS, true, moves, count);
+            case ChessPiece.ROOK:
+                return writeSteps(source, code, ROOK_STEPS, true, moves, count);
+            case ChessPiece.KNIGHT:
+                return writeSteps(source, code, KNIGHT_STEPS, false, moves, count);
+            case ChessPiece.BISHOP:
+                return writeSteps(source, code, BISHOP_STEPS, true, moves, count);
+            case ChessPiece.NIGHTRIDER:
+                return writeSteps(source, code, KNIGHT_STEPS, true, moves, count);
+            case ChessPiece.ALFIL:
+                return writeSteps(source, code, ALFIL_STEPS, false, moves, count);
+            default:
+                return writePawnMoves(source, code, moves, count);
+        }
+
+    }
+
+    /**
+     * Utility function to write the moves of a piece that moves by steps, once or repeatedly, into a buffer.
+     * @param source Mailbox index of the piece's square
+     * @param code The piece's code
+     * @param steps Mailbox offsets of the piece's steps
+     * @param slides Whether the piece keeps stepping in each direction until it is stopped (rooks, bishops, queens,
+     *               nightriders) or takes a single step (kings, knights, alfils)
+     * @param moves The buffer to write the moves into. Is modified.
+     * @param count Number of moves already in the buffer
+     * @return Number of moves in the buffer after writing the piece's moves
+     */
+    private int writeSteps(int source, byte code, @NotNull int[] steps, boolean slides, @NotNull int[] moves,
+                           int count) {
+
+        int start = TO_SQUARE[source];
+        for (int step : steps) {
+            int target = source + step;
+            while (this.squares[target] == ChessBoard8x8.EMPTY_SQUARE) {
+                moves[count++] = Move.encode(start, TO_SQUARE[target], Move.NO_PIECE, 0);
+                if (!slides) {
+                    break;
+                }
+                target += step;
+            }
+            byte atTarget = this.squares[target];
+            if (atTarget > 0 && isPlayer1(atTarget) != isPlayer1(code)) { //an opponent's piece (OFF_BOARD is < 0)
+                moves[count++] = Move.encode(start, TO_SQUARE[target], pieceType(atTarget), Move.FLAG_CAPTURE);
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Utility function to write the moves of a pawn into a buffer: one square ahead, or two from its starting row,
+     * if the squares are empty, and one square diagonally ahead when capturing an opponent's piece.
+     * @param source Mailbox index of the pawn's square
+     * @param code The pawn's code
+     * @param moves The buffer to write the moves into. Is modified.
+     * @param count Number of moves already in the buffer
+     * @return Number of moves in the buffer after writing the pawn's moves
+     */
+    private int writePawnMoves(int source, byte code, @NotNull int[] moves, int count) {
+
+        boolean player1 = isPlayer1(code);
+        int start = TO_SQUARE[source];
+        int ahead = player1? WIDTH : -WIDTH;
+        if (this.squares[source + ahead] == ChessBoard8x8.EMPTY_SQUARE) {
+            moves[count++] = Move.encode(start, TO_SQUARE[source + ahead], Move.NO_PIECE, 0);
+            if ((start >>> 3) == (player1? 1 : 6)
+                && this.squares[source + 2 * ahead] == ChessBoard8x8.EMPTY_SQUARE) {
+                moves[count++] = Move.encode(start, TO_SQUARE[source + 2 * ahead], Move.NO_PIECE, 0);
+            }
+        }
+        for (int target = source + ahead - 1; target <= source + ahead + 1; target += 2) {
+            byte atTarget = this.squares[target];
+            if (atTarget > 0 && isPlayer1(atTarget) != player1) {
+                moves[count++] = Move.encode(start, TO_SQUARE[target], pieceType(atTarget), Move.FLAG_CAPTURE);
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Check if the player's king is in 'check'
+     * @param player1 boolean specifying which player's turn it is
+     * @return true if the player's king is in check
+     *         false otherwise (including when the player has no king)
+     */
+    @Override
+    public boolean isInCheck(boolean player1) {
+        int king = this.kingIdx[player1? 0 : 1];
+        return king != -1 && isAttacked(king, !player1);
+    }
+
+    /**
+     * Checks if a square is attacked by any of a player's pieces. Whatever is on the square itself is ignored.
+     * @param square Index (8 * y + x) of the square to check
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces could capture on the square, false otherwise
+     */
+    @Override
+    public boolean isSquareAttacked(int square, boolean byPlayer1) {
+        return isAttacked(TO_MAILBOX[square], byPlayer1);
+    }
+
+    /**
+     * Utility function to check if a square is attacked, by working backwards from it: stepping from the square
+     * as each kind of piece would, and looking for a piece of that kind at the end of the step or ray.
+     * @param target Mailbox index of the square
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if any of the player's pieces could capture on the square, false otherwise
+     */
+    private boolean isAttacked(int target, boolean byPlayer1) {
+
+        //pawns attack diagonally forwards, so look diagonally backwards for them
+        byte pawn = pieceCode(ChessPiece.PAWN, byPlayer1);
+        int behind = byPlayer1? -WIDTH : WIDTH;
+        if (this.squares[target + behind - 1] == pawn || this.squares[target + behind + 1] == pawn) {
+            return true;
+        }
+        if (isAttackedBySteps(target, KING_STEPS, pieceCode(ChessPiece.KING, byPlayer1))
+            || isAttackedBySteps(target, ALFIL_STEPS, pieceCode(ChessPiece.ALFIL, byPlayer1))) {
+            return true;
+        }
+        byte queen = pieceCode(ChessPiece.QUEEN, byPlayer1);
+        return isAttackedByRays(target, ROOK_STEPS, pieceCode(ChessPiece.ROOK, byPlayer1), queen)
+               || isAttackedByRays(target, BISHOP_STEPS, pieceCode(ChessPiece.BISHOP, byPlayer1), queen)
+               || isAttackedByKnightSteps(target, byPlayer1);
+
+    }
+
+    /**
+     * Utility function to look for a leaper at one step from a square.
+     * @param target Mailbox index of the square
+     * @param steps Mailbox offsets of the leaper's steps
+     * @param code Code of the leaper to look for
+     * @return true if the leaper is at one of the steps from the square
+     */
+    private boolean isAttackedBySteps(int target, @NotNull int[] steps, byte code) {
+        for (int step : steps) {
+            if (this.squares[target + step] == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Utility function to look for a slider at the end of the rays from a square.
+     * @param target Mailbox index of the square
+     * @param steps Mailbox offsets of the rays' steps
+     * @param code Code of the slider to look for
+     * @param alsoCode Code of another slider moving along the same rays (eg. the queen for rooks)
+     * @return true if one of the sliders is the first piece along one of the rays
+     */
+    private boolean isAttackedByRays(int target, @NotNull int[] steps, byte code, byte alsoCode) {
+        for (int step : steps) {
+            int idx = target + step;
+            while (this.squares[idx] == ChessBoard8x8.EMPTY_SQUARE) {
+                idx += step;
+            }
+            if (this.squares[idx] == code || this.squares[idx] == alsoCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Utility function to look for knights one leap away from a square, and nightriders at the end of its knight
+     * leap rays.
+     * @param target Mailbox index of the square
+     * @param byPlayer1 boolean specifying the attacking player
+     * @return true if a knight or nightrider of the player attacks the square
+     */
+    private boolean isAttackedByKnightSteps(int target, boolean byPlayer1) {
+        byte knight = pieceCode(ChessPiece.KNIGHT, byPlayer1);
+        byte nightrider = pieceCode(ChessPiece.NIGHTRIDER, byPlayer1);
+        for (int step : KNIGHT_STEPS) {
+            int idx = target + step;
+            if (this.squares[idx] == knight) {
+                return true;
+            }
+            while (this.squares[idx] == ChessBoard8x8.EMPTY_SQUARE) {
+                idx += step;
+            }
+            if (this.squares[idx] == nightrider) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the game is over i.e. there is either a checkmate or a stalemate
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return 1 if there is a checkmate and hence the game is over
+     *        -1 if there is a stalemate and hence the game is over
+     *         0 otherwise
+     */
+    @Override
+    public int isGameOver(boolean player1) {
+
+        //if your king is dead, then game over
+        if (this.kingIdx[player1? 0 : 1] == -1) {
+            return 1;
+        }
+        //if you have a legal move left, then it's not a checkmate or a stalemate
+        if (legalMovesLeft(player1)) {
+            return 0;
+        }
+        //if no legal moves left, it's a checkmate if you are in check, and a stalemate otherwise
+        return isInCheck(player1)? 1 : -1;
+
+    }
+
+    /**
+     * Checks if you have any legal moves left, in particular moves that do not put your own king in check.
+     * Stops at the first legal move found. As in writeLegalMoves(), only moves that may expose the king are made
+     * and undone to check them.
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return true if you have legal moves left, false if not
+     */
+    protected boolean legalMovesLeft(boolean player1) {
+
+        boolean inCheck = isInCheck(player1);
+        for (int square = 0; square < 64; square++) {
+            byte code = this.squares[TO_MAILBOX[square]];
+            if (code == ChessBoard8x8.EMPTY_SQUARE || isPlayer1(code) != player1) {
+                continue;
+            }
+            int count = writePieceMoves(TO_MAILBOX[square], this.moveBuffer, 0);
+            boolean checkMoves = mayExposeKing(square, player1, inCheck);
+            for (int i = 0; i < count; i++) {
+                if (!checkMoves || !moveLeavesKingInCheck(square, Move.getDestIdx(this.moveBuffer[i]), player1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Function to check if a move would leave the player's king in check, by making the move, checking and undoing
+     * it. Assumes the move is possible for the piece to make.
+     * @param sourceIdx Index (8 * y + x) of the square to move the piece from
+     * @param destIdx Index of the square to move the piece to
+     * @param player1 boolean specifying if it is player 1's turn
+     * @return true if the move would leave the player's king in check
+     *         false if the move wouldn't leave the player's king in check
+     */
+    protected boolean moveLeavesKingInCheck(int sourceIdx, int destIdx, boolean player1) {
+        byte captured = makeMove(sourceIdx, destIdx);
+        boolean inCheck = isInCheck(player1);
+        undoMove(sourceIdx, destIdx, captured);
+        return inCheck;
+    }
+
+    /**
+     * Makes a move without checking that it is legal. Captures whatever is on the destination square.
+     * @param sourceIdx Index (8 * y + x) of the square to move the piece from
+     * @param destIdx Index of the square to move the piece to
+     * @return The code of what was on the destination square, to pass to undoMove()
+     */
+    protected byte makeMove(int sourceIdx, int destIdx) {
+
+        int source = TO_MAILBOX[sourceIdx];
+        int dest = TO_MAILBOX[destIdx];
+        byte captured = this.squares[dest];
+        if (captured != ChessBoard8x8.EMPTY_SQUARE) {
+            removePiece(dest);
+        }
+        byte code = removePiece(source);
+        putPiece(dest, code);
+        return captured;
+
+    }
+
+    /**
+     * Undoes a move made by makeMove().
+     * @param sourceIdx Index (8 * y + x) of the square the piece was moved from
+     * @param destIdx Index of the square the piece was moved to
+     * @param captured The code returned by makeMove()
+     */
+    protected void undoMove(int sourceIdx, int destIdx, byte captured) {
+
+        int source = TO_MAILBOX[sourceIdx];
+        int dest = TO_MAILBOX[destIdx];
+        putPiece(source, removePiece(dest));
+        if (captured != ChessBoard8x8.EMPTY_SQUARE) {
+            putPiece(dest, captured);
+        }
+
+    }
+
+    /**
+     * Utility function to put a piece on an empty square, keeping the king indices and the hash up to date.
+     * @param idx Mailbox index of the square
+     * @param code The piece's code
+     */
+    private void putPiece(int idx, byte code) {
+        this.squares[idx] = code;
+        int type = pieceType(code);
+        if (type == ChessPiece.KING) {
+            this.kingIdx[isPlayer1(code)? 0 : 1] = idx;
+        }
+        this.positionHash ^= Zobrist.pieceKey(type, isPlayer1(code), TO_SQUARE[idx]);
+    }
+
+    /**
+     * Utility function to take the piece off a square, keeping the king indices and the hash up to date.
+     * @param idx Mailbox index of the square. Must hold a piece.
+     * @return The piece's code
+     */
+    private byte removePiece(int idx) {
+        byte code = this.squares[idx];
+        this.squares[idx] = ChessBoard8x8.EMPTY_SQUARE;
+        int type = pieceType(code);
+        if (type == ChessPiece.KING && this.kingIdx[isPlayer1(code)? 0 : 1] == idx) {
+            this.kingIdx[isPlayer1(code)? 0 : 1] = -1;
+        }
+        this.positionHash ^= Zobrist.pieceKey(type, isPlayer1(code), TO_SQUARE[idx]);
+        return code;
+    }
+
+    /**
+     * Utility function to clear all the pieces from the board, leaving the border.
+     */
+    private void clearBoard() {
+
+        for (int idx = 0; idx < SIZE; idx++) {
+            this.squares[idx] = (TO_SQUARE[idx] == -1)? OFF_BOARD : ChessBoard8x8.EMPTY_SQUARE;
+        }
+        this.kingIdx[0] = -1;
+        this.kingIdx[1] = -1;
+        this.positionHash = 0L;
+
+    }
+
+    /**
+     * Function to get the Zobrist hash of the pieces on the board, kept up to date as pieces are placed and moved.
+     * Equal to the hash of a ChessBoard8x8 with the same pieces.
+     * @return The hash of the position
+     */
+    @Override
+    public long getPositionHash() {
+        return this.positionHash;
+    }
+
+    /**
+     * Overriding the toString function
+     * @return String representation of the Chess Board, complete with all the pieces on it, in the same form as
+     *         ChessBoard8x8.toString()
+     */
+    @Override
+    public String toString() {
+        return ChessBoard8x8.snapshotToString(snapshot());
+    }
+
+    /**
+     * The mailbox: the code of each square, OFF_BOARD on the border
+     */
+    private byte[] squares;
+
+    /**
+     * Mailbox index of each player's king (player 1's at 0, player 2's at 1), -1 if the player has no king
+     */
+    private int[] kingIdx;
+
+    /**
+     * Zobrist hash of the pieces on the board (see the Zobrist class)
+     */
+    private long positionHash;
+
+    /**
+     * Buffer for the moves of a single piece, reused by move() and legalMovesLeft()
+     */
+    private int[] moveBuffer;
+
+}
@@ -0,0 +1,148 @@
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * MailboxChessBoard8x8Test -- Tests for the MailboxChessBoard8x8 class.
+ * Checks the sentinel border, then plays random games on a MailboxChessBoard8x8 and a ChessBoard8x8 side by side,
+ * making sure both boards agree on every move, check and game over decision.
+ * @author sahil1105
+ */
+public class MailboxChessBoard8x8Test extends TestCase {
+
+    MailboxChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes the game board with the regular pieces.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new MailboxChessBoard8x8();
+        gameBoard.initBoard();
+    }
+
+    /**
+     * Tests the int[] position API, including positions off the board.
+     */
+    public void testIsOccupied() {
+
+        assertEquals(gameBoard.isOccupied(new int[] {0, 0}), 1);
+        assertEquals(gameBoard.isOccupied(new int[] {4, 4}), 0);
+        assertEquals(gameBoard.isOccupied(new int[] {-1, 0}), -1);
+        assertEquals(gameBoard.isOccupied(new int[] {8, 3}), -1);
+        assertEquals(gameBoard.isOccupied(new int[] {3, 10}), -1);
+        assertEquals(gameBoard.isOccupied(new int[] {3}), -1);
+        assertEquals(gameBoard.isOccupiedByOpponent(new int[] {0, 7}, true), 1);
+        assertEquals(gameBoard.isOccupiedByOpponent(new int[] {0, 7}, false), 0);
+        assertEquals(gameBoard.isOccupiedByOpponent(new int[] {-2, -2}, true), -1);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {4, 0}) instanceof King, true);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {4, 0}).isPlayer1(), true);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {4, 4}), null);
+        assertEquals(gameBoard.getPieceAtPosition(new int[] {9, 9}), null);
+
+    }
+
+    /**
+     * Tests that the starting positions, FEN strings, snapshots, hashes and printed boards match ChessBoard8x8's.
+     */
+    public void testMatchesInitialPositions() {
+
+        ChessBoard8x8 reference = new ChessBoard8x8();
+        reference.initBoard();
+        assertEquals(gameBoard.toFen(), reference.toFen());
+        assertEquals(gameBoard.toString(), reference.toString());
+        assertEquals(gameBoard.getPositionHash(), reference.getPositionHash());
+
+        reference.initCustomBoard();
+        gameBoard.initCustomBoard();
+        assertEquals(gameBoard.toFen(), reference.toFen());
+        assertEquals(Arrays.equals(gameBoard.snapshot(), reference.snapshot()), true);
+        assertEquals(gameBoard.getPositionHash(), reference.getPositionHash());
+
+        gameBoard.initBoard();
+        gameBoard.restore(reference.snapshot());
+        assertEquals(gameBoard.toFen(), reference.toFen());
+        gameBoard.initFromFen("r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R");
+        assertEquals(gameBoard.toFen(), "r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R");
+
+    }
+
+    /**
+     * Tests that pieces on the edges of the board are stopped by the border, including the nightrider's and
+     * alfil's two-square leaps.
+     */
+    public void testBorder() {
+
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        gameBoard.initFromFen("7k/8/8/8/8/8/8/H3K2A");
+        //nightrider on a1: b3, c5, d7 and c2, e3, g4; alfil on h1: f3; king on e1: five squares
+        assertEquals(gameBoard.writePossibleMoves(true, moves), 6 + 1 + 5);
+        gameBoard.initFromFen("7k/8/8/8/8/8/8/R3K3");
+        assertEquals(gameBoard.writePossibleMoves(true, moves), 3 + 7 + 5);
+        assertEquals(gameBoard.isInCheck(false), false);
+        gameBoard.initFromFen("R6k/8/8/8/8/8/8/4K3");
+        assertEquals(gameBoard.isInCheck(false), true);
+
+    }
+
+    /**
+     * Tests that moves are only made when they are legal, and that captures are undone.
+     */
+    public void testMoveAndUndo() {
+
+        assertEquals(gameBoard.move(12, 28, true), true); //pawn two steps ahead
+        assertEquals(gameBoard.move(28, 44, true), false); //three steps
+        assertEquals(gameBoard.move(51, 28, false), false); //not a pawn move
+        assertEquals(gameBoard.move(new int[] {3, 6}, new int[] {3, 4}, false), true);
+        long hash = gameBoard.getPositionHash();
+        String fen = gameBoard.toFen();
+        byte captured = gameBoard.makeMove(28, 35); //pawn takes pawn
+        assertEquals(captured, (byte) (ChessPiece.PAWN + 1 + ChessBoard8x8.PLAYER2_FLAG));
+        gameBoard.undoMove(28, 35, captured);
+        assertEquals(gameBoard.toFen(), fen);
+        assertEquals(gameBoard.getPositionHash(), hash);
+
+        //pinned piece can't move
+        gameBoard.initFromFen("4r2k/8/8/8/8/8/4B3/4K3");
+        assertEquals(gameBoard.move(12, 19, true), false);
+        assertEquals(gameBoard.move(4, 3, true), true);
+
+    }
+
+    /**
+     * Tests that a piece on a MailboxChessBoard8x8 (which has no board array) writes the same moves, captures
+     * included, as the same piece on a ChessBoard8x8.
+     */
+    public void testPieceWritePossibleMoves() {
+
+        String fen = "r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R";
+        gameBoard.initFromFen(fen);
+        ChessBoard8x8 reference = new ChessBoard8x8();
+        reference.initFromFen(fen);
+        int[] expected = new int[ChessBoard8x8.MAX_MOVES];
+        int[] actual = new int[ChessBoard8x8.MAX_MOVES];
+        for (int square = 0; square < 64; square++) {
+            int[] position = {square % 8, square / 8};
+            ChessPiece piece = gameBoard.getPieceAtPosition(position);
+            if (piece == null) {
+                continue;
+            }
+            int count = reference.board[square].writePossibleMoves(reference, expected, 0);
+            assertEquals(piece.writePossibleMoves(gameBoard, actual, 0), count);
+            Arrays.sort(expected, 0, count);
+            Arrays.sort(actual, 0, count);
+            assertEquals(Arrays.equals(Arrays.copyOf(actual, count), Arrays.copyOf(expected, count)), true);
+        }
+
+    }
+
+    /**
+     * Plays random games on a MailboxChessBoard8x8 and a ChessBoard8x8 side by side (see
+     * ChessBoard8x8Test.assertPlaysLikeChessBoard8x8()).
+     */
+    public void testMatchesChessBoard8x8() {
+        ChessBoard8x8Test.assertPlaysLikeChessBoard8x8(gameBoard);
+    }
+
+}
@@ -1,9 +1,91 @@
 /**
- * Move -- Class to store a move played during a chess Game
+ * Move -- Class to store a move played during a chess Game.
+ * Also provides a packed representation of a move as a single int, for move lists that are written into
+ * reusable int[] buffers instead of allocating a Move or int[] object per move:
+ *  bits 0-5   : index the move was played from (0-63)
+ *  bits 6-11  : index the piece was moved to (0-63)
+ *  bits 12-15 : type of the piece captured, plus one (0 if the move isn't a capture)
+ *  bits 16-   : flags (FLAG_CAPTURE)
  * @author sahil1105
  */
 public class Move {
 
+    /**
+     * Flag set on packed moves that capture a piece
+     */
+    public static final int FLAG_CAPTURE = 1 << 16;
+
+    /**
+     * Value returned by getCapturedType for moves that don't capture anything
+     */
+    public static final int NO_PIECE = -1;
+
+    /**
+     * Packs a move into a single int.
+     * @param startIdx index on board from where the move is played (0-63)
+     * @param destIdx index to where the piece is moved (0-63)
+     * @param capturedType type of the piece captured (one of the ChessPiece type constants), or NO_PIECE
+     * @param flags any of the FLAG_ constants, or'ed together
+     * @return the packed move
+     */
+    public static int encode(int startIdx, int destIdx, int capturedType, int flags) {
+        return startIdx | (destIdx << 6) | ((capturedType + 1) << 12) | flags;
+    }
+
+    /**
+     * Packs a move into a single int, setting FLAG_CAPTURE if there is a piece at the destination.
+     * @param startIdx index on board from where the move is played (0-63)
+     * @param destIdx index to where the piece is moved (0-63)
+     * @param originallyAtDest the piece at the destination (null if there isn't one)
+     * @return the packed move
+     */
+    public static int encode(int startIdx, int destIdx, ChessPiece originallyAtDest) {
+        if (originallyAtDest == null) {
+            return encode(startIdx, destIdx, NO_PIECE, 0);
+        }
+        return encode(startIdx, destIdx, originallyAtDest.getPieceType(), FLAG_CAPTURE);
+    }
+
+    /**
+     * @param move a packed move
+     * @return index on board from where the move is played
+     */
+    public static int getStartIdx(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @param move a packed move
+     * @return index to where the piece is moved
+     */
+    public static int getDestIdx(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @param move a packed move
+     * @return type of the piece captured (one of the ChessPiece type constants), or NO_PIECE
+     */
+    public static int getCapturedType(int move) {
+        return ((move >>> 12) & 15) - 1;
+    }
+
+    /**
+     * @param move a packed move
+     * @return whether the move captures a piece
+     */
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * Packs this move into a single int.
+     * @return the packed move
+     */
+    public int pack() {
+        return encode(this.startIdx, this.destIdx, this.originallyAtDest);
+    }
+
 
     /**
      * Constructor for Move class.
@@ -0,0 +1,197 @@
+/**
+ * MoveOrderer -- Sorts lists of packed moves (see the Move class) so that the moves most likely to be best are
+ * searched first, which lets alpha-beta prune a lot more of the tree. The order is:
+ *  1. a move known to be good from an earlier search (the principal variation or transposition table move),
+ *  2. captures, most valuable victim first and, for the same victim, least valuable attacker first (MVV-LVA),
+ *  3. the killer moves of the ply: quiet moves that caused a cutoff in a sibling position,
+ *  4. the other quiet moves, by how often they have caused cutoffs anywhere in the tree (history heuristic).
+ * The killer and history tables are learnt during a search, so each search thread has a MoveOrderer of its own.
+ * Moves are sorted in place in the int[] buffers they were written into, so nothing is allocated or boxed.
+ * @author sahil1105
+ */
+public class MoveOrderer {
+
+    /**
+     * Number of killer moves kept per ply
+     */
+    public static final int NUM_KILLERS = 2;
+
+    /**
+     * Sort scores of each kind of move. Captures score CAPTURE_SCORE plus their MVV-LVA score, quiet moves their
+     * history score, which is kept below KILLER_SCORE.
+     */
+    private static final int FIRST_MOVE_SCORE = Integer.MAX_VALUE, CAPTURE_SCORE = 1000000,
+                             KILLER_SCORE = 900000, MAX_HISTORY = 800000;
+
+    /**
+     * Value of each piece type when it is the attacker (indexed by the ChessPiece type constants). Like the
+     * Evaluator's values, except that the king is the most valuable, so it is the last to capture.
+     */
+    private static final int[] ATTACKER_VALUES = {1000, 900, 500, 320, 330, 100, 450, 150};
+
+    /**
+     * Constructor for the MoveOrderer class.
+     * @param maxPly Largest ply the moves will be ordered at (see Search.MAX_PLY)
+     */
+    public MoveOrderer(int maxPly) {
+        this.killers = new int[maxPly + 1][NUM_KILLERS];
+        this.history = new int[2][64 * 64];
+        this.scores = new int[ChessBoard8x8.MAX_MOVES];
+    }
+
+    /**
+     * Prepares for a new search: forgets the killer moves, which were for other positions, and halves the history
+     * scores, so they still help order the moves but new cutoffs soon count for more.
+     */
+    public void newSearch() {
+        for (int[] plyKillers : this.killers) {
+            for (int i = 0; i < NUM_KILLERS; i++) {
+                plyKillers[i] = Search.NO_MOVE;
+            }
+        }
+        ageHistory();
+    }
+
+    /**
+     * Sorts a list of moves, best first.
+     * @param gameBoard The board the moves are to be made on (to look up the attackers). Is not modified.
+     * @param moves The packed moves. Is sorted in place.
+     * @param count Number of moves in the list
+     * @param ply Number of plies from the root of the search (to look up the killer moves)
+     * @param player1 boolean specifying whose moves they are (to look up the history scores)
+     * @param firstMove A move to sort before all the others (eg. from the transposition table), or Search.NO_MOVE
+     */
+    public void orderMoves(ChessBoard8x8 gameBoard, int[] moves, int count, int ply, boolean player1,
+                           int firstMove) {
+
+        int[] plyKillers = this.killers[ply];
+        int[] sideHistory = this.history[player1? 0 : 1];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == firstMove) {
+                this.scores[i] = FIRST_MOVE_SCORE;
+            }
+            else if (Move.isCapture(move)) {
+                this.scores[i] = CAPTURE_SCORE + mvvLva(move, gameBoard.board[Move.getStartIdx(move)].getPieceType());
+            }
+            else if (move == plyKillers[0]) {
+                this.scores[i] = KILLER_SCORE;
+            }
+            else if (move == plyKillers[1]) {
+                this.scores[i] = KILLER_SCORE - 1;
+            }
+            else {
+                this.scores[i] = sideHistory[historyIdx(move)];
+            }
+        }
+
+        //insertion sort, best first: the lists are short, and it keeps equally scored moves in the order given
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = this.scores[i];
+            int j = i - 1;
+            while (j >= 0 && this.scores[j] < score) {
+                moves[j + 1] = moves[j];
+                this.scores[j + 1] = this.scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            this.scores[j + 1] = score;
+        }
+
+    }
+
+    /**
+     * Records a move that caused a beta cutoff. Quiet moves become the ply's first killer move and have their
+     * history score raised; captures are already ordered well, so nothing is recorded for them.
+     * @param move The packed move
+     * @param ply Number of plies from the root of the search
+     * @param depth Depth that was left to search below the move's position. Cutoffs with more left to search count
+     *              for more.
+     * @param player1 boolean specifying whose move it was
+     */
+    public void recordCutoff(int move, int ply, int depth, boolean player1) {
+
+        if (Move.isCapture(move)) {
+            return;
+        }
+        int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] sideHistory = this.history[player1? 0 : 1];
+        int idx = historyIdx(move);
+        sideHistory[idx] += depth * depth;
+        if (sideHistory[idx] >= MAX_HISTORY) {
+            ageHistory();
+        }
+
+    }
+
+    /**
+     * Getter for a killer move.
+     * @param ply Number of plies from the root of the search
+     * @param slot 0 for the most recent killer move, up to NUM_KILLERS - 1
+     * @return The packed move, or Search.NO_MOVE
+     */
+    public int getKiller(int ply, int slot) {
+        return this.killers[ply][slot];
+    }
+
+    /**
+     * Getter for the history score of a move.
+     * @param move The packed move
+     * @param player1 boolean specifying whose move it is
+     * @return The score
+     */
+    public int getHistory(int move, boolean player1) {
+        return this.history[player1? 0 : 1][historyIdx(move)];
+    }
+
+    /**
+     * Scores a capture by MVV-LVA (most valuable victim, least valuable attacker).
+     * @param move The packed move. Must be a capture.
+     * @param attackerType Type of the piece making the capture (one of the ChessPiece type constants)
+     * @return The score: higher for more valuable victims, and for the same victim, for less valuable attackers
+     */
+    public static int mvvLva(int move, int attackerType) {
+        return (10 * Evaluator.PIECE_VALUES[Move.getCapturedType(move)]) - (ATTACKER_VALUES[attackerType] / 10);
+    }
+
+    /**
+     * Utility function to halve all the history scores.
+     */
+    private void ageHistory() {
+        for (int[] sideHistory : this.history) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Utility function to get the index of a move in the history tables.
+     * @param move The packed move
+     * @return The index, from the move's start and destination squares
+     */
+    private static int historyIdx(int move) {
+        return move & 4095; //start and destination squares
+    }
+
+    /**
+     * Killer moves of each ply, most recent first
+     */
+    private int[][] killers;
+
+    /**
+     * History scores of each player's moves, indexed by [0 for player 1, 1 for player 2][start + 64 * destination]
+     */
+    private int[][] history;
+
+    /**
+     * Sort scores of the moves being ordered (only used while ordering a list)
+     */
+    private int[] scores;
+
+}
@@ -0,0 +1,93 @@
+import junit.framework.TestCase;
+
+/**
+ * MoveOrdererTest -- Tests for the MoveOrderer class.
+ * @author sahil1105
+ */
+public class MoveOrdererTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+    MoveOrderer moveOrderer; //Orderer to perform the tests with
+
+    /**
+     * Initial setup for each of the tests. Sets up a position where player 1 has captures of different value.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+        //the pawn on b4 can take the queen on c5, and the rook on a1 the pawn on a7
+        gameBoard.initFromFen("4k3/p7/8/2q5/1P6/8/8/R2QK3");
+        moveOrderer = new MoveOrderer(Search.MAX_PLY);
+    }
+
+    /**
+     * Utility function to find a move in a list.
+     * @param moves The packed moves
+     * @param count Number of moves in the list
+     * @param startIdx Index the move starts from
+     * @param destIdx Index the move goes to
+     * @return Position of the move in the list, or -1 if it isn't there
+     */
+    private static int indexOf(int[] moves, int count, int startIdx, int destIdx) {
+        for (int i = 0; i < count; i++) {
+            if (Move.getStartIdx(moves[i]) == startIdx && Move.getDestIdx(moves[i]) == destIdx) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tests that the first move comes first, then the captures by MVV-LVA, then the quiet moves.
+     */
+    public void testCapturesFirst() {
+
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        int count = gameBoard.writeLegalMoves(true, moves);
+        int quiet = moves[indexOf(moves, count, 4, 12)]; //king steps up
+        moveOrderer.orderMoves(gameBoard, moves, count, 0, true, quiet);
+
+        assertEquals(moves[0], quiet);
+        assertEquals(indexOf(moves, count, 25, 34), 1); //pawn takes queen
+        assertEquals(indexOf(moves, count, 0, 48), 2); //rook takes pawn
+        for (int i = 3; i < count; i++) {
+            assertFalse(Move.isCapture(moves[i]));
+        }
+        assertTrue(MoveOrderer.mvvLva(Move.encode(25, 34, ChessPiece.QUEEN, Move.FLAG_CAPTURE), ChessPiece.PAWN)
+                   > MoveOrderer.mvvLva(Move.encode(3, 34, ChessPiece.QUEEN, Move.FLAG_CAPTURE), ChessPiece.QUEEN));
+
+    }
+
+    /**
+     * Tests that killer moves come right after the captures, and history scores order the other quiet moves.
+     */
+    public void testKillersAndHistory() {
+
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        int count = gameBoard.writeLegalMoves(true, moves);
+        int killer = moves[indexOf(moves, count, 3, 2)]; //queen to c1
+        int historyMove = moves[indexOf(moves, count, 3, 11)]; //queen to d2
+        int capture = moves[indexOf(moves, count, 25, 34)];
+
+        moveOrderer.recordCutoff(historyMove, 5, 6, true); //at another ply, so only counts for the history
+        moveOrderer.recordCutoff(killer, 3, 1, true);
+        moveOrderer.recordCutoff(capture, 3, 8, true); //captures aren't recorded
+        assertEquals(moveOrderer.getKiller(3, 0), killer);
+        assertEquals(moveOrderer.getKiller(3, 1), Search.NO_MOVE);
+        assertEquals(moveOrderer.getHistory(historyMove, true), 36);
+        assertEquals(moveOrderer.getHistory(historyMove, false), 0);
+        assertEquals(moveOrderer.getHistory(capture, true), 0);
+
+        moveOrderer.orderMoves(gameBoard, moves, count, 3, true, Search.NO_MOVE);
+        assertEquals(indexOf(moves, count, 3, 2), 2); //after the two captures
+        assertEquals(indexOf(moves, count, 3, 11), 3);
+
+        //a new search forgets the killers and halves the history
+        moveOrderer.newSearch();
+        assertEquals(moveOrderer.getKiller(3, 0), Search.NO_MOVE);
+        assertEquals(moveOrderer.getHistory(historyMove, true), 18);
+
+    }
+
+}
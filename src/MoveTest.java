@@ -0,0 +1,83 @@
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * MoveTest -- Tests for the Move class, in particular the packed int representation of moves and the functions
+ * that write packed moves into buffers.
+ * @author sahil1105
+ */
+public class MoveTest extends TestCase {
+
+    /**
+     * Tests that packing a move and reading it back gives the same move.
+     */
+    public void testEncode() {
+
+        int move = Move.encode(12, 28, null);
+        assertEquals(Move.getStartIdx(move), 12);
+        assertEquals(Move.getDestIdx(move), 28);
+        assertEquals(Move.getCapturedType(move), Move.NO_PIECE);
+        assertEquals(Move.isCapture(move), false);
+
+        move = Move.encode(63, 0, new Alfil(new int[] {0, 0}, true));
+        assertEquals(Move.getStartIdx(move), 63);
+        assertEquals(Move.getDestIdx(move), 0);
+        assertEquals(Move.getCapturedType(move), ChessPiece.ALFIL);
+        assertEquals(Move.isCapture(move), true);
+
+        Move recorded = new Move(1, 18, new Knight(new int[] {2, 2}, false));
+        assertEquals(recorded.pack(), Move.encode(1, 18, ChessPiece.KNIGHT, Move.FLAG_CAPTURE));
+
+    }
+
+    /**
+     * Tests that the packed moves written by each piece are the moves its getPossibleMoves lists, and that
+     * canMoveToPos agrees with them, on the custom board after a few moves.
+     */
+    public void testWritePossibleMoves() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+        gameBoard.move(12, 28, true);
+        gameBoard.move(51, 35, false);
+        gameBoard.move(6, 23, true); //nightrider out
+        gameBoard.move(35, 27, false);
+
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        for (int idx = 0; idx < 64; idx++) {
+            ChessPiece piece = gameBoard.board[idx];
+            if (piece == null) {
+                continue;
+            }
+            List<int[]> possibleMoves = piece.getPossibleMoves(gameBoard);
+            int count = piece.writePossibleMoves(gameBoard, moves, 0);
+            assertEquals(count, possibleMoves.size());
+            long fromList = 0L, fromBuffer = 0L;
+            for (int[] move : possibleMoves) {
+                fromList |= Bitboards.bit(gameBoard.twoDPositionToBoardIdx(move));
+            }
+            for (int i = 0; i < count; i++) {
+                assertEquals(Move.getStartIdx(moves[i]), idx);
+                fromBuffer |= Bitboards.bit(Move.getDestIdx(moves[i]));
+            }
+            assertEquals(fromBuffer, fromList);
+
+            for (int square = 0; square < 64; square++) {
+                assertEquals(piece.canMoveToPos(gameBoard, gameBoard.boardIdxToPosition(square)),
+                             (fromList & Bitboards.bit(square)) != 0);
+            }
+        }
+
+        //all of a player's moves at once
+        int total = 0;
+        for (ChessPiece piece : gameBoard.board) {
+            if (piece != null && piece.isPlayer1()) {
+                total += piece.getPossibleMoves(gameBoard).size();
+            }
+        }
+        assertEquals(gameBoard.writePossibleMoves(true, moves), total);
+
+    }
+
+}
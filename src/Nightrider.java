@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +27,16 @@ public class Nightrider extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the nightrider's attacks in the magic bitboard tables instead of walking each ray
+            ChessBoard8x8 board = (ChessBoard8x8) gameBoard;
+            long occupied = board.occupancyWithin(Bitboards.nightriderMask(getSquare()));
+            possibleMovesFromRays(board, possibleMoves, Bitboards.nightriderAttacks(getSquare(), occupied),
+                                  Bitboards.NIGHTRIDER_RAYS, Bitboards.KNIGHT_DIRECTIONS);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the knight can move in, which are 2 steps in one direction and
@@ -64,6 +72,15 @@ public class Nightrider extends ChessPiece {
         return possibleMoves;
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.NIGHTRIDER
+     */
+    @Override
+    public int getPieceType() {
+        return NIGHTRIDER;
+    }
+
     /**
      * Overriding toString function for the Nightrider class.
      * @return String representation of the Nightrider class. Capital if belongs to player 1, uncapitalized otherwise.
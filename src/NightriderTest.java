@@ -32,8 +32,8 @@ public class NightriderTest extends TestCase {
      */
     public void testGetPossibleMoves() {
 
-        gameBoard.board[1] = new Nightrider(new int[] {1,0}, true);// replace a knight with a nightrider
-        gameBoard.board[62] = new Nightrider(new int[] {6,7}, false);
+        gameBoard.setPiece(1, new Nightrider(new int[] {1,0}, true));// replace a knight with a nightrider
+        gameBoard.setPiece(62, new Nightrider(new int[] {6,7}, false));
         String temp = gameBoard.toString();
         List<int[]> possibleMoves = gameBoard.board[1].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 4); //ensure there are 4 possible moves
@@ -49,7 +49,7 @@ public class NightriderTest extends TestCase {
         assertEquals(possibleMoves.size(), 11); //ensure there are 11 possible moves after the move
         //empty board
         gameBoard = new ChessBoard8x8();
-        gameBoard.board[27] = new Nightrider(new int[] {3,3}, player1);
+        gameBoard.setPiece(27, new Nightrider(new int[] {3,3}, player1));
         possibleMoves = gameBoard.board[27].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 12); //ensure there are 12 possible moves
 
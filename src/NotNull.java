@@ -0,0 +1,17 @@
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * NotNull -- Marks a parameter, field or return value that is never null. Only documents the contract: nothing
+ * checks it at runtime.
+ * Used instead of com.sun.istack.internal.NotNull, which was internal to the JDK and isn't in newer ones.
+ * @author sahil1105
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.FIELD, ElementType.METHOD, ElementType.LOCAL_VARIABLE})
+public @interface NotNull {
+}
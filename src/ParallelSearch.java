@@ -0,0 +1,256 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ParallelSearch -- Searches a ChessBoard8x8 position on several threads at once ("Lazy SMP").
+ * Every thread runs its own Search of the same position, on a private copy of the board (moves are made on the
+ * board's pieces, so boards can't be shared between threads), and they all share one TranspositionTable. The
+ * threads don't otherwise communicate: each finds the results the others stored in the table, and so gets through
+ * its own search faster. Half of the helper threads skip the first iteration, so that they are usually a ply
+ * ahead of the others and fill the table with results of the next depth.
+ * The calling thread runs the main search, on the board given to the constructor, and its results are the ones
+ * reported. The helpers are stopped as soon as it is done.
+ *
+ * Usage: java ParallelSearch [--custom] [--threads n] [--depth n] [--nodes n] [--time ms] [--hash mb] [fen ...]
+ *   --threads  number of threads to search with (the number of processors by default)
+ *   the other options are as for the Search class. Each position is searched first with one thread and then with
+ *   all of them, and the speedup is printed.
+ * @author sahil1105
+ */
+public class ParallelSearch {
+
+    /**
+     * Constructor for the ParallelSearch class.
+     * @param gameBoard The board to search on. Moves are made and undone on it, and it is left as it was.
+     * @param numThreads Number of threads to search with, including the calling thread
+     * @param table The transposition table shared by the threads
+     * @throws IllegalArgumentException if the number of threads isn't positive
+     */
+    public ParallelSearch(ChessBoard8x8 gameBoard, int numThreads, TranspositionTable table) {
+
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("Need at least one thread: " + numThreads);
+        }
+        this.gameBoard = gameBoard;
+        this.table = table;
+        this.stopSignal = new AtomicBoolean();
+        this.helperBoards = new ChessBoard8x8[numThreads - 1];
+        this.searches = new Search[numThreads];
+        this.searches[0] = new Search(gameBoard, table);
+        for (int i = 1; i < numThreads; i++) {
+            this.helperBoards[i - 1] = gameBoard.copy();
+            this.searches[i] = new Search(this.helperBoards[i - 1], table);
+            this.searches[i].setStopSignal(this.stopSignal);
+            this.searches[i].setFirstDepth(i % 2 == 0? 1 : 2);
+        }
+
+    }
+
+    /**
+     * Searches the board's current position with all the threads, until the main search reaches one of the limits
+     * (see Search.search).
+     * @param player1 boolean specifying whose turn it is
+     * @param maxDepth Maximum depth (plies) to search to
+     * @param maxNodes Maximum number of nodes for the main search to search, or 0 for no limit
+     * @param maxMillis Maximum time to search for in milliseconds, or 0 for no limit
+     * @return The best move found, packed (see the Move class), or Search.NO_MOVE if the player has no legal moves
+     */
+    public int search(final boolean player1, final int maxDepth, long maxNodes, final long maxMillis) {
+
+        //bring the helpers' boards up to date with the position (only the pieces that moved are replaced)
+        for (ChessBoard8x8 helperBoard : this.helperBoards) {
+            helperBoard.copyFrom(this.gameBoard);
+        }
+
+        //one new generation for the whole search, before any thread uses the table (the searches don't start one)
+        this.table.newSearch();
+        this.stopSignal.set(false);
+        Thread[] helpers = new Thread[this.searches.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            final Search helper = this.searches[i + 1];
+            helpers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    helper.search(player1, maxDepth, 0, maxMillis, false);
+                }
+            }, "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        int bestMove = this.searches[0].search(player1, maxDepth, maxNodes, maxMillis, false);
+
+        this.stopSignal.set(true);
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return bestMove;
+
+    }
+
+    /**
+     * Getter for the number of threads searching.
+     * @return Number of threads, including the calling thread
+     */
+    public int getNumThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Getter for the main search, which holds the results of the last search (best move, score, principal
+     * variation, depth).
+     * @return The Search run by the calling thread
+     */
+    public Search getMainSearch() {
+        return searches[0];
+    }
+
+    /**
+     * Getter for the number of nodes visited by all the threads in the last search.
+     * @return Total number of nodes
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * @return Number of nodes all the threads visited per second in the last search
+     */
+    public double getNodesPerSecond() {
+        return getNodes() / Math.max(searches[0].getElapsedNanos() / 1e9, 1e-9);
+    }
+
+    /**
+     * Searches the positions given on the command line (see the class comment) with one thread and then with all
+     * the threads, and prints the results and the speedup.
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+
+        boolean custom = false;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int maxDepth = Search.MAX_PLY;
+        long maxNodes = 0, maxMillis = 0;
+        int tableMegabytes = Search.DEFAULT_TABLE_MB;
+        List<String> fens = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--custom")) {
+                    custom = true;
+                }
+                else if (args[i].equals("--threads")) {
+                    numThreads = Integer.parseInt(args[++i]);
+                }
+                else if (args[i].equals("--depth")) {
+                    maxDepth = Integer.parseInt(args[++i]);
+                }
+                else if (args[i].equals("--nodes")) {
+                    maxNodes = Long.parseLong(args[++i]);
+                }
+                else if (args[i].equals("--time")) {
+                    maxMillis = Long.parseLong(args[++i]);
+                }
+                else if (args[i].equals("--hash")) {
+                    tableMegabytes = Integer.parseInt(args[++i]);
+                }
+                else {
+                    fens.add(args[i]);
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: java ParallelSearch [--custom] [--threads n] [--depth n] [--nodes n] "
+                               + "[--time ms] [--hash mb] [fen ...]");
+            System.exit(1);
+        }
+        if (maxDepth == Search.MAX_PLY && maxNodes == 0 && maxMillis == 0) {
+            maxMillis = 1000;
+        }
+        if (fens.isEmpty()) {
+            fens.add(null); //the starting layout
+        }
+
+        //warm up the JIT first, so the single threaded runs aren't timed while still being compiled
+        ChessBoard8x8 warmUpBoard = new ChessBoard8x8();
+        warmUpBoard.initCustomBoard();
+        new ParallelSearch(warmUpBoard, 2, new TranspositionTable(tableMegabytes)).search(true, 6, 0, 2000);
+
+        for (String fen : fens) {
+            ChessBoard8x8 gameBoard = new ChessBoard8x8();
+            boolean player1 = true;
+            if (fen == null) {
+                if (custom) {
+                    gameBoard.initCustomBoard();
+                }
+                else {
+                    gameBoard.initBoard();
+                }
+            }
+            else {
+                gameBoard.initFromFen(fen);
+                String[] fields = fen.trim().split("\\s+");
+                player1 = fields.length < 2 || !fields[1].equals("b");
+            }
+            System.out.println("Position: " + gameBoard.toFen() + (player1? " w" : " b"));
+
+            //same limits, each with a fresh table
+            double[] seconds = new double[2];
+            double[] nodesPerSecond = new double[2];
+            int[] threads = {1, numThreads};
+            for (int run = 0; run < 2; run++) {
+                ParallelSearch search = new ParallelSearch(gameBoard, threads[run],
+                                                           new TranspositionTable(tableMegabytes));
+                int bestMove = search.search(player1, maxDepth, maxNodes, maxMillis);
+                Search main = search.getMainSearch();
+                seconds[run] = main.getElapsedNanos() / 1e9;
+                nodesPerSecond[run] = search.getNodesPerSecond();
+                System.out.printf("%d thread(s): best move %s, score %d, depth %d, %d nodes in %.3f s "
+                                  + "(%.0f nodes/s)%n", threads[run],
+                                  bestMove == Search.NO_MOVE? "none" : Perft.moveToString(bestMove), main.getScore(),
+                                  main.getDepth(), search.getNodes(), seconds[run], nodesPerSecond[run]);
+                System.out.println("  Principal variation: " + Search.lineToString(main.getPrincipalVariation()));
+            }
+            //time to depth is only comparable if both runs stopped at the same depth
+            System.out.printf("Speedup: %.2fx time to depth, %.2fx nodes/s%n", seconds[0] / seconds[1],
+                              nodesPerSecond[1] / nodesPerSecond[0]);
+        }
+
+    }
+
+    /**
+     * The board the main search runs on
+     */
+    private ChessBoard8x8 gameBoard;
+
+    /**
+     * Private copies of the board for the helper threads
+     */
+    private ChessBoard8x8[] helperBoards;
+
+    /**
+     * The transposition table shared by the threads
+     */
+    private TranspositionTable table;
+
+    /**
+     * The searches, one per thread. The first is the main search, run by the calling thread.
+     */
+    private Search[] searches;
+
+    /**
+     * Signal for the helpers to stop, set when the main search is done
+     */
+    private AtomicBoolean stopSignal;
+
+}
@@ -0,0 +1,84 @@
+import junit.framework.TestCase;
+
+/**
+ * ParallelSearchTest -- Tests for the ParallelSearch class.
+ * @author sahil1105
+ */
+public class ParallelSearchTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes the game board with the custom pieces.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+    }
+
+    /**
+     * Tests that a search with several threads finds a legal move, counts the nodes of all the threads, and leaves
+     * the board as it was.
+     */
+    public void testSearch() {
+
+        String fen = gameBoard.toFen();
+        ParallelSearch search = new ParallelSearch(gameBoard, 4, new TranspositionTable(16));
+        assertEquals(search.getNumThreads(), 4);
+        int bestMove = search.search(true, 4, 0, 0);
+        assertEquals(search.getMainSearch().getDepth(), 4);
+        assertEquals(search.getMainSearch().getBestMove(), bestMove);
+        assertTrue(search.getNodes() >= search.getMainSearch().getNodes());
+        assertEquals(gameBoard.toFen(), fen);
+        assertTrue(gameBoard.move(Move.getStartIdx(bestMove), Move.getDestIdx(bestMove), true));
+
+        //and again from the new position, which the helpers have to pick up
+        bestMove = search.search(false, 3, 0, 0);
+        assertTrue(gameBoard.move(Move.getStartIdx(bestMove), Move.getDestIdx(bestMove), false));
+
+    }
+
+    /**
+     * Tests that a single thread finds the same result as a plain Search, and that the helpers are stopped when
+     * the time runs out.
+     */
+    public void testLimits() {
+
+        ParallelSearch single = new ParallelSearch(gameBoard, 1, new TranspositionTable(16));
+        Search plain = new Search(gameBoard, new TranspositionTable(16));
+        assertEquals(single.search(true, 4, 0, 0), plain.search(true, 4, 0, 0));
+        assertEquals(single.getNodes(), plain.getNodes());
+
+        ParallelSearch search = new ParallelSearch(gameBoard, 3, new TranspositionTable(16));
+        long start = System.nanoTime();
+        assertTrue(search.search(true, Search.MAX_PLY, 0, 200) != Search.NO_MOVE);
+        assertTrue(System.nanoTime() - start < 5000000000L);
+
+    }
+
+    /**
+     * Tests that a search starts exactly one new generation of the shared table, however many threads it runs.
+     */
+    public void testOneGenerationPerSearch() {
+
+        final int[] newSearches = new int[1];
+        TranspositionTable table = new TranspositionTable(16) {
+            @Override
+            public synchronized void newSearch() {
+                newSearches[0]++;
+                super.newSearch();
+            }
+        };
+        ParallelSearch search = new ParallelSearch(gameBoard, 4, table);
+        search.search(true, 3, 0, 0);
+        assertEquals(newSearches[0], 1);
+        search.search(true, 3, 0, 0);
+        assertEquals(newSearches[0], 2);
+        new Search(gameBoard, table).search(true, 2, 0, 0);
+        assertEquals(newSearches[0], 3);
+
+    }
+
+}
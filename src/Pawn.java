@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +27,27 @@ public class Pawn extends ChessPiece{
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            ChessPiece[] squares = gameBoard.board;
+            int colour = this.player1? 0 : 1;
+            //look up the squares ahead, stopping at the first occupied one, since a pawn can't capture or jump
+            //straight ahead
+            for (int target : Bitboards.PAWN_PUSH_TARGETS[colour][getSquare()]) {
+                if (squares[target] != null) {
+                    break;
+                }
+                possibleMoves.add(new int[] {target & 7, target >>> 3});
+            }
+            //look up the diagonal squares, which can only be moved to when capturing an opponent's piece
+            for (int target : Bitboards.PAWN_CAPTURE_TARGETS[colour][getSquare()]) {
+                if (squares[target] != null && squares[target].player1 != this.player1) {
+                    possibleMoves.add(new int[] {target & 7, target >>> 3});
+                }
+            }
+            return possibleMoves;
+        }
+
         int tempY = this.player1? 1 : (-1); //the direction the piece can move in given whether it is player 1 or not
         //starting Y position based on whether Pawn belongs to the first player
         int startingYPosition = this.player1? 1 : 6;
@@ -65,6 +84,15 @@ public class Pawn extends ChessPiece{
     }
 
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.PAWN
+     */
+    @Override
+    public int getPieceType() {
+        return PAWN;
+    }
+
     /**
      * Overriding toString function for the Pawn class.
      * @return String representation of the Pawn class. Capital if belongs to player 1, uncapitalized otherwise.
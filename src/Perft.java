@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perft -- Move generation test and benchmark. Counts the leaf nodes of the tree of all legal move sequences of a
+ * given depth from a position ("perft"). The counts can be compared against known values to check that move
+ * generation is correct, and the time taken to measure how fast it is.
+ *
+ * Usage: java Perft [--divide] [--custom] [--bitboards] depth [fen ...]
+ *   --divide     also print the node count below each of the first player's moves, which add up to the total
+ *   --custom     start from the initCustomBoard layout instead of the standard one
+ *   --bitboards  use a BitboardChessBoard8x8 instead of a ChessBoard8x8
+ *   fen          positions to run from, as FEN strings ('H' is a nightrider and 'A' an alfil). The starting layout
+ *                is used if none are given. Whose turn it is comes from the second field ('w' for player 1).
+ *
+ * Known counts from the standard starting position: 20, 400, 8902, 197281 and 4865351 for depths 1 to 5 (regular
+ * Chess has 4865609 at depth 5, the difference being its en passant captures, which this game doesn't have).
+ * @author sahil1105
+ */
+public class Perft {
+
+    /**
+     * Constructor for the Perft class.
+     * @param gameBoard The board to run on. Moves are made and undone on it, and it is left as it was.
+     */
+    public Perft(ChessBoard8x8 gameBoard) {
+        this.gameBoard = gameBoard;
+        this.moveBuffers = new ArrayList<>();
+    }
+
+    /**
+     * Counts the leaf nodes of the tree of legal moves of the given depth from the board's current position.
+     * @param depth Number of moves (plies) to look ahead
+     * @param player1 boolean specifying whose turn it is
+     * @return Number of move sequences of that length
+     */
+    public long perft(int depth, boolean player1) {
+
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = movesAtDepth(depth);
+        int count = this.gameBoard.writeLegalMoves(player1, moves);
+        if (depth == 1) {
+            return count; //no need to make the last moves, just count them
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            nodes += perftMove(moves[i], depth, player1);
+        }
+        return nodes;
+
+    }
+
+    /**
+     * Counts the leaf nodes below each of the legal moves from the board's current position.
+     * @param depth Number of moves (plies) to look ahead, including the first one
+     * @param player1 boolean specifying whose turn it is
+     * @return A line per move, such as "e2e4: 20", in the order the moves were generated
+     */
+    public List<String> divide(int depth, boolean player1) {
+
+        List<String> lines = new ArrayList<>();
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        int count = this.gameBoard.writeLegalMoves(player1, moves);
+        for (int i = 0; i < count; i++) {
+            lines.add(moveToString(moves[i]) + ": " + perftMove(moves[i], depth, player1));
+        }
+        return lines;
+
+    }
+
+    /**
+     * Helper function that makes a move, counts the leaf nodes below it and undoes it.
+     * @param move The packed move (see the Move class)
+     * @param depth Depth of the tree, including this move
+     * @param player1 boolean specifying whose move it is
+     * @return Number of leaf nodes below the move
+     */
+    private long perftMove(int move, int depth, boolean player1) {
+
+        int startIdx = Move.getStartIdx(move);
+        int destIdx = Move.getDestIdx(move);
+        ChessPiece originallyAtDest = this.gameBoard.board[destIdx]; //to undo captures
+        this.gameBoard.moveHelper(startIdx, destIdx);
+        long nodes = perft(depth - 1, !player1);
+        this.gameBoard.undoTheMove(startIdx, destIdx, originallyAtDest);
+        return nodes;
+
+    }
+
+    /**
+     * Utility function to get the move buffer for a depth, so nothing is allocated while counting.
+     * @param depth The depth
+     * @return A buffer of ChessBoard8x8.MAX_MOVES ints only used at that depth
+     */
+    private int[] movesAtDepth(int depth) {
+        while (this.moveBuffers.size() <= depth) {
+            this.moveBuffers.add(new int[ChessBoard8x8.MAX_MOVES]);
+        }
+        return this.moveBuffers.get(depth);
+    }
+
+    /**
+     * Utility function to describe a move in coordinate notation.
+     * @param move The packed move (see the Move class)
+     * @return the start and destination squares, such as "e2e4"
+     */
+    public static String moveToString(int move) {
+        return squareToString(Move.getStartIdx(move)) + squareToString(Move.getDestIdx(move));
+    }
+
+    /**
+     * Utility function to name a square of the board (index 0 is "a1", index 63 is "h8").
+     * @param idx Index in the ChessPiece array
+     * @return the name of the square
+     */
+    private static String squareToString(int idx) {
+        return "" + (char) ('a' + (idx % 8)) + (idx / 8 + 1);
+    }
+
+    /**
+     * Runs perft from the positions given on the command line (see the class comment) and prints the node counts
+     * and nodes per second.
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+
+        boolean divide = false, custom = false, bitboards = false;
+        int depth = -1;
+        List<String> fens = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--divide")) {
+                divide = true;
+            }
+            else if (arg.equals("--custom")) {
+                custom = true;
+            }
+            else if (arg.equals("--bitboards")) {
+                bitboards = true;
+            }
+            else if (depth == -1 && arg.matches("\\d+")) {
+                depth = Integer.parseInt(arg);
+            }
+            else {
+                fens.add(arg);
+            }
+        }
+        if (depth == -1) {
+            System.err.println("Usage: java Perft [--divide] [--custom] [--bitboards] depth [fen ...]");
+            System.exit(1);
+        }
+        if (fens.isEmpty()) {
+            fens.add(null); //the starting layout
+        }
+
+        for (String fen : fens) {
+            ChessBoard8x8 gameBoard = bitboards? new BitboardChessBoard8x8() : new ChessBoard8x8();
+            boolean player1 = true;
+            if (fen == null) {
+                if (custom) {
+                    gameBoard.initCustomBoard();
+                }
+                else {
+                    gameBoard.initBoard();
+                }
+            }
+            else {
+                gameBoard.initFromFen(fen);
+                String[] fields = fen.trim().split("\\s+");
+                player1 = fields.length < 2 || !fields[1].equals("b");
+            }
+            Perft perft = new Perft(gameBoard);
+
+            System.out.println("Position: " + gameBoard.toFen() + (player1? " w" : " b"));
+            long start = System.nanoTime();
+            long nodes = 0;
+            if (divide) {
+                for (String line : perft.divide(depth, player1)) {
+                    System.out.println(line);
+                    nodes += Long.parseLong(line.substring(line.indexOf(": ") + 2)); //the counts add up to the total
+                }
+            }
+            else {
+                nodes = perft.perft(depth, player1);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Depth %d: %d nodes in %.3f s (%.0f nodes/s)%n", depth, nodes, seconds,
+                              nodes / Math.max(seconds, 1e-9));
+        }
+
+    }
+
+    /**
+     * The board to run on
+     */
+    private ChessBoard8x8 gameBoard;
+
+    /**
+     * One reusable move buffer per depth
+     */
+    private List<int[]> moveBuffers;
+
+}
@@ -0,0 +1,150 @@
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * PerftTest -- Tests for the Perft class. Checks the node counts from the standard starting position against the
+ * known values, and the counts from the custom layout and a few other positions against counting with the pieces'
+ * own move lists and make/unmake.
+ * Also tests loading and writing FEN strings, which the Perft class uses.
+ * @author sahil1105
+ */
+public class PerftTest extends TestCase {
+
+    /**
+     * Reference perft: lists each piece's possible moves, and makes every one of them to check that it doesn't
+     * leave the king in check.
+     * @param gameBoard The board to count on
+     * @param depth Number of moves (plies) to look ahead
+     * @param player1 boolean specifying whose turn it is
+     * @return Number of move sequences of that length
+     */
+    private static long slowPerft(ChessBoard8x8 gameBoard, int depth, boolean player1) {
+
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (int idx = 0; idx < 64; idx++) {
+            if (gameBoard.board[idx] == null || gameBoard.board[idx].isPlayer1() != player1) {
+                continue;
+            }
+            List<int[]> possibleMoves = gameBoard.board[idx].getPossibleMoves(gameBoard);
+            for (int[] move : possibleMoves) {
+                int destIdx = gameBoard.twoDPositionToBoardIdx(move);
+                if (gameBoard.moveLeavesKingInCheck(idx, destIdx, player1)) {
+                    continue;
+                }
+                ChessPiece originallyAtDest = gameBoard.board[destIdx];
+                gameBoard.moveHelper(idx, destIdx);
+                nodes += slowPerft(gameBoard, depth - 1, !player1);
+                gameBoard.undoTheMove(idx, destIdx, originallyAtDest);
+            }
+        }
+        return nodes;
+
+    }
+
+    /**
+     * Tests the node counts from the standard starting position, on both board implementations.
+     */
+    public void testStartingPosition() {
+
+        long[] expected = {1, 20, 400, 8902, 197281};
+        ChessBoard8x8[] boards = {new ChessBoard8x8(), new BitboardChessBoard8x8()};
+        for (ChessBoard8x8 gameBoard : boards) {
+            gameBoard.initBoard();
+            Perft perft = new Perft(gameBoard);
+            for (int depth = 0; depth < expected.length; depth++) {
+                assertEquals(perft.perft(depth, true), expected[depth]);
+            }
+            //the board must be left as it was
+            assertEquals(gameBoard.toFen(), "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR");
+        }
+
+    }
+
+    /**
+     * Tests the node counts from the custom layout, and from positions with pins, checks and the custom pieces in
+     * the middle of the board, against the reference perft.
+     */
+    public void testAgainstReference() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+        Perft perft = new Perft(gameBoard);
+        assertEquals(perft.perft(3, true), slowPerft(gameBoard, 3, true));
+        assertEquals(perft.perft(4, true), 335171); //recorded, matches the reference
+
+        String[] fens = {
+                "4k3/8/8/1h2a3/8/3Q4/4N3/4K2r w", //nightrider and rook checks, pinned knight
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w",
+                "2a1k2h/8/3H4/8/8/4A3/8/R3K3 b",
+        };
+        for (String fen : fens) {
+            gameBoard.initFromFen(fen);
+            boolean player1 = fen.endsWith("w");
+            assertEquals(perft.perft(3, player1), slowPerft(gameBoard, 3, player1));
+        }
+
+    }
+
+    /**
+     * Tests that the per move counts add up to the total.
+     */
+    public void testDivide() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initBoard();
+        Perft perft = new Perft(gameBoard);
+        List<String> lines = perft.divide(3, true);
+        assertEquals(lines.size(), 20);
+        long total = 0;
+        for (String line : lines) {
+            total += Long.parseLong(line.substring(line.indexOf(": ") + 2));
+        }
+        assertEquals(total, 8902);
+        assertEquals(lines.contains("e2e4: 600"), true);
+
+    }
+
+    /**
+     * Tests that FEN strings are loaded and written back correctly, including the custom pieces.
+     */
+    public void testFen() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+        String fen = gameBoard.toFen();
+        assertEquals(fen, "rhbqkbna/pppppppp/8/8/8/8/PPPPPPPP/ANBQKBHR");
+
+        ChessBoard8x8 loaded = new ChessBoard8x8();
+        loaded.initFromFen(fen + " w - - 0 1");
+        for (int idx = 0; idx < 64; idx++) {
+            if (gameBoard.board[idx] == null) {
+                assertEquals(loaded.board[idx], null);
+                continue;
+            }
+            assertEquals(loaded.board[idx].getClass(), gameBoard.board[idx].getClass());
+            assertEquals(loaded.board[idx].isPlayer1(), gameBoard.board[idx].isPlayer1());
+            assertEquals(loaded.board[idx].getPos()[0], idx % 8);
+            assertEquals(loaded.board[idx].getPos()[1], idx / 8);
+        }
+        assertEquals(loaded.getPositionHash(), gameBoard.getPositionHash());
+
+        //malformed placements are rejected
+        String[] invalid = {"8/8/8/8/8/8/8", "9/8/8/8/8/8/8/8", "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR"};
+        for (String bad : invalid) {
+            try {
+                loaded.initFromFen(bad);
+                fail("Expected an IllegalArgumentException for " + bad);
+            }
+            catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+
+    }
+
+}
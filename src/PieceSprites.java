@@ -0,0 +1,97 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * PieceSprites -- Process-wide cache of the 64x64 icons of the chess pieces.
+ * The icons are cut out of the sprite atlas (chessPieces.png) the first time one is asked for, and shared by all
+ * the pieces from then on, so the atlas is only read and decoded once no matter how many pieces get created.
+ * The icons of the custom pieces (nightrider and alfil) are rotated once, when they are cut out.
+ * Loading is thread-safe: the icons are held by a nested class, which the JVM initializes exactly once.
+ * @author sahil1105
+ */
+public final class PieceSprites {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private PieceSprites() {
+    }
+
+    /**
+     * Location of the image from where to get the images of the chess pieces.
+     */
+    private static final String IMAGES_LOCATION = "chessPieces.png";
+
+    /**
+     * Holder of the icons. Only loaded (and the atlas only read) when getIcon is first called.
+     */
+    private static final class Icons {
+
+        /**
+         * One icon per piece type and player. Indexed by [pieceType + (0 for player 1, NUM_PIECE_TYPES for
+         * player 2)]. Entries are null if the atlas couldn't be read.
+         */
+        static final Image[] ICONS = loadIcons(IMAGES_LOCATION);
+
+    }
+
+    /**
+     * Getter for the icon of a piece.
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 Whether the piece belongs to player 1
+     * @return 64x64 image of the piece (shared, not to be modified), or null if the atlas couldn't be read
+     */
+    public static Image getIcon(int pieceType, boolean player1) {
+        return Icons.ICONS[player1 ? pieceType : ChessPiece.NUM_PIECE_TYPES + pieceType];
+    }
+
+    /**
+     * Utility function to cut the icons of all the piece types out of the atlas.
+     * The atlas has player 1's pieces on its first row and player 2's on its second, in the order of the ChessPiece
+     * type constants from KING to PAWN. The nightrider and alfil are a knight and a bishop rotated by 180 degrees.
+     * @param imagesLocation Location of the image to load from
+     * @return Image[] of size 2 * NUM_PIECE_TYPES, indexed as the ICONS array above
+     */
+    private static Image[] loadIcons(String imagesLocation) {
+
+        Image[] icons = new Image[2 * ChessPiece.NUM_PIECE_TYPES];
+        BufferedImage mainImage;
+        try {
+            mainImage = ImageIO.read(new File(imagesLocation));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return icons;
+        }
+        for (int row = 0; row < 2; row++) {
+            int offset = row * ChessPiece.NUM_PIECE_TYPES;
+            for (int col = 0; col <= ChessPiece.PAWN; col++) {
+                icons[offset + col] = mainImage.getSubimage(col * 64, row * 64, 64, 64);
+            }
+            icons[offset + ChessPiece.NIGHTRIDER] = rotate(icons[offset + ChessPiece.KNIGHT]);
+            icons[offset + ChessPiece.ALFIL] = rotate(icons[offset + ChessPiece.BISHOP]);
+        }
+        return icons;
+
+    }
+
+    /**
+     * Utility function to rotate an image by 180 degrees.
+     * //Reference: https://stackoverflow.com/questions/23457754/how-to-flip-bufferedimage-in-java
+     * @param original Original image. (Not modified)
+     * @return 180 degree rotated copy of the original image.
+     */
+    public static Image rotate(Image original) {
+        BufferedImage rotatedImage = new BufferedImage(64,64,BufferedImage.TYPE_INT_ARGB);
+        AffineTransform tx = AffineTransform.getRotateInstance(Math.PI, 32, 32);
+        Graphics2D g = rotatedImage.createGraphics();
+        g.transform(tx);
+        g.drawImage(original, 0,0, null);
+        g.dispose();
+        return rotatedImage;
+    }
+
+}
@@ -0,0 +1,27 @@
+import junit.framework.TestCase;
+
+/**
+ * PieceSpritesTest -- Tests for the PieceSprites class.
+ * @author sahil1105
+ */
+public class PieceSpritesTest extends TestCase {
+
+    /**
+     * Tests that every piece type and player has an icon, that the icons of different types are different, and
+     * that the same icon is handed out every time.
+     */
+    public void testIcons() {
+
+        for (int type = 0; type < ChessPiece.NUM_PIECE_TYPES; type++) {
+            assertNotNull(PieceSprites.getIcon(type, true));
+            assertNotNull(PieceSprites.getIcon(type, false));
+            assertNotSame(PieceSprites.getIcon(type, true), PieceSprites.getIcon(type, false));
+        }
+        assertNotSame(PieceSprites.getIcon(ChessPiece.KNIGHT, true), PieceSprites.getIcon(ChessPiece.NIGHTRIDER, true));
+        assertNotSame(PieceSprites.getIcon(ChessPiece.BISHOP, false), PieceSprites.getIcon(ChessPiece.ALFIL, false));
+        assertSame(PieceSprites.getIcon(ChessPiece.NIGHTRIDER, true),
+                   PieceSprites.getIcon(ChessPiece.NIGHTRIDER, true));
+
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * PieceType -- Shared, immutable description of one of the eight types of ChessPiece (King through Alfil): its
+ * name, FEN letter and value, and how it moves. There is exactly one PieceType object per type (a flyweight), which
+ * boards that keep their squares as byte codes (see ChessBoard8x8.snapshot() for the encoding) share instead of
+ * holding a ChessPiece object, with a position of its own, for every piece. Everything that differs between two
+ * pieces of the same type (their square and player) is passed in by the board.
+ * The moves themselves are looked up in the attack tables of the Bitboards class.
+ * @author sahil1105
+ */
+public final class PieceType {
+
+    /**
+     * The eight piece types
+     */
+    public static final PieceType KING = new PieceType(ChessPiece.KING, "King"),
+                                  QUEEN = new PieceType(ChessPiece.QUEEN, "Queen"),
+                                  ROOK = new PieceType(ChessPiece.ROOK, "Rook"),
+                                  KNIGHT = new PieceType(ChessPiece.KNIGHT, "Knight"),
+                                  BISHOP = new PieceType(ChessPiece.BISHOP, "Bishop"),
+                                  PAWN = new PieceType(ChessPiece.PAWN, "Pawn"),
+                                  NIGHTRIDER = new PieceType(ChessPiece.NIGHTRIDER, "Nightrider"),
+                                  ALFIL = new PieceType(ChessPiece.ALFIL, "Alfil");
+
+    /**
+     * The piece types, indexed by the ChessPiece type constants
+     */
+    private static final PieceType[] BY_TYPE = {KING, QUEEN, ROOK, KNIGHT, BISHOP, PAWN, NIGHTRIDER, ALFIL};
+
+    /**
+     * Constructor for the PieceType class. Only used to create the eight types above.
+     * @param pieceType One of the ChessPiece type constants
+     * @param name The type's name
+     */
+    private PieceType(int pieceType, @NotNull String name) {
+
+        this.pieceType = pieceType;
+        this.name = name;
+        this.fenLetter = ChessBoard8x8.FEN_PIECES.charAt(pieceType);
+        this.value = Evaluator.PIECE_VALUES[pieceType];
+        this.slider = pieceType == ChessPiece.QUEEN || pieceType == ChessPiece.ROOK
+                      || pieceType == ChessPiece.BISHOP || pieceType == ChessPiece.NIGHTRIDER;
+        this.pieceStrings = new String[] {ChessPiece.newPiece(pieceType, new int[] {0, 0}, true).toString(),
+                                          ChessPiece.newPiece(pieceType, new int[] {0, 0}, false).toString()};
+
+    }
+
+    /**
+     * Looks up a piece type by its ChessPiece type constant.
+     * @param pieceType One of the ChessPiece type constants
+     * @return The shared PieceType object of the type
+     * @throws IllegalArgumentException if the type isn't one of the constants
+     */
+    public static PieceType of(int pieceType) {
+        if (pieceType < 0 || pieceType >= BY_TYPE.length) {
+            throw new IllegalArgumentException("Unknown piece type: " + pieceType);
+        }
+        return BY_TYPE[pieceType];
+    }
+
+    /**
+     * Looks up the type of the piece on a square from the square's code.
+     * @param code The square's code (see ChessBoard8x8.encodeSquare())
+     * @return The shared PieceType object of the piece, or null if the square is empty
+     * @throws IllegalArgumentException if the code isn't a valid square code
+     */
+    public static PieceType ofCode(byte code) {
+        if (code == ChessBoard8x8.EMPTY_SQUARE) {
+            return null;
+        }
+        if ((code & ~(2 * ChessBoard8x8.PLAYER2_FLAG - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid square code: " + code);
+        }
+        return of((code & (ChessBoard8x8.PLAYER2_FLAG - 1)) - 1);
+    }
+
+    /**
+     * Checks which player the piece on a square belongs to.
+     * @param code The square's code. Must not be EMPTY_SQUARE.
+     * @return true if the piece belongs to player 1, false otherwise
+     */
+    public static boolean isPlayer1(byte code) {
+        return (code & ChessBoard8x8.PLAYER2_FLAG) == 0;
+    }
+
+    /**
+     * Getter for the code of a square holding a piece of this type.
+     * @param player1 Whether the piece belongs to player 1
+     * @return The code (see ChessBoard8x8.encodeSquare())
+     */
+    public byte code(boolean player1) {
+        return (byte) ((this.pieceType + 1) | (player1? 0 : ChessBoard8x8.PLAYER2_FLAG));
+    }
+
+    /**
+     * Getter for the type's ChessPiece type constant.
+     * @return One of the ChessPiece type constants
+     */
+    public int getPieceType() {
+        return this.pieceType;
+    }
+
+    /**
+     * Getter for the type's name.
+     * @return The name, eg. "Nightrider"
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Getter for the letter of the type in FEN strings.
+     * @return The capital letter (used for player 1's pieces; player 2's are in lower case)
+     */
+    public char getFenLetter() {
+        return this.fenLetter;
+    }
+
+    /**
+     * Getter for the material value of the type (see Evaluator.PIECE_VALUES).
+     * @return The value, in centipawns
+     */
+    public int getValue() {
+        return this.value;
+    }
+
+    /**
+     * Checks whether the type's moves can be blocked by pieces in the way.
+     * @return true for rooks, bishops, queens and nightriders, false for the leapers, kings and pawns
+     */
+    public boolean isSlider() {
+        return this.slider;
+    }
+
+    /**
+     * Computes the squares a piece of this type attacks (see Bitboards.attacks()).
+     * @param square Index (8 * y + x) of the square the piece is on
+     * @param player1 Whether the piece belongs to player 1
+     * @param occupied bitboard of the occupied squares, at least within Bitboards.occupancyMask()
+     * @return bitboard of the attacked squares. For pawns, only the diagonal (capturing) squares.
+     */
+    public long attacks(int square, boolean player1, long occupied) {
+        return Bitboards.attacks(this.pieceType, square, player1, occupied);
+    }
+
+    /**
+     * Computes the squares a piece of this type can move to: the squares it attacks that aren't occupied by its
+     * own side, except that pawns only move diagonally to capture, and move straight ahead otherwise.
+     * Doesn't check if the moves would be legal (eg. leave the king in a check).
+     * @param square Index (8 * y + x) of the square the piece is on
+     * @param player1 Whether the piece belongs to player 1
+     * @param own bitboard of the squares occupied by the piece's own side
+     * @param opponent bitboard of the squares occupied by the opponent
+     * @return bitboard of the destination squares
+     */
+    public long targets(int square, boolean player1, long own, long opponent) {
+        long occupied = own | opponent;
+        if (this.pieceType == ChessPiece.PAWN) {
+            return (Bitboards.pawnAttacks(square, player1) & opponent)
+                   | Bitboards.pawnPushes(square, player1, occupied);
+        }
+        return Bitboards.attacks(this.pieceType, square, player1, occupied) & ~own;
+    }
+
+    /**
+     * Creates a ChessPiece object of this type, eg. for code that works with ChessPiece objects.
+     * @param square Index (8 * y + x) of the square the piece is on
+     * @param player1 Whether the piece belongs to player 1
+     * @return A new ChessPiece of the class corresponding to the type
+     */
+    public ChessPiece newPiece(int square, boolean player1) {
+        return ChessPiece.newPiece(this.pieceType, new int[] {square & 7, square >>> 3}, player1);
+    }
+
+    /**
+     * Getter for the string a ChessPiece of this type is printed as (see ChessPiece.toString()).
+     * @param player1 Whether the piece belongs to player 1
+     * @return The string, eg. "Ki" for player 1's king
+     */
+    public String toString(boolean player1) {
+        return this.pieceStrings[player1? 0 : 1];
+    }
+
+    /**
+     * Overriding the toString function.
+     * @return The type's name
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+    /**
+     * The type's ChessPiece type constant
+     */
+    private final int pieceType;
+
+    /**
+     * The type's name, eg. "Nightrider"
+     */
+    private final String name;
+
+    /**
+     * Letter of the type in FEN strings (see ChessBoard8x8.FEN_PIECES)
+     */
+    private final char fenLetter;
+
+    /**
+     * Material value of the type, in centipawns
+     */
+    private final int value;
+
+    /**
+     * Whether the type's moves can be blocked
+     */
+    private final boolean slider;
+
+    /**
+     * Strings player 1's and player 2's ChessPiece objects of this type are printed as
+     */
+    private final String[] pieceStrings;
+
+}
@@ -0,0 +1,78 @@
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * PieceTypeTest -- Tests for the PieceType class.
+ * @author sahil1105
+ */
+public class PieceTypeTest extends TestCase {
+
+    /**
+     * Tests that there is a single shared object per type, and that it matches the square codes and the
+     * ChessPiece classes.
+     */
+    public void testFlyweights() {
+
+        for (int type = 0; type < ChessPiece.NUM_PIECE_TYPES; type++) {
+            PieceType pieceType = PieceType.of(type);
+            assertEquals(pieceType.getPieceType(), type);
+            ChessPiece piece = pieceType.newPiece(21, false);
+            assertEquals(piece.getPieceType(), type);
+            assertSame(piece.getType(), pieceType);
+            assertEquals(piece.getPos()[0], 5);
+            assertEquals(piece.getPos()[1], 2);
+            assertEquals(pieceType.code(false), ChessBoard8x8.encodeSquare(piece));
+            assertSame(PieceType.ofCode(pieceType.code(true)), pieceType);
+            assertEquals(PieceType.isPlayer1(pieceType.code(true)), true);
+            assertEquals(PieceType.isPlayer1(pieceType.code(false)), false);
+            assertEquals(pieceType.toString(false), piece.toString());
+        }
+        assertSame(PieceType.of(ChessPiece.NIGHTRIDER), PieceType.NIGHTRIDER);
+        assertEquals(PieceType.ofCode(ChessBoard8x8.EMPTY_SQUARE), null);
+        assertEquals(PieceType.ALFIL.getFenLetter(), 'A');
+        assertEquals(PieceType.NIGHTRIDER.getName(), "Nightrider");
+        assertEquals(PieceType.QUEEN.getValue(), Evaluator.PIECE_VALUES[ChessPiece.QUEEN]);
+        assertEquals(PieceType.NIGHTRIDER.isSlider(), true);
+        assertEquals(PieceType.ALFIL.isSlider(), false);
+        try {
+            PieceType.ofCode((byte) 9);
+            fail("Expected an IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e) {
+            //expected
+        }
+
+    }
+
+    /**
+     * Tests that the destinations worked out by the flyweights are those listed by the ChessPiece objects.
+     */
+    public void testTargetsMatchChessPieces() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initFromFen("r1bqk2a/pp3ppp/2n1p3/2hp4/3P1A2/2N1PH2/PP3PPP/R2QKB1R");
+        long[] occupancy = new long[2];
+        for (int square = 0; square < 64; square++) {
+            if (gameBoard.board[square] != null) {
+                occupancy[gameBoard.board[square].isPlayer1()? 0 : 1] |= Bitboards.bit(square);
+            }
+        }
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = gameBoard.board[square];
+            if (piece == null) {
+                continue;
+            }
+            boolean player1 = piece.isPlayer1();
+            long expected = 0L;
+            List<int[]> possibleMoves = piece.getPossibleMoves(gameBoard);
+            for (int[] dest : possibleMoves) {
+                expected |= Bitboards.bit(8 * dest[1] + dest[0]);
+            }
+            assertEquals(piece.getType().targets(square, player1, occupancy[player1? 0 : 1],
+                                                 occupancy[player1? 1 : 0]), expected);
+        }
+
+    }
+
+}
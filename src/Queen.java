@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +26,16 @@ public class Queen extends ChessPiece {
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the queen's attacks in the magic bitboard tables instead of walking each ray
+            ChessBoard8x8 board = (ChessBoard8x8) gameBoard;
+            long occupied = board.occupancyWithin(Bitboards.rookMask(getSquare()) | Bitboards.bishopMask(getSquare()));
+            possibleMovesFromRays(board, possibleMoves, Bitboards.queenAttacks(getSquare(), occupied),
+                                  Bitboards.QUEEN_RAYS, Bitboards.QUEEN_DIRECTIONS);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the queen can move in, which are diagonally left or right, horizontally
@@ -63,6 +71,15 @@ public class Queen extends ChessPiece {
 
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.QUEEN
+     */
+    @Override
+    public int getPieceType() {
+        return QUEEN;
+    }
+
     /**
      * Overriding toString function for the Queen class.
      * @return String representation of the Queen class. Capital if belongs to player 1, uncapitalized otherwise.
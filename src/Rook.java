@@ -1,5 +1,3 @@
-import com.sun.istack.internal.NotNull;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +26,16 @@ public class Rook extends ChessPiece{
     public List getPossibleMoves(@NotNull Board gameBoard) {
 
         List<int[]> possibleMoves = new ArrayList<>(); //create a list of int[] objects
+
+        if (isOnStandardBoard(gameBoard)) {
+            //look up the rook's attacks in the magic bitboard tables instead of walking each ray
+            ChessBoard8x8 board = (ChessBoard8x8) gameBoard;
+            long occupied = board.occupancyWithin(Bitboards.rookMask(getSquare()));
+            possibleMovesFromRays(board, possibleMoves, Bitboards.rookAttacks(getSquare(), occupied),
+                                  Bitboards.ROOK_RAYS, Bitboards.ROOK_DIRECTIONS);
+            return possibleMoves;
+        }
+
         int[] incrementVector = new int[this.pos.length]; //initializes a vector of 0s the same length as position
 
         //check the possible directions the rook can move in, which are horizontally and vertically on the board
@@ -50,6 +58,15 @@ public class Rook extends ChessPiece{
 
     }
 
+    /**
+     * Implementation of the getPieceType from the parent ChessPiece class.
+     * @return ChessPiece.ROOK
+     */
+    @Override
+    public int getPieceType() {
+        return ROOK;
+    }
+
     /**
      * Overriding toString function for the Rook class.
      * @return String representation of the Rook class. Capital if belongs to player 1, uncapitalized otherwise.
@@ -50,7 +50,7 @@ public class RookTest extends TestCase {
         // own pieces and can't skip over pieces
         assertEquals(possibleMoves.size(), 0);
 
-        gameBoard.board[15] = null; //get rid of the pawn in front of one of player 1's rooks
+        gameBoard.setPiece(15, null); //get rid of the pawn in front of one of player 1's rooks
         possibleMoves = gameBoard.board[7].getPossibleMoves(gameBoard);
         assertEquals(possibleMoves.size(), 6); //should have 6 possible moves now
         gameBoard.move(7, 31, true); //move the rook a bit
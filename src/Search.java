@@ -0,0 +1,643 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Search -- Engine that chooses moves on a ChessBoard8x8 by searching the tree of legal moves.
+ * Uses negamax with alpha-beta pruning, deepened one ply at a time (iterative deepening) until a depth, node or
+ * time budget runs out. Each iteration searches the principal variation (the best line found by the previous one)
+ * first, which makes the pruning a lot more effective. Results are cached in a TranspositionTable, so positions
+ * reached again by a different move order aren't searched again, and their best moves are searched first. The
+ * other moves are ordered by a MoveOrderer.
+ * At the end of the main search, captures are searched on until the position is quiet (quiescence search), so that
+ * positions in the middle of an exchange aren't misjudged by the static evaluation (the horizon effect). Captures
+ * that lose material according to static exchange evaluation (see the StaticExchange class) are left out of it.
+ * Moves are made and undone on the board itself with moveHelper/undoTheMove, so no copies of the board are made,
+ * and the move lists (and static exchange evaluations) are written into reusable buffers, so nothing is allocated
+ * while searching.
+ * Scores are in centipawns, from the point of view of the player to move. Mates are scored as MATE minus the
+ * number of plies to the mate.
+ *
+ * Usage: java Search [--custom] [--depth n] [--nodes n] [--time ms] [--hash mb] [fen ...]
+ *   --custom  start from the initCustomBoard layout instead of the standard one
+ *   --depth   maximum depth (plies) to search to (MAX_PLY by default)
+ *   --nodes   maximum number of nodes to search
+ *   --time    maximum time to search for, in milliseconds (1000 by default if no other limit is given)
+ *   --hash    size of the transposition table in MB (DEFAULT_TABLE_MB by default)
+ *   fen       positions to search, as FEN strings ('H' is a nightrider and 'A' an alfil). The starting layout is
+ *             used if none are given. Whose turn it is comes from the second field ('w' for player 1).
+ * @author sahil1105
+ */
+public class Search {
+
+    /**
+     * Score bigger than any the search can return
+     */
+    public static final int INFINITY = 1000000;
+
+    /**
+     * Score of giving mate right away. Mates further away score one less per ply.
+     */
+    public static final int MATE = 100000;
+
+    /**
+     * Maximum depth (in plies) the search can go to
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * Value returned by getBestMove when no move was found (a packed move can't start and end on the same square)
+     */
+    public static final int NO_MOVE = 0;
+
+    /**
+     * Size in MB of the transposition table a Search creates for itself if it isn't given one
+     */
+    public static final int DEFAULT_TABLE_MB = 16;
+
+    /**
+     * Number of nodes searched between checks of the node and time budgets
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Constructor for the Search class, with a transposition table of its own of DEFAULT_TABLE_MB.
+     * @param gameBoard The board to search on. Moves are made and undone on it, and it is left as it was.
+     */
+    public Search(ChessBoard8x8 gameBoard) {
+        this(gameBoard, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * Constructor for the Search class.
+     * @param gameBoard The board to search on. Moves are made and undone on it, and it is left as it was.
+     * @param table The transposition table to use. Can be shared with other searches, including ones running at
+     *              the same time in other threads.
+     */
+    public Search(ChessBoard8x8 gameBoard, TranspositionTable table) {
+        this.gameBoard = gameBoard;
+        this.table = table;
+        this.moveOrderer = new MoveOrderer(MAX_PLY);
+        this.moveBuffers = new int[MAX_PLY + 1][ChessBoard8x8.MAX_MOVES];
+        this.exchangeGains = new int[StaticExchange.GAINS_LENGTH];
+        this.pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+        this.pvLength = new int[MAX_PLY + 1];
+        this.principalVariation = new int[0];
+    }
+
+    /**
+     * Searches the board's current position, one ply deeper at a time, until one of the limits is reached. At
+     * least the first iteration is always completed (unless signalled to stop), so a move is found if there is
+     * one. The results of the last completed iteration can be read with the getters below.
+     * @param player1 boolean specifying whose turn it is
+     * @param maxDepth Maximum depth (plies) to search to. Capped at MAX_PLY.
+     * @param maxNodes Maximum number of nodes to search, or 0 for no limit
+     * @param maxMillis Maximum time to search for in milliseconds, or 0 for no limit
+     * @return The best move found, packed (see the Move class), or NO_MOVE if the player has no legal moves
+     */
+    public int search(boolean player1, int maxDepth, long maxNodes, long maxMillis) {
+        return search(player1, maxDepth, maxNodes, maxMillis, true);
+    }
+
+    /**
+     * Searches the board's current position as above, optionally without starting a new generation of the
+     * transposition table. ParallelSearch starts the generation once itself, before its threads search the
+     * shared table, since a TranspositionTable's generation must not be changed while other threads use it.
+     * @param player1 boolean specifying whose turn it is
+     * @param maxDepth Maximum depth (plies) to search to. Capped at MAX_PLY.
+     * @param maxNodes Maximum number of nodes to search, or 0 for no limit
+     * @param maxMillis Maximum time to search for in milliseconds, or 0 for no limit
+     * @param newGeneration Whether to call the table's newSearch first (only when this search owns the table)
+     * @return The best move found, packed (see the Move class), or NO_MOVE if the player has no legal moves
+     */
+    int search(boolean player1, int maxDepth, long maxNodes, long maxMillis, boolean newGeneration) {
+
+        if (newGeneration) {
+            this.table.newSearch();
+        }
+        this.startTime = System.nanoTime();
+        this.deadline = maxMillis > 0? this.startTime + (maxMillis * 1000000L) : Long.MAX_VALUE;
+        this.maxNodes = maxNodes > 0? maxNodes : Long.MAX_VALUE;
+        this.nodes = 0;
+        this.stopped = false;
+        this.bestMove = NO_MOVE;
+        this.score = 0;
+        this.depth = 0;
+        this.principalVariation = new int[0];
+        this.moveOrderer.newSearch();
+
+        int lastDepth = Math.min(maxDepth, MAX_PLY);
+        for (int iterationDepth = this.firstDepth; iterationDepth <= lastDepth; iterationDepth++) {
+            this.followPv = true;
+            int iterationScore = negamax(iterationDepth, 0, -INFINITY, INFINITY, player1);
+            if (this.stopped) {
+                break; //the iteration wasn't finished, so its results can't be trusted
+            }
+            this.depth = iterationDepth;
+            this.score = iterationScore;
+            this.principalVariation = Arrays.copyOf(this.pvTable[0], this.pvLength[0]);
+            this.bestMove = this.principalVariation.length > 0? this.principalVariation[0] : NO_MOVE;
+            this.elapsedNanos = System.nanoTime() - this.startTime;
+            //no point looking further if there are no moves, or a forced mate has been found
+            if (this.bestMove == NO_MOVE || Math.abs(iterationScore) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        this.elapsedNanos = System.nanoTime() - this.startTime;
+        return this.bestMove;
+
+    }
+
+    /**
+     * Negamax search with alpha-beta pruning. Also records the principal variation from this ply on.
+     * @param depth Number of plies left to search
+     * @param ply Number of plies from the root
+     * @param alpha Score the player to move is already guaranteed
+     * @param beta Score the opponent is already guaranteed (negated), so a score of beta or more won't be allowed
+     * @param player1 boolean specifying whose turn it is
+     * @return Score of the position for the player to move. Meaningless if the search was stopped.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta, boolean player1) {
+
+        if (depth == 0) {
+            return quiescence(ply, alpha, beta, player1);
+        }
+        this.pvLength[ply] = 0;
+        if (++this.nodes % CHECK_INTERVAL == 0) {
+            checkLimits();
+        }
+        if (this.stopped) {
+            return 0;
+        }
+        if (ply == MAX_PLY) {
+            return evaluate(player1);
+        }
+
+        //use what is known about the position from searching it before
+        long key = this.gameBoard.getPositionHash(player1);
+        long entry = this.table.probe(key);
+        int tableMove = NO_MOVE;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.getMove(entry);
+            //the root's score isn't taken from the table, as its principal variation is needed
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int tableScore = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && tableScore >= beta)
+                    || (bound == TranspositionTable.UPPER && tableScore <= alpha)) {
+                    return tableScore;
+                }
+            }
+        }
+
+        int[] moves = this.moveBuffers[ply];
+        int count = this.gameBoard.writeLegalMoves(player1, moves);
+        if (count == 0) {
+            //checkmate, or stalemate (a draw)
+            return this.gameBoard.isInCheckForLegalMoves(player1)? -MATE + ply : 0;
+        }
+        //search the previous principal variation first, or failing that the table's best move, then the rest in
+        //the order the move orderer thinks best
+        int firstMove = tableMove;
+        if (this.followPv) {
+            this.followPv = ply < this.principalVariation.length
+                            && contains(moves, count, this.principalVariation[ply]);
+            if (this.followPv) {
+                firstMove = this.principalVariation[ply];
+            }
+        }
+        this.moveOrderer.orderMoves(this.gameBoard, moves, count, ply, player1, firstMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int startIdx = Move.getStartIdx(move);
+            int destIdx = Move.getDestIdx(move);
+            ChessPiece originallyAtDest = this.gameBoard.board[destIdx]; //to undo captures
+            this.gameBoard.moveHelper(startIdx, destIdx);
+            int moveScore = -negamax(depth - 1, ply + 1, -beta, -alpha, !player1);
+            this.gameBoard.undoTheMove(startIdx, destIdx, originallyAtDest);
+            this.followPv = false; //only the first move can be on the previous principal variation
+            if (this.stopped) {
+                return 0;
+            }
+
+            if (moveScore > bestScore) {
+                bestScore = moveScore;
+                bestMove = move;
+                if (moveScore > alpha) {
+                    alpha = moveScore;
+                    //the principal variation from here is this move followed by the one from the next ply
+                    this.pvTable[ply][0] = move;
+                    System.arraycopy(this.pvTable[ply + 1], 0, this.pvTable[ply], 1, this.pvLength[ply + 1]);
+                    this.pvLength[ply] = this.pvLength[ply + 1] + 1;
+                    if (alpha >= beta) {
+                        //the opponent won't allow this position, no need to look at the other moves
+                        this.moveOrderer.recordCutoff(move, ply, depth, player1);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta? TranspositionTable.LOWER
+                    : bestScore > originalAlpha? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        this.table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+
+    }
+
+    /**
+     * Quiescence search: searches only the captures that don't lose material, until the position is quiet. The
+     * player to move can also "stand pat", ie. take the static evaluation instead of capturing, unless in check, in
+     * which case all the moves out of check are searched (so mates are still seen).
+     * @param ply Number of plies from the root
+     * @param alpha Score the player to move is already guaranteed
+     * @param beta Score the opponent is already guaranteed (negated), so a score of beta or more won't be allowed
+     * @param player1 boolean specifying whose turn it is
+     * @return Score of the position for the player to move. Meaningless if the search was stopped.
+     */
+    private int quiescence(int ply, int alpha, int beta, boolean player1) {
+
+        this.pvLength[ply] = 0;
+        if (++this.nodes % CHECK_INTERVAL == 0) {
+            checkLimits();
+        }
+        if (this.stopped) {
+            return 0;
+        }
+        if (ply == MAX_PLY) {
+            return evaluate(player1);
+        }
+
+        //listing the moves also works out whether the player is in check
+        int[] moves = this.moveBuffers[ply];
+        int count = this.gameBoard.writeLegalMoves(player1, moves);
+        boolean inCheck = this.gameBoard.isInCheckForLegalMoves(player1);
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = evaluate(player1);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        if (count == 0 && inCheck) {
+            return -MATE + ply;
+        }
+        this.moveOrderer.orderMoves(this.gameBoard, moves, count, ply, player1, NO_MOVE);
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (!inCheck) {
+                if (!Move.isCapture(move)) {
+                    break; //the captures are ordered first, so the rest are quiet moves
+                }
+                if (!StaticExchange.isNotLosing(this.gameBoard, move, this.exchangeGains)) {
+                    continue;
+                }
+            }
+            int startIdx = Move.getStartIdx(move);
+            int destIdx = Move.getDestIdx(move);
+            ChessPiece originallyAtDest = this.gameBoard.board[destIdx]; //to undo captures
+            this.gameBoard.moveHelper(startIdx, destIdx);
+            int moveScore = -quiescence(ply + 1, -beta, -alpha, !player1);
+            this.gameBoard.undoTheMove(startIdx, destIdx, originallyAtDest);
+            if (this.stopped) {
+                return 0;
+            }
+
+            if (moveScore > bestScore) {
+                bestScore = moveScore;
+                if (moveScore > alpha) {
+                    alpha = moveScore;
+                    this.pvTable[ply][0] = move;
+                    System.arraycopy(this.pvTable[ply + 1], 0, this.pvTable[ply], 1, this.pvLength[ply + 1]);
+                    this.pvLength[ply] = this.pvLength[ply + 1] + 1;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+
+    }
+
+    /**
+     * Utility function to check whether a move is in a move list.
+     * @param moves The move list
+     * @param count Number of moves in the list
+     * @param move The packed move to look for
+     * @return whether the move was found in the list
+     */
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Utility function to convert a score to be stored in the transposition table. Mate scores count the plies
+     * to the mate from the root, so they are stored counting from the position instead, which is the same
+     * wherever in the tree the position is reached.
+     * @param score Score of the position
+     * @param ply Number of plies from the root to the position
+     * @return The score to store
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Utility function to convert a score read from the transposition table back (see scoreToTable).
+     * @param score Score stored in the table
+     * @param ply Number of plies from the root to the position
+     * @return The score of the position
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Utility function to stop the search if it has run out of nodes or time, which never stops it before the first
+     * iteration is complete, or if it has been signalled to stop, which does.
+     */
+    private void checkLimits() {
+        if ((this.depth > 0 && (this.nodes >= this.maxNodes || System.nanoTime() >= this.deadline))
+            || (this.stopSignal != null && this.stopSignal.get())) {
+            this.stopped = true;
+        }
+    }
+
+    /**
+     * Setter for the signal to stop searching, which can be set from another thread (eg. when another search of
+     * the same position is done with). It is checked every CHECK_INTERVAL nodes, and once set stops the search
+     * right away, even before the first iteration is complete. Isn't reset by the search.
+     * @param stopSignal The signal, or null for none
+     */
+    public void setStopSignal(AtomicBoolean stopSignal) {
+        this.stopSignal = stopSignal;
+    }
+
+    /**
+     * Setter for the depth of the first iteration (1 by default). Searches of the same position sharing a
+     * transposition table can start at different depths, so that they don't all search the same depth at the same
+     * time.
+     * @param firstDepth The depth, at least 1
+     */
+    public void setFirstDepth(int firstDepth) {
+        this.firstDepth = Math.max(firstDepth, 1);
+    }
+
+    /**
+     * Static evaluation of the board's current position (see the Evaluator class).
+     * @param player1 boolean specifying whose point of view to score the position from
+     * @return Score of the position for the player, in centipawns
+     */
+    private int evaluate(boolean player1) {
+        return Evaluator.evaluate(this.gameBoard, player1);
+    }
+
+    /**
+     * Getter for the best move found by the last search.
+     * @return The move, packed (see the Move class), or NO_MOVE if there wasn't one
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Getter for the score of the best move found by the last search.
+     * @return Score, in centipawns, from the point of view of the player that was to move
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Getter for the depth the last search completed.
+     * @return Number of plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Getter for the principal variation found by the last search: the best move, the opponent's best reply, and
+     * so on.
+     * @return Copy of the moves of the line, packed (see the Move class)
+     */
+    public int[] getPrincipalVariation() {
+        return Arrays.copyOf(principalVariation, principalVariation.length);
+    }
+
+    /**
+     * Getter for the number of nodes (positions) visited by the last search.
+     * @return Number of nodes, including those of an unfinished last iteration
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Getter for how long the last search took.
+     * @return Time taken, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Number of nodes the last search visited per second
+     */
+    public double getNodesPerSecond() {
+        return nodes / Math.max(elapsedNanos / 1e9, 1e-9);
+    }
+
+    /**
+     * Utility function to describe a line of moves in coordinate notation.
+     * @param moves The packed moves (see the Move class)
+     * @return the moves separated by spaces, such as "e2e4 e7e5"
+     */
+    public static String lineToString(int[] moves) {
+        StringBuilder line = new StringBuilder();
+        for (int move : moves) {
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(Perft.moveToString(move));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Searches the positions given on the command line (see the class comment) and prints the best move, score,
+     * principal variation and nodes per second for each.
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+
+        boolean custom = false;
+        int maxDepth = MAX_PLY;
+        long maxNodes = 0, maxMillis = 0;
+        int tableMegabytes = DEFAULT_TABLE_MB;
+        List<String> fens = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--custom")) {
+                    custom = true;
+                }
+                else if (args[i].equals("--depth")) {
+                    maxDepth = Integer.parseInt(args[++i]);
+                }
+                else if (args[i].equals("--nodes")) {
+                    maxNodes = Long.parseLong(args[++i]);
+                }
+                else if (args[i].equals("--time")) {
+                    maxMillis = Long.parseLong(args[++i]);
+                }
+                else if (args[i].equals("--hash")) {
+                    tableMegabytes = Integer.parseInt(args[++i]);
+                }
+                else {
+                    fens.add(args[i]);
+                }
+            }
+        }
+        catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Usage: java Search [--custom] [--depth n] [--nodes n] [--time ms] [--hash mb] "
+                               + "[fen ...]");
+            System.exit(1);
+        }
+        if (maxDepth == MAX_PLY && maxNodes == 0 && maxMillis == 0) {
+            maxMillis = 1000;
+        }
+        if (fens.isEmpty()) {
+            fens.add(null); //the starting layout
+        }
+
+        for (String fen : fens) {
+            ChessBoard8x8 gameBoard = new ChessBoard8x8();
+            boolean player1 = true;
+            if (fen == null) {
+                if (custom) {
+                    gameBoard.initCustomBoard();
+                }
+                else {
+                    gameBoard.initBoard();
+                }
+            }
+            else {
+                gameBoard.initFromFen(fen);
+                String[] fields = fen.trim().split("\\s+");
+                player1 = fields.length < 2 || !fields[1].equals("b");
+            }
+            Search search = new Search(gameBoard, new TranspositionTable(tableMegabytes));
+            int bestMove = search.search(player1, maxDepth, maxNodes, maxMillis);
+
+            System.out.println("Position: " + gameBoard.toFen() + (player1? " w" : " b"));
+            System.out.printf("Best move: %s, score %d, depth %d, %d nodes in %.3f s (%.0f nodes/s)%n",
+                              bestMove == NO_MOVE? "none" : Perft.moveToString(bestMove), search.getScore(),
+                              search.getDepth(), search.getNodes(), search.getElapsedNanos() / 1e9,
+                              search.getNodesPerSecond());
+            System.out.println("Principal variation: " + lineToString(search.getPrincipalVariation()));
+        }
+
+    }
+
+    /**
+     * The board to search on
+     */
+    private ChessBoard8x8 gameBoard;
+
+    /**
+     * Cache of the results of searching positions
+     */
+    private TranspositionTable table;
+
+    /**
+     * Orders the moves of each position, with killer and history tables of this search's own
+     */
+    private MoveOrderer moveOrderer;
+
+    /**
+     * One reusable move buffer per ply
+     */
+    private int[][] moveBuffers;
+
+    /**
+     * Scratch buffer for static exchange evaluation. One is enough, since each evaluation is finished before the
+     * search goes a ply deeper.
+     */
+    private int[] exchangeGains;
+
+    /**
+     * Principal variation found below each ply of the current iteration (triangular PV table), and its length
+     */
+    private int[][] pvTable;
+    private int[] pvLength;
+
+    /**
+     * Whether the moves made so far in the current iteration are all on the previous iteration's principal
+     * variation, so the next one can be searched first
+     */
+    private boolean followPv;
+
+    /**
+     * Budgets of the current search: when to stop (System.nanoTime), and after how many nodes
+     */
+    private long deadline;
+    private long maxNodes;
+
+    /**
+     * Whether the current search has run out of nodes or time, or has been signalled to stop
+     */
+    private boolean stopped;
+
+    /**
+     * Signal to stop searching, set from outside of the search (null if there isn't one)
+     */
+    private AtomicBoolean stopSignal;
+
+    /**
+     * Depth of the first iteration
+     */
+    private int firstDepth = 1;
+
+    /**
+     * Statistics of the last search
+     */
+    private long nodes;
+    private long startTime;
+    private long elapsedNanos;
+
+    /**
+     * Results of the last search's last completed iteration
+     */
+    private int bestMove;
+    private int score;
+    private int depth;
+    private int[] principalVariation;
+
+}
@@ -0,0 +1,108 @@
+import junit.framework.TestCase;
+
+/**
+ * SearchTest -- Tests for the Search class.
+ * @author sahil1105
+ */
+public class SearchTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes an empty game board.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+    }
+
+    /**
+     * Tests that the search finds a mate in one, and scores it as such.
+     */
+    public void testMateInOne() {
+
+        gameBoard.initFromFen("6k1/5ppp/8/8/8/8/8/R5K1"); //back rank mate with Ra8
+        Search search = new Search(gameBoard);
+        int bestMove = search.search(true, 4, 0, 0);
+        assertEquals(Perft.moveToString(bestMove), "a1a8");
+        assertEquals(search.getScore(), Search.MATE - 1);
+        assertEquals(search.getPrincipalVariation().length, 1);
+
+    }
+
+    /**
+     * Tests that the search wins material that is left hanging, and that the principal variation starts with the
+     * best move and is made of legal moves.
+     */
+    public void testWinsMaterial() {
+
+        gameBoard.initFromFen("4k3/8/8/3q4/8/8/3R4/4K3"); //the queen can be taken for free
+        Search search = new Search(gameBoard);
+        int bestMove = search.search(true, 3, 0, 0);
+        assertEquals(Perft.moveToString(bestMove), "d2d5");
+        assertTrue(search.getScore() > 0);
+        assertEquals(search.getDepth(), 3);
+
+        int[] pv = search.getPrincipalVariation();
+        assertEquals(pv[0], bestMove);
+        boolean player1 = true;
+        for (int move : pv) {
+            assertTrue(gameBoard.move(Move.getStartIdx(move), Move.getDestIdx(move), player1));
+            player1 = !player1;
+        }
+
+    }
+
+    /**
+     * Tests that the quiescence search sees the recapture past the end of the main search, so the queen doesn't
+     * take a defended pawn, but still takes an undefended one.
+     */
+    public void testQuiescence() {
+
+        gameBoard.initFromFen("4k3/8/2p5/3p4/8/8/8/3QK3"); //the pawn on d5 is defended by the one on c6
+        Search search = new Search(gameBoard);
+        int bestMove = search.search(true, 1, 0, 0);
+        assertFalse(Perft.moveToString(bestMove).equals("d1d5"));
+        assertTrue(search.getScore() > 500);
+
+        gameBoard.initFromFen("4k3/8/8/3p4/8/8/8/3QK3");
+        assertEquals(Perft.moveToString(search.search(true, 1, 0, 0)), "d1d5");
+
+    }
+
+    /**
+     * Tests that searching leaves the board as it was.
+     */
+    public void testBoardUnchanged() {
+
+        gameBoard.initCustomBoard();
+        String fen = gameBoard.toFen();
+        long hash = gameBoard.getPositionHash();
+        Search search = new Search(gameBoard);
+        search.search(true, 3, 0, 0);
+        assertEquals(gameBoard.toFen(), fen);
+        assertEquals(gameBoard.getPositionHash(), hash);
+
+    }
+
+    /**
+     * Tests that the node budget stops the search, but only after the first iteration, and that a player with no
+     * legal moves gets no move.
+     */
+    public void testLimits() {
+
+        gameBoard.initBoard();
+        Search search = new Search(gameBoard);
+        int bestMove = search.search(true, Search.MAX_PLY, 5000, 0);
+        assertTrue(bestMove != Search.NO_MOVE);
+        assertTrue(search.getDepth() >= 1 && search.getDepth() < Search.MAX_PLY);
+        assertTrue(search.getNodes() < 5000 + 1024);
+
+        gameBoard.initFromFen("k7/2Q5/1K6/8/8/8/8/8"); //player 2 is stalemated
+        assertEquals(search.search(false, 3, 0, 0), Search.NO_MOVE);
+        assertEquals(search.getScore(), 0);
+
+    }
+
+}
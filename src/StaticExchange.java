@@ -0,0 +1,159 @@
+/**
+ * StaticExchange -- Static exchange evaluation (SEE) of captures on a ChessBoard8x8.
+ * Works out what a capture wins or loses once all the recaptures on its destination square have been played out,
+ * each side always recapturing with its least valuable attacker and stopping when recapturing would lose material.
+ * The attackers are looked up in the attack tables of the Bitboards class, with an occupancy bitboard that the
+ * pieces taking part are removed from as they capture (so sliders lined up behind them join in), rather than by
+ * making and undoing the moves on the board. Pins are not taken into account.
+ * @author sahil1105
+ */
+public final class StaticExchange {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private StaticExchange() {
+    }
+
+    /**
+     * Size of the buffer see() needs: the most captures an exchange can have, plus one
+     */
+    public static final int GAINS_LENGTH = 32;
+
+    /**
+     * Value of each piece type (indexed by the ChessPiece type constants) when it takes part in an exchange. Like
+     * the Evaluator's values, except that the king is worth more than everything else, so capturing with it into
+     * a square that is still attacked is never worth it.
+     */
+    private static final int[] EXCHANGE_VALUES = {20000, 900, 500, 320, 330, 100, 450, 150};
+
+    /**
+     * Bitboards of the squares an attacker of each square can stand on, or be blocked by: every ray and leap
+     * through the square. Only these squares need to be looked at to resolve an exchange on it.
+     */
+    private static final long[] LINES = new long[64];
+
+    //gather the rays and leaps of every piece type once, when the class is loaded
+    static {
+        for (int square = 0; square < 64; square++) {
+            long lines = Bitboards.kingAttacks(square) | Bitboards.alfilAttacks(square);
+            for (long[] rays : Bitboards.QUEEN_RAYS) {
+                lines |= rays[square];
+            }
+            for (long[] rays : Bitboards.NIGHTRIDER_RAYS) {
+                lines |= rays[square];
+            }
+            LINES[square] = lines;
+        }
+    }
+
+    /**
+     * Evaluates a capture by playing out the exchange on its destination square.
+     * @param gameBoard The board the move is to be made on. Is not modified.
+     * @param move The packed move (see the Move class). Quiet moves are evaluated as capturing nothing, ie. on
+     *             whether the piece can safely go to the square.
+     * @return Material won (positive) or lost (negative) by the side making the move, in centipawns
+     */
+    public static int see(ChessBoard8x8 gameBoard, int move) {
+        return see(gameBoard, move, new int[GAINS_LENGTH]);
+    }
+
+    /**
+     * Same as see(ChessBoard8x8, int), with the working space passed in, so that nothing is allocated (eg. when
+     * called for every capture of a search).
+     * @param gameBoard The board the move is to be made on. Is not modified.
+     * @param move The packed move (see the Move class)
+     * @param gains Scratch buffer of at least GAINS_LENGTH ints. Is modified.
+     * @return Material won (positive) or lost (negative) by the side making the move, in centipawns
+     */
+    public static int see(ChessBoard8x8 gameBoard, int move, int[] gains) {
+
+        int startIdx = Move.getStartIdx(move);
+        int destIdx = Move.getDestIdx(move);
+        ChessPiece mover = gameBoard.board[startIdx];
+        long occupied = gameBoard.occupancyWithin(LINES[destIdx]) & ~Bitboards.bit(startIdx);
+
+        //gains[i] is what the side making capture i has won so far, if the other side stops recapturing there
+        gains[0] = Move.isCapture(move)? EXCHANGE_VALUES[Move.getCapturedType(move)] : 0;
+        int onSquareValue = EXCHANGE_VALUES[mover.getPieceType()]; //value of the piece that would be captured next
+        boolean player1 = !mover.isPlayer1();
+        int captures = 0;
+        while (captures < GAINS_LENGTH - 1) {
+            int attackerIdx = leastValuableAttacker(gameBoard, destIdx, player1, occupied);
+            if (attackerIdx < 0) {
+                break;
+            }
+            captures++;
+            gains[captures] = onSquareValue - gains[captures - 1];
+            onSquareValue = EXCHANGE_VALUES[gameBoard.board[attackerIdx].getPieceType()];
+            occupied &= ~Bitboards.bit(attackerIdx);
+            player1 = !player1;
+        }
+
+        //go back through the exchange: each side only makes its capture if it does better than stopping before it
+        while (captures > 0) {
+            gains[captures - 1] = -Math.max(-gains[captures - 1], gains[captures]);
+            captures--;
+        }
+        return gains[0];
+
+    }
+
+    /**
+     * Checks whether a capture at least breaks even once the exchange it starts is played out.
+     * @param gameBoard The board the move is to be made on. Is not modified.
+     * @param move The packed move (see the Move class)
+     * @return true if the side making the move doesn't lose material in the exchange
+     */
+    public static boolean isNotLosing(ChessBoard8x8 gameBoard, int move) {
+        return isNotLosing(gameBoard, move, new int[GAINS_LENGTH]);
+    }
+
+    /**
+     * Same as isNotLosing(ChessBoard8x8, int), with the working space of see() passed in.
+     * @param gameBoard The board the move is to be made on. Is not modified.
+     * @param move The packed move (see the Move class)
+     * @param gains Scratch buffer of at least GAINS_LENGTH ints. Is modified.
+     * @return true if the side making the move doesn't lose material in the exchange
+     */
+    public static boolean isNotLosing(ChessBoard8x8 gameBoard, int move, int[] gains) {
+        //taking a piece worth at least as much as the one taking it can't lose
+        if (Move.isCapture(move) && EXCHANGE_VALUES[Move.getCapturedType(move)]
+                                    >= EXCHANGE_VALUES[gameBoard.board[Move.getStartIdx(move)].getPieceType()]) {
+            return true;
+        }
+        return see(gameBoard, move, gains) >= 0;
+    }
+
+    /**
+     * Utility function to find a player's least valuable piece attacking a square.
+     * @param gameBoard The board
+     * @param square Index of the square attacked
+     * @param player1 boolean specifying whose pieces to look for
+     * @param occupied bitboard of the occupied squares, at least on the lines through the square. Only pieces on
+     *                 these squares are considered.
+     * @return Index of the attacking piece, or -1 if the square isn't attacked
+     */
+    private static int leastValuableAttacker(ChessBoard8x8 gameBoard, int square, boolean player1, long occupied) {
+
+        int bestIdx = -1;
+        int bestValue = Integer.MAX_VALUE;
+        long target = Bitboards.bit(square);
+        for (long candidates = occupied & LINES[square]; candidates != 0; candidates &= candidates - 1) {
+            int idx = Long.numberOfTrailingZeros(candidates);
+            ChessPiece piece = gameBoard.board[idx];
+            if (piece.isPlayer1() != player1) {
+                continue;
+            }
+            int type = piece.getPieceType();
+            if (EXCHANGE_VALUES[type] < bestValue
+                && (Bitboards.attacks(type, idx, player1, occupied) & target) != 0) {
+                bestIdx = idx;
+                bestValue = EXCHANGE_VALUES[type];
+            }
+        }
+        return bestIdx;
+
+    }
+
+}
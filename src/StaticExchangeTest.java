@@ -0,0 +1,91 @@
+import junit.framework.TestCase;
+
+/**
+ * StaticExchangeTest -- Tests for the StaticExchange class.
+ * @author sahil1105
+ */
+public class StaticExchangeTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes an empty game board.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+    }
+
+    /**
+     * Utility function to find a legal move of player 1.
+     * @param move The move in coordinate notation, such as "e2e4"
+     * @return The packed move
+     */
+    private int findMove(String move) {
+        int[] moves = new int[ChessBoard8x8.MAX_MOVES];
+        int count = gameBoard.writeLegalMoves(true, moves);
+        for (int i = 0; i < count; i++) {
+            if (Perft.moveToString(moves[i]).equals(move)) {
+                return moves[i];
+            }
+        }
+        fail("no legal move " + move);
+        return Search.NO_MOVE;
+    }
+
+    /**
+     * Tests captures that are or aren't defended.
+     */
+    public void testSimpleExchanges() {
+
+        gameBoard.initFromFen("4k3/8/2p5/3p4/8/8/8/3RK3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d1d5")), 100 - 500); //the pawn on c6 takes back
+        assertFalse(StaticExchange.isNotLosing(gameBoard, findMove("d1d5")));
+
+        gameBoard.initFromFen("4k3/8/8/2q5/1P6/8/8/4K3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("b4c5")), 900);
+        assertTrue(StaticExchange.isNotLosing(gameBoard, findMove("b4c5")));
+
+        //the king can't take back, as the rook would be recaptured
+        gameBoard.initFromFen("8/8/8/3k4/8/3p4/3R4/3RK3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d2d3")), 100);
+
+    }
+
+    /**
+     * Tests that pieces lined up behind the ones capturing join in, and that the custom pieces are seen.
+     */
+    public void testHiddenAttackers() {
+
+        //the rook on d1 backs up the one on d2, so the pawn is won
+        gameBoard.initFromFen("3rk3/8/8/3p4/8/8/3R4/3RK3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d2d5")), 100);
+        gameBoard.initFromFen("3rk3/8/8/3p4/8/8/3R4/4K3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d2d5")), 100 - 500);
+
+        //a nightrider on the far end of the knight's line defends the knight
+        gameBoard.initFromFen("4k3/8/8/3n4/8/4N3/8/1h2K3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("e3d5")), 0);
+        gameBoard.initFromFen("4k3/8/8/3n4/8/4N3/8/4K3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("e3d5")), 320);
+
+    }
+
+    /**
+     * Tests that the versions taking a scratch buffer give the same results when the buffer is reused.
+     */
+    public void testScratchBuffer() {
+
+        int[] gains = new int[StaticExchange.GAINS_LENGTH];
+        gameBoard.initFromFen("3rk3/8/8/3p4/8/8/3R4/3RK3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d2d5"), gains), 100);
+        gameBoard.initFromFen("4k3/8/2p5/3p4/8/8/8/3RK3");
+        assertEquals(StaticExchange.see(gameBoard, findMove("d1d5"), gains), 100 - 500);
+        assertFalse(StaticExchange.isNotLosing(gameBoard, findMove("d1d5"), gains));
+        gameBoard.initFromFen("4k3/8/8/3n4/8/4N3/8/4K3");
+        assertTrue(StaticExchange.isNotLosing(gameBoard, findMove("e3d5"), gains));
+
+    }
+
+}
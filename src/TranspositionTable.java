@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * TranspositionTable -- Fixed-size cache of search results, keyed by the 64-bit hash of a position (see the
+ * Zobrist class), so a position reached again by a different move order (a transposition) needn't be searched
+ * from scratch.
+ * Each entry is stored in two consecutive longs of a single long[]: the key XOR'ed with the data, and the data.
+ * The data packs:
+ *  bits 0-16  : best move found in the position, packed (see the Move class), or Search.NO_MOVE
+ *  bits 17-36 : score (20-bit two's complement)
+ *  bits 37-43 : depth searched to
+ *  bits 44-45 : bound (EXACT, LOWER or UPPER)
+ *  bits 46-53 : generation (which search stored it)
+ * A read only accepts an entry if its first long XOR'ed with its second gives back the key being looked up. So the
+ * table needs no locks to be shared by several search threads: an entry torn by two threads writing it at the same
+ * time fails the check, and is treated as a miss.
+ * @author sahil1105
+ */
+public class TranspositionTable {
+
+    /**
+     * Bound of a stored score: the exact score, a lower bound (the search failed high, so the score is at least
+     * this), or an upper bound (the search failed low, so the score is at most this). Never 0, so the data of a
+     * stored entry is never 0 either.
+     */
+    public static final int EXACT = 1, LOWER = 2, UPPER = 3;
+
+    /**
+     * Replacement policies, deciding whether a new entry overwrites the one already in its slot:
+     *  REPLACE_ALWAYS          - always
+     *  REPLACE_DEPTH_PREFERRED - if it is for the same position, or was searched at least as deep
+     *  REPLACE_DEPTH_AND_AGE   - as REPLACE_DEPTH_PREFERRED, but entries left over from earlier searches are always
+     *                            replaced
+     */
+    public static final int REPLACE_ALWAYS = 0, REPLACE_DEPTH_PREFERRED = 1, REPLACE_DEPTH_AND_AGE = 2;
+
+    /**
+     * Value returned by probe when the position isn't in the table
+     */
+    public static final long MISS = 0L;
+
+    /**
+     * Size of an entry in bytes (two longs)
+     */
+    private static final int ENTRY_BYTES = 16;
+
+    /**
+     * Largest depth that can be stored
+     */
+    private static final int MAX_DEPTH = 127;
+
+    /**
+     * Constructor for the TranspositionTable class, with the REPLACE_DEPTH_AND_AGE policy.
+     * @param megabytes Size of the table in MB. The number of entries is rounded down to a power of two.
+     */
+    public TranspositionTable(int megabytes) {
+        this(megabytes, REPLACE_DEPTH_AND_AGE);
+    }
+
+    /**
+     * Constructor for the TranspositionTable class.
+     * @param megabytes Size of the table in MB. The number of entries is rounded down to a power of two.
+     * @param replacementPolicy One of the REPLACE_ constants above
+     * @throws IllegalArgumentException if the size isn't positive or the policy isn't one of the constants
+     */
+    public TranspositionTable(int megabytes, int replacementPolicy) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Size must be at least 1 MB: " + megabytes);
+        }
+        if (replacementPolicy < REPLACE_ALWAYS || replacementPolicy > REPLACE_DEPTH_AND_AGE) {
+            throw new IllegalArgumentException("Unknown replacement policy: " + replacementPolicy);
+        }
+        long entries = Long.highestOneBit(((long) megabytes << 20) / ENTRY_BYTES);
+        if (2 * entries > Integer.MAX_VALUE - 8) { //largest long[] the JVM can allocate
+            entries = 1L << 29;
+        }
+        this.entries = new long[(int) (2 * entries)];
+        this.indexMask = (int) entries - 1;
+        this.replacementPolicy = replacementPolicy;
+    }
+
+    /**
+     * Looks up a position in the table.
+     * @param key Hash of the position (see Board.getPositionHash(boolean))
+     * @return The entry's data (to be unpacked with the getters below), or MISS if the position isn't in the table
+     */
+    public long probe(long key) {
+        int idx = slot(key);
+        long data = this.entries[idx + 1];
+        if ((this.entries[idx] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    /**
+     * Stores the result of searching a position, unless the replacement policy prefers the entry already in its
+     * slot.
+     * @param key Hash of the position (see Board.getPositionHash(boolean))
+     * @param move Best move found in the position, packed (see the Move class), or Search.NO_MOVE
+     * @param score Score of the position, which must fit in 20 bits
+     * @param depth Depth the position was searched to. Capped at 127.
+     * @param bound One of EXACT, LOWER or UPPER
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+
+        int idx = slot(key);
+        long oldData = this.entries[idx + 1];
+        boolean samePosition = (this.entries[idx] ^ oldData) == key;
+        if (oldData != MISS && !samePosition) {
+            boolean deeper = depth >= getDepth(oldData);
+            boolean stale = getGeneration(oldData) != this.generation;
+            if ((this.replacementPolicy == REPLACE_DEPTH_PREFERRED && !deeper)
+                || (this.replacementPolicy == REPLACE_DEPTH_AND_AGE && !deeper && !stale)) {
+                return;
+            }
+        }
+        //keep the old best move if the new search didn't find one
+        if (move == Search.NO_MOVE && samePosition) {
+            move = getMove(oldData);
+        }
+
+        long data = (move & 0x1FFFFL)
+                    | ((score & 0xFFFFFL) << 17)
+                    | ((long) Math.min(depth, MAX_DEPTH) << 37)
+                    | ((long) bound << 44)
+                    | ((long) this.generation << 46);
+        this.entries[idx] = key ^ data;
+        this.entries[idx + 1] = data;
+
+    }
+
+    /**
+     * Marks the start of a new search, so entries stored by earlier ones can be told apart (see
+     * REPLACE_DEPTH_AND_AGE). Entries from earlier searches can still be probed.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+    }
+
+    /**
+     * Getter for the number of entries the table can hold.
+     * @return Number of entries
+     */
+    public int getCapacity() {
+        return this.entries.length / 2;
+    }
+
+    /**
+     * @param data An entry's data, as returned by probe
+     * @return the best move stored in the entry, packed (see the Move class), or Search.NO_MOVE
+     */
+    public static int getMove(long data) {
+        return (int) (data & 0x1FFFFL);
+    }
+
+    /**
+     * @param data An entry's data, as returned by probe
+     * @return the score stored in the entry
+     */
+    public static int getScore(long data) {
+        return ((int) (data >>> 17) << 12) >> 12; //sign extend the 20 bits
+    }
+
+    /**
+     * @param data An entry's data, as returned by probe
+     * @return the depth stored in the entry
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> 37) & MAX_DEPTH;
+    }
+
+    /**
+     * @param data An entry's data, as returned by probe
+     * @return the bound of the score stored in the entry (EXACT, LOWER or UPPER)
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> 44) & 3;
+    }
+
+    /**
+     * @param data An entry's data, as returned by probe
+     * @return the generation of the search that stored the entry
+     */
+    private static int getGeneration(long data) {
+        return (int) (data >>> 46) & 0xFF;
+    }
+
+    /**
+     * Utility function to get the slot of a position in the table.
+     * @param key Hash of the position
+     * @return Index in the 'entries' array of the first long of the position's entry
+     */
+    private int slot(long key) {
+        return ((int) (key ^ (key >>> 32)) & this.indexMask) << 1;
+    }
+
+    /**
+     * The entries, two longs each (the key XOR'ed with the data, and the data)
+     */
+    private final long[] entries;
+
+    /**
+     * Number of entries minus one, to mask hashes down to an entry's index with
+     */
+    private final int indexMask;
+
+    /**
+     * One of the REPLACE_ constants
+     */
+    private final int replacementPolicy;
+
+    /**
+     * Generation of the current search. Only changed by newSearch, which must be called once per search, before
+     * the search threads start (ParallelSearch does this for its threads, so their Searches don't).
+     */
+    private int generation;
+
+}
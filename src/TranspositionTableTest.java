@@ -0,0 +1,95 @@
+import junit.framework.TestCase;
+
+/**
+ * TranspositionTableTest -- Tests for the TranspositionTable class, and its use by the Search class.
+ * @author sahil1105
+ */
+public class TranspositionTableTest extends TestCase {
+
+    /**
+     * Two keys that fall into the same slot of the table
+     */
+    private static final long KEY = 0x123456789ABCDEFL, COLLIDING_KEY = KEY ^ ((1L << 50) | (1L << 18));
+
+    /**
+     * Tests that stored entries are read back as they were stored, and that other positions miss.
+     */
+    public void testStoreAndProbe() {
+
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(table.getCapacity(), (1 << 20) / 16);
+        assertEquals(table.probe(KEY), TranspositionTable.MISS);
+
+        int move = Move.encode(12, 28, ChessPiece.QUEEN, Move.FLAG_CAPTURE);
+        table.store(KEY, move, -Search.MATE + 3, 9, TranspositionTable.UPPER);
+        long entry = table.probe(KEY);
+        assertTrue(entry != TranspositionTable.MISS);
+        assertEquals(TranspositionTable.getMove(entry), move);
+        assertEquals(TranspositionTable.getScore(entry), -Search.MATE + 3);
+        assertEquals(TranspositionTable.getDepth(entry), 9);
+        assertEquals(TranspositionTable.getBound(entry), TranspositionTable.UPPER);
+        assertEquals(table.probe(COLLIDING_KEY), TranspositionTable.MISS);
+        assertEquals(table.probe(KEY + 1), TranspositionTable.MISS);
+
+        //storing the same position again without a move keeps the old one
+        table.store(KEY, Search.NO_MOVE, 42, 10, TranspositionTable.EXACT);
+        entry = table.probe(KEY);
+        assertEquals(TranspositionTable.getMove(entry), move);
+        assertEquals(TranspositionTable.getScore(entry), 42);
+
+        table.clear();
+        assertEquals(table.probe(KEY), TranspositionTable.MISS);
+
+    }
+
+    /**
+     * Tests the replacement policies, with two positions that fall into the same slot.
+     */
+    public void testReplacementPolicies() {
+
+        TranspositionTable always = new TranspositionTable(1, TranspositionTable.REPLACE_ALWAYS);
+        TranspositionTable depthPreferred = new TranspositionTable(1, TranspositionTable.REPLACE_DEPTH_PREFERRED);
+        TranspositionTable depthAndAge = new TranspositionTable(1, TranspositionTable.REPLACE_DEPTH_AND_AGE);
+        for (TranspositionTable table : new TranspositionTable[] {always, depthPreferred, depthAndAge}) {
+            table.store(KEY, Search.NO_MOVE, 0, 8, TranspositionTable.EXACT);
+            table.store(COLLIDING_KEY, Search.NO_MOVE, 0, 2, TranspositionTable.EXACT);
+        }
+        assertEquals(always.probe(KEY), TranspositionTable.MISS);
+        assertTrue(depthPreferred.probe(KEY) != TranspositionTable.MISS);
+        assertTrue(depthAndAge.probe(KEY) != TranspositionTable.MISS);
+
+        //entries from an earlier search only get replaced by REPLACE_DEPTH_AND_AGE
+        for (TranspositionTable table : new TranspositionTable[] {depthPreferred, depthAndAge}) {
+            table.newSearch();
+            table.store(COLLIDING_KEY, Search.NO_MOVE, 0, 2, TranspositionTable.EXACT);
+        }
+        assertTrue(depthPreferred.probe(KEY) != TranspositionTable.MISS);
+        assertEquals(depthAndAge.probe(KEY), TranspositionTable.MISS);
+        assertTrue(depthAndAge.probe(COLLIDING_KEY) != TranspositionTable.MISS);
+
+    }
+
+    /**
+     * Tests that searching a position again visits fewer nodes, as the results of the first search are in the
+     * table, and that the scores found are close to those of a search with a tiny, always replaced table.
+     */
+    public void testSearchWithTable() {
+
+        ChessBoard8x8 gameBoard = new ChessBoard8x8();
+        gameBoard.initFromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R");
+        Search withTable = new Search(gameBoard, new TranspositionTable(16));
+        withTable.search(true, 4, 0, 0);
+
+        //a second search of the same position finds most of it in the table
+        long firstNodes = withTable.getNodes();
+        withTable.search(true, 4, 0, 0);
+        assertTrue(withTable.getNodes() < firstNodes);
+
+        Search withoutTable = new Search(gameBoard, new TranspositionTable(1, TranspositionTable.REPLACE_ALWAYS));
+        withoutTable.search(true, 4, 0, 0);
+        assertEquals(withTable.getDepth(), withoutTable.getDepth());
+        assertTrue(withTable.getScore() >= withoutTable.getScore() - 50);
+
+    }
+
+}
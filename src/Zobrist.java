@@ -0,0 +1,75 @@
+import java.util.Random;
+
+/**
+ * Zobrist -- Random 64-bit keys used to hash Chess positions (Zobrist hashing).
+ * Every (piece type, player, square) combination gets its own random key, and a position's hash is the XOR of the
+ * keys of all the pieces on the board. Moving a piece then only needs the keys of the squares involved to be
+ * XOR'ed in and out, so boards can keep their hash up to date as moves are made and undone.
+ * The keys are generated from a fixed seed, so hashes are the same every time the program is run.
+ * @author sahil1105
+ */
+public final class Zobrist {
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * One key per piece type, player and square. Indexed by [pieceType + (0 for player 1, NUM_PIECE_TYPES for
+     * player 2)][square].
+     */
+    private static final long[][] PIECE_KEYS = new long[2 * ChessPiece.NUM_PIECE_TYPES][64];
+
+    /**
+     * Key XOR'ed into a position's hash when it is player 2's turn to move.
+     */
+    public static final long SIDE_TO_MOVE;
+
+    //generate the keys once, when the class is loaded
+    static {
+        Random random = new Random(1105);
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * @param pieceType One of the ChessPiece type constants
+     * @param player1 whether the piece belongs to player 1
+     * @param square index of the square the piece is on (0-63)
+     * @return the key of a piece of the given type and player on the given square
+     */
+    public static long pieceKey(int pieceType, boolean player1, int square) {
+        return PIECE_KEYS[player1 ? pieceType : ChessPiece.NUM_PIECE_TYPES + pieceType][square];
+    }
+
+    /**
+     * @param piece The piece
+     * @param square index of the square the piece is on (0-63)
+     * @return the key of the piece on the given square
+     */
+    public static long pieceKey(ChessPiece piece, int square) {
+        return pieceKey(piece.getPieceType(), piece.isPlayer1(), square);
+    }
+
+    /**
+     * Computes the hash of a position from scratch.
+     * @param board The ChessPiece array of an 8x8 board
+     * @return XOR of the keys of all the pieces on the board
+     */
+    public static long hash(ChessPiece[] board) {
+        long hash = 0L;
+        for (int square = 0; square < board.length; square++) {
+            if (board[square] != null) {
+                hash ^= pieceKey(board[square], square);
+            }
+        }
+        return hash;
+    }
+
+}
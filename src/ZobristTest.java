@@ -0,0 +1,78 @@
+import junit.framework.TestCase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ZobristTest -- Tests for the Zobrist class and the position hash kept by the ChessBoard8x8 class.
+ * How the hash keeps up with moves is tested by ChessBoard8x8Test.testIncrementalStateMatchesFromScratch.
+ * @author sahil1105
+ */
+public class ZobristTest extends TestCase {
+
+    ChessBoard8x8 gameBoard; //Board to perform the tests on
+
+    /**
+     * Initial setup for each of the tests. Initializes the game board with the custom pieces, so that the
+     * alfils and nightriders are covered too.
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        super.setUp();
+        gameBoard = new ChessBoard8x8();
+        gameBoard.initCustomBoard();
+    }
+
+    /**
+     * Tests that the same position reached by different move orders (or by moving back and forth) has the same
+     * hash, and that different positions have different hashes.
+     */
+    public void testTranspositions() {
+
+        long start = gameBoard.getPositionHash();
+        gameBoard.move(1, 18, true); //knight out
+        long afterOneMove = gameBoard.getPositionHash();
+        assertTrue(afterOneMove != start);
+        gameBoard.move(57, 40, false); //nightrider out
+        gameBoard.move(18, 1, true); //knight back
+        gameBoard.move(40, 57, false); //nightrider back
+        assertEquals(gameBoard.getPositionHash(), start);
+
+        //two move orders leading to the same position
+        gameBoard.move(12, 28, true);
+        gameBoard.move(52, 36, false);
+        gameBoard.move(11, 27, true);
+        long firstOrder = gameBoard.getPositionHash();
+        gameBoard.initCustomBoard();
+        gameBoard.move(11, 27, true);
+        gameBoard.move(52, 36, false);
+        gameBoard.move(12, 28, true);
+        assertEquals(gameBoard.getPositionHash(), firstOrder);
+
+        //whose turn it is makes a difference
+        assertTrue(gameBoard.getPositionHash(true) != gameBoard.getPositionHash(false));
+
+    }
+
+    /**
+     * Tests that every piece type has its own keys, for each player and square.
+     */
+    public void testDistinctKeys() {
+
+        Set<Long> keys = new HashSet<>();
+        for (int type = 0; type < ChessPiece.NUM_PIECE_TYPES; type++) {
+            for (int square = 0; square < 64; square++) {
+                keys.add(Zobrist.pieceKey(type, true, square));
+                keys.add(Zobrist.pieceKey(type, false, square));
+            }
+        }
+        assertEquals(keys.size(), 2 * ChessPiece.NUM_PIECE_TYPES * 64);
+
+        //pieces placed with setPiece are picked up, even once the hash has been computed
+        gameBoard.getPositionHash();
+        gameBoard.setPiece(27, new Alfil(new int[] {3, 3}, true));
+        assertEquals(gameBoard.getPositionHash(), Zobrist.hash(gameBoard.board));
+
+    }
+
+}